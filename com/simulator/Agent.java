@@ -65,6 +65,36 @@ public class Agent {
     */
    public Agent(String name, String role, double aggro, double control, double midrange, double relativePower,
          String splash) {
+      this(name, role, aggro, control, midrange, relativePower, relativePower, splash);
+   }
+
+   /**
+    * Constructs a new Agent whose current relative power already differs from
+    * its baseline, for example an agent balanced for a map.
+    *
+    * Creating the agent at its final power avoids a synchronized
+    * {@link #changeCurrentRelativePower(double)} call per agent.
+    * {@link #resetToBaselineRelativePower()} still returns it to the baseline.
+    *
+    * @param name                  the agent's name (must not be null)
+    * @param role                  the agent's role classification (must not be
+    *                              null)
+    * @param aggro                 the base aggro style value (must be
+    *                              non-negative)
+    * @param control               the base control style value (must be
+    *                              non-negative)
+    * @param midrange              the base midrange style value (must be
+    *                              non-negative)
+    * @param baselineRelativePower the agent's relative power without map
+    *                              adjustments
+    * @param currentRelativePower  the agent's relative power to start with
+    * @param splash                the splash attribute ("AGGRO", "CONTROL",
+    *                              "MIDRANGE", or any other value for "NONE")
+    * @throws NullPointerException     if name or role is null
+    * @throws IllegalArgumentException if any style value is negative
+    */
+   public Agent(String name, String role, double aggro, double control, double midrange,
+         double baselineRelativePower, double currentRelativePower, String splash) {
       this.name = Objects.requireNonNull(name, "Invalid agent name. Name cannot be null.");
       this.role = Objects.requireNonNull(role, "Invalid role for Agent: " + name + ". Role cannot be null.");
       if (aggro < 0 || control < 0 || midrange < 0) {
@@ -77,8 +107,8 @@ public class Agent {
       trueAggro = aggro;
       trueControl = control;
       trueMidrange = midrange;
-      baselineRelativePower = relativePower;
-      currentRelativePower = relativePower;
+      this.baselineRelativePower = baselineRelativePower;
+      this.currentRelativePower = currentRelativePower;
 
       if (splash != null) {
          splash = splash.trim();
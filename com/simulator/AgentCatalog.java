@@ -0,0 +1,1054 @@
+package com.simulator;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Immutable catalog of every agent's stats and every map's balance: the
+ * agents with their roles, base styles, splashes and baseline relative power,
+ * and for each map the attacker advantage and the relative power changes of
+ * agents on it.
+ * </p>
+ *
+ * <p>
+ * Catalogs are plain text files, so new balance numbers can be deployed
+ * without a rebuild. Blank lines and lines starting with '#' are ignored, and
+ * every other line is one of:
+ * </p>
+ * <ul>
+ * <li>{@code agent <name> <role> <aggro> <control> <midrange> <relative power> <splash>},
+ * where the splash is AGGRO, CONTROL, MIDRANGE or NONE</li>
+ * <li>{@code map <name> <attacker advantage>}</li>
+ * <li>{@code power <map> <agent> <change>}, the change to an agent's relative
+ * power on a map</li>
+ * </ul>
+ * <p>
+ * Names cannot contain spaces and are matched case-insensitively. Agents keep
+ * the order of the file, which is the agent list order. The built-in catalog
+ * ({@link #builtIn()}) is written in the same format and can be exported with
+ * {@link #writeText(Path)} as a starting point.
+ * </p>
+ *
+ * <p>
+ * Each agent's relative power on each map (baseline plus the map's change) is
+ * computed once when the catalog is built and kept as a dense
+ * {@code double[map][agent]} matrix. {@link AgentList} reads agents' power
+ * from it instead of adjusting every agent for the map.
+ * </p>
+ *
+ * <p>
+ * {@link #load(Path)} compiles a text file into a binary snapshot next to it
+ * and decodes that snapshot on later loads, as long as the text file has not
+ * changed since.
+ * </p>
+ *
+ * <p>
+ * The active catalog is the one {@link AgentList}, {@link TeamComp} and
+ * {@link MatchSimulator} read their stats from. It starts as the built-in
+ * catalog and can be replaced with {@link #setActive(AgentCatalog)}.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see AgentList
+ * @see Agent
+ */
+
+public final class AgentCatalog {
+   private static final Logger logger = Logger.getLogger(AgentCatalog.class.getName());
+   private static final int SNAPSHOT_MAGIC = 0x56414743; // "VAGC"
+   private static final int SNAPSHOT_VERSION = 2;
+   // Smallest encoding of an agent (three empty strings and four numbers) and
+   // of a map (an empty string and a number), for bounds checks
+   private static final int MIN_SNAPSHOT_AGENT_BYTES = 3 * Integer.BYTES + 4 * Double.BYTES;
+   private static final int MIN_SNAPSHOT_MAP_BYTES = Integer.BYTES + Double.BYTES;
+   private static final List<String> SPLASHES = List.of("AGGRO", "CONTROL", "MIDRANGE", "NONE");
+   private static final String BUILT_IN_TEXT = """
+         agent Astra CONTROLLER 2 3 6 8 CONTROL
+         agent Breach INITIATOR 7 3 1 2 AGGRO
+         agent Brimstone CONTROLLER 7 2 2 6 NONE
+         agent Chamber SENTINEL 5 6 0 7 NONE
+         agent Clove CONTROLLER 5 1 5 5 NONE
+         agent Cypher SENTINEL 1 7 3 7 CONTROL
+         agent Deadlock SENTINEL 1 5 5 7 NONE
+         agent Fade INITIATOR 3 3 5 10 MIDRANGE
+         agent Gekko INITIATOR 3 1 7 7 MIDRANGE
+         agent Harbor CONTROLLER 5 3 3 3 NONE
+         agent Iso DUELIST 7 1 3 6 AGGRO
+         agent Jett DUELIST 9 2 0 7 AGGRO
+         agent KAY/O INITIATOR 7 3 1 9 NONE
+         agent Killjoy SENTINEL 3 7 1 7 NONE
+         agent Neon DUELIST 8 0 3 10 MIDRANGE
+         agent Omen CONTROLLER 3 6 2 10 NONE
+         agent Phoenix DUELIST 6 2 3 4 NONE
+         agent Raze DUELIST 7 1 3 9 AGGRO
+         agent Reyna DUELIST 9 0 2 4 NONE
+         agent Sage SENTINEL 1 5 5 6 NONE
+         agent Skye INITIATOR 3 2 6 5 NONE
+         agent Sova INITIATOR 1 6 4 10 NONE
+         agent Tejo INITIATOR 7 1 3 7 NONE
+         agent Viper CONTROLLER 3 5 3 10 MIDRANGE
+         agent Vyse SENTINEL 1 4 6 8 CONTROL
+         agent Waylay DUELIST 8 2 1 6 NONE
+         agent Yoru DUELIST 5 3 3 10 AGGRO
+
+         map abyss -0.1
+         power abyss Astra +1
+         power abyss Breach -1
+         power abyss Brimstone -2
+         power abyss Chamber +1
+         power abyss Clove -1
+         power abyss Cypher +1
+         power abyss Deadlock +2
+         power abyss Gekko +1
+         power abyss Harbor +1
+         power abyss Jett +2
+         power abyss KAY/O +1
+         power abyss Killjoy -1
+         power abyss Omen -1
+         power abyss Raze -2
+         power abyss Sova +2
+         power abyss Vyse +2
+         power abyss Yoru -1
+
+         map ascent -5.05
+         power ascent Breach +1
+         power ascent Brimstone -2
+         power ascent Chamber +2
+         power ascent Clove +1
+         power ascent Gekko -1
+         power ascent Jett +3
+         power ascent KAY/O +3
+         power ascent Killjoy +3
+         power ascent Omen +2
+         power ascent Phoenix +1
+         power ascent Raze -2
+         power ascent Sage +1
+         power ascent Sova +2
+         power ascent Viper +2
+         power ascent Vyse +2
+         power ascent Waylay +1
+
+         map bind -3.81
+         power bind Astra +1
+         power bind Brimstone +4
+         power bind Chamber +2
+         power bind Clove +1
+         power bind Cypher +1
+         power bind Deadlock +1
+         power bind Fade +2
+         power bind Gekko +1
+         power bind Iso +2
+         power bind Jett -1
+         power bind Killjoy -4
+         power bind Neon -1
+         power bind Omen -2
+         power bind Phoenix +1
+         power bind Raze +4
+         power bind Skye +1
+         power bind Sova -1
+         power bind Tejo +1
+         power bind Viper +4
+         power bind Vyse +3
+         power bind Yoru +2
+
+         map breeze 1.11
+         power breeze Astra -1
+         power breeze Breach -2
+         power breeze Brimstone -3
+         power breeze Chamber +1
+         power breeze Clove -2
+         power breeze Cypher +2
+         power breeze Deadlock -1
+         power breeze Fade -1
+         power breeze Gekko +1
+         power breeze Harbor +1
+         power breeze Jett +2
+         power breeze KAY/O +1
+         power breeze Killjoy -2
+         power breeze Neon -1
+         power breeze Omen -2
+         power breeze Phoenix -2
+         power breeze Raze -2
+         power breeze Reyna -1
+         power breeze Sage -3
+         power breeze Sova +2
+         power breeze Tejo -1
+         power breeze Viper +2
+         power breeze Vyse +1
+         power breeze Waylay -1
+         power breeze Yoru +1
+
+         map corrode -0.96
+         power corrode Brimstone +1
+         power corrode Chamber +2
+         power corrode Cypher +2
+         power corrode Deadlock +2
+         power corrode Fade +1
+         power corrode Gekko +1
+         power corrode KAY/O +1
+         power corrode Killjoy -1
+         power corrode Neon +2
+         power corrode Omen +1
+         power corrode Phoenix +1
+         power corrode Raze +1
+         power corrode Sage +2
+         power corrode Skye +2
+         power corrode Sova +1
+         power corrode Tejo -1
+         power corrode Viper +1
+         power corrode Vyse +3
+         power corrode Waylay +1
+
+         map fracture 1
+         power fracture Breach +2
+         power fracture Brimstone +4
+         power fracture Chamber +1
+         power fracture Clove +1
+         power fracture Cypher +2
+         power fracture Deadlock +2
+         power fracture Fade +1
+         power fracture Gekko -1
+         power fracture KAY/O +2
+         power fracture Killjoy +1
+         power fracture Neon +2
+         power fracture Omen -2
+         power fracture Raze +3
+         power fracture Sova +1
+         power fracture Tejo +1
+         power fracture Viper -1
+         power fracture Vyse +2
+         power fracture Yoru -2
+
+         map haven -1.68
+         power haven Astra +2
+         power haven Breach +4
+         power haven Brimstone -2
+         power haven Chamber +1
+         power haven Clove -1
+         power haven Cypher +3
+         power haven Fade -1
+         power haven Gekko -2
+         power haven Iso +4
+         power haven KAY/O -2
+         power haven Killjoy +2
+         power haven Neon +1
+         power haven Omen +3
+         power haven Phoenix +1
+         power haven Raze -2
+         power haven Reyna -2
+         power haven Sage -2
+         power haven Skye -2
+         power haven Sova +3
+         power haven Tejo +1
+         power haven Viper +3
+         power haven Vyse +2
+         power haven Waylay +1
+         power haven Yoru +3
+
+         map icebox -1.35
+         power icebox Astra -2
+         power icebox Breach -2
+         power icebox Brimstone -3
+         power icebox Chamber +1
+         power icebox Cypher -4
+         power icebox Deadlock -2
+         power icebox Fade -1
+         power icebox Gekko +2
+         power icebox Harbor +2
+         power icebox Iso +1
+         power icebox Jett +1
+         power icebox KAY/O +2
+         power icebox Killjoy +3
+         power icebox Neon -1
+         power icebox Omen -1
+         power icebox Phoenix -1
+         power icebox Raze -1
+         power icebox Reyna +2
+         power icebox Sage +5
+         power icebox Skye -2
+         power icebox Sova +3
+         power icebox Tejo -2
+         power icebox Viper +4
+         power icebox Vyse -1
+         power icebox Waylay -2
+         power icebox Yoru -2
+
+         map lotus 0.57
+         power lotus Astra +1
+         power lotus Breach -1
+         power lotus Brimstone -3
+         power lotus Chamber +2
+         power lotus Clove +1
+         power lotus Cypher +1
+         power lotus Deadlock +2
+         power lotus Fade +4
+         power lotus Gekko +1
+         power lotus Harbor -2
+         power lotus KAY/O +1
+         power lotus Killjoy +1
+         power lotus Neon +1
+         power lotus Omen +2
+         power lotus Phoenix -1
+         power lotus Raze +3
+         power lotus Reyna -1
+         power lotus Sage -1
+         power lotus Skye -2
+         power lotus Sova -2
+         power lotus Tejo +2
+         power lotus Viper +3
+         power lotus Vyse +3
+         power lotus Yoru +1
+
+         map pearl -1.6
+         power pearl Astra +3
+         power pearl Breach -2
+         power pearl Brimstone -2
+         power pearl Clove -2
+         power pearl Fade +1
+         power pearl Gekko -1
+         power pearl Harbor +1
+         power pearl Jett +1
+         power pearl KAY/O +2
+         power pearl Killjoy +2
+         power pearl Neon +2
+         power pearl Omen -2
+         power pearl Phoenix +2
+         power pearl Raze -1
+         power pearl Reyna -1
+         power pearl Sage +1
+         power pearl Skye -1
+         power pearl Sova +1
+         power pearl Tejo -2
+         power pearl Viper +1
+         power pearl Vyse +2
+         power pearl Yoru +1
+
+         map split -3.3
+         power split Astra +2
+         power split Brimstone -1
+         power split Chamber +1
+         power split Cypher +1
+         power split Fade +2
+         power split Harbor +2
+         power split KAY/O +2
+         power split Killjoy -2
+         power split Neon -1
+         power split Omen +1
+         power split Phoenix +1
+         power split Raze +4
+         power split Reyna -2
+         power split Sage +1
+         power split Skye +1
+         power split Sova -3
+         power split Tejo +1
+         power split Viper +3
+         power split Vyse +1
+         power split Yoru +2
+
+         map sunset -1.39
+         power sunset Breach +1
+         power sunset Chamber +2
+         power sunset Cypher +2
+         power sunset Deadlock +2
+         power sunset Fade +2
+         power sunset Gekko +1
+         power sunset Harbor +2
+         power sunset KAY/O +2
+         power sunset Killjoy -3
+         power sunset Neon +2
+         power sunset Omen +1
+         power sunset Raze +1
+         power sunset Reyna -1
+         power sunset Sage +2
+         power sunset Sova +2
+         power sunset Tejo +1
+         power sunset Viper +2
+         power sunset Vyse +2
+         power sunset Yoru +1
+         """;
+   private static final AgentCatalog BUILT_IN = parse(BUILT_IN_TEXT.lines().toList());
+   private static volatile AgentCatalog active = BUILT_IN;
+   private final String[] agentNames;
+   private final String[] roles;
+   private final String[] splashes;
+   private final double[] baseAggro;
+   private final double[] baseControl;
+   private final double[] baseMidrange;
+   private final double[] baselineRelativePower;
+   private final String[] mapNames;
+   private final double[] attackerMapAdvantage;
+   // Relative power change of agent a on map m at index m * agentCount + a
+   private final double[] relativePowerChanges;
+   // Relative power of every agent on every map, baseline plus change
+   private final double[][] relativePower;
+   private final Map<String, Integer> agentIndex = new HashMap<>();
+   private final Map<String, Integer> mapIndex = new HashMap<>();
+   private final long version;
+
+   /**
+    * Constructs a catalog from parsed or decoded tables. The arrays are owned
+    * by the catalog afterwards.
+    */
+   private AgentCatalog(String[] agentNames, String[] roles, String[] splashes, double[] baseAggro,
+         double[] baseControl, double[] baseMidrange, double[] baselineRelativePower, String[] mapNames,
+         double[] attackerMapAdvantage, double[] relativePowerChanges) {
+      this.agentNames = agentNames;
+      this.roles = roles;
+      this.splashes = splashes;
+      this.baseAggro = baseAggro;
+      this.baseControl = baseControl;
+      this.baseMidrange = baseMidrange;
+      this.baselineRelativePower = baselineRelativePower;
+      this.mapNames = mapNames;
+      this.attackerMapAdvantage = attackerMapAdvantage;
+      this.relativePowerChanges = relativePowerChanges;
+      for (int i = 0; i < agentNames.length; i++) {
+         agentIndex.put(agentNames[i].toLowerCase(Locale.ROOT), i);
+      }
+      relativePower = new double[mapNames.length][agentNames.length];
+      for (int m = 0; m < mapNames.length; m++) {
+         mapIndex.put(mapNames[m].toLowerCase(Locale.ROOT), m);
+         for (int a = 0; a < agentNames.length; a++) {
+            relativePower[m][a] = baselineRelativePower[a] + relativePowerChanges[m * agentNames.length + a];
+         }
+      }
+      version = computeVersion();
+   }
+
+   /************* Loading methods *************/
+   /**
+    * Gets the built-in catalog, with the stats this simulator ships with.
+    *
+    * @return the built-in catalog
+    */
+   public static AgentCatalog builtIn() {
+      return BUILT_IN;
+   }
+
+   /**
+    * Gets the active catalog that new agent lists, teams and matches use.
+    *
+    * @return the active catalog
+    */
+   public static AgentCatalog getActive() {
+      return active;
+   }
+
+   /**
+    * Makes a catalog the active one. Agent lists, teams and plans that were
+    * already built keep the stats of the catalog they were built from.
+    *
+    * @param catalog the new active catalog
+    * @throws IllegalArgumentException if the catalog is null
+    */
+   public static void setActive(AgentCatalog catalog) {
+      if (catalog == null) {
+         throw new IllegalArgumentException("Invalid input in setActive. Catalog cannot be null.");
+      }
+      active = catalog;
+   }
+
+   /**
+    * Loads a catalog text file, using its binary snapshot when it is up to
+    * date.
+    *
+    * <p>
+    * The snapshot is the same path with ".snapshot" appended. It records the
+    * size and a 64-bit hash of the text it was compiled from, and the version
+    * of the catalog it holds. If the text differs, or the snapshot is missing,
+    * truncated or corrupt, the text is parsed and a new snapshot is written. A
+    * snapshot that cannot be written is logged and otherwise ignored.
+    * </p>
+    *
+    * @param file the catalog text file
+    * @return the catalog
+    * @throws IOException              if the text file cannot be read
+    * @throws IllegalArgumentException if the file is null or a line is invalid
+    */
+   public static AgentCatalog load(Path file) throws IOException {
+      if (file == null) {
+         throw new IllegalArgumentException("Invalid input in AgentCatalog. File cannot be null.");
+      }
+      byte[] text = Files.readAllBytes(file);
+      long textHash = contentHash(text);
+      Path snapshot = snapshotPath(file);
+      if (Files.exists(snapshot)) {
+         try {
+            AgentCatalog catalog = readSnapshot(snapshot, text.length, textHash);
+            if (catalog != null) {
+               return catalog;
+            }
+         } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            logger.log(Level.WARNING, "Ignoring unreadable catalog snapshot " + snapshot, e);
+         }
+      }
+      AgentCatalog catalog = parse(new String(text, StandardCharsets.UTF_8).lines().toList());
+      try {
+         catalog.writeSnapshot(snapshot, text.length, textHash);
+      } catch (IOException e) {
+         logger.log(Level.WARNING, "Could not write catalog snapshot " + snapshot, e);
+      }
+      return catalog;
+   }
+
+   /**
+    * Parses a catalog from the lines of a text file.
+    *
+    * @param lines the lines
+    * @return the catalog
+    * @throws IllegalArgumentException if the lines are null, a line is invalid,
+    *                                  a name is repeated, a power change names
+    *                                  an unknown map or agent, or there are no
+    *                                  agents
+    */
+   public static AgentCatalog parse(List<String> lines) {
+      if (lines == null) {
+         throw new IllegalArgumentException("Invalid input in AgentCatalog. Lines cannot be null.");
+      }
+      List<String[]> agents = new ArrayList<>();
+      List<String[]> maps = new ArrayList<>();
+      List<String[]> changes = new ArrayList<>();
+      List<Integer> changeLines = new ArrayList<>();
+      Map<String, Integer> agentLines = new HashMap<>();
+      Map<String, Integer> mapLines = new HashMap<>();
+      for (int i = 0; i < lines.size(); i++) {
+         String line = lines.get(i).trim();
+         if (line.isEmpty() || line.startsWith("#")) {
+            continue;
+         }
+         String[] fields = line.split("\\s+");
+         int lineNumber = i + 1;
+         switch (fields[0].toLowerCase(Locale.ROOT)) {
+            case "agent" -> {
+               requireFields(fields, 8, lineNumber);
+               if (!SPLASHES.contains(fields[7].toUpperCase(Locale.ROOT))) {
+                  throw invalidLine(lineNumber, "Splash must be AGGRO, CONTROL, MIDRANGE or NONE, got: " + fields[7]);
+               }
+               if (agentLines.putIfAbsent(fields[1].toLowerCase(Locale.ROOT), lineNumber) != null) {
+                  throw invalidLine(lineNumber, "Duplicate agent: " + fields[1]);
+               }
+               agents.add(fields);
+            }
+            case "map" -> {
+               requireFields(fields, 3, lineNumber);
+               if (mapLines.putIfAbsent(fields[1].toLowerCase(Locale.ROOT), lineNumber) != null) {
+                  throw invalidLine(lineNumber, "Duplicate map: " + fields[1]);
+               }
+               maps.add(fields);
+            }
+            case "power" -> {
+               requireFields(fields, 4, lineNumber);
+               changes.add(fields);
+               changeLines.add(lineNumber);
+            }
+            default -> throw invalidLine(lineNumber, "Unknown entry: " + fields[0]);
+         }
+      }
+      if (agents.isEmpty()) {
+         throw new IllegalArgumentException("Invalid input in AgentCatalog. A catalog needs at least one agent.");
+      }
+
+      int agentCount = agents.size();
+      String[] names = new String[agentCount];
+      String[] roles = new String[agentCount];
+      String[] splashes = new String[agentCount];
+      double[] aggro = new double[agentCount];
+      double[] control = new double[agentCount];
+      double[] midrange = new double[agentCount];
+      double[] power = new double[agentCount];
+      for (int a = 0; a < agentCount; a++) {
+         String[] fields = agents.get(a);
+         int lineNumber = agentLines.get(fields[1].toLowerCase(Locale.ROOT));
+         names[a] = fields[1];
+         roles[a] = fields[2].toUpperCase(Locale.ROOT);
+         aggro[a] = parseNumber(fields[3], lineNumber);
+         control[a] = parseNumber(fields[4], lineNumber);
+         midrange[a] = parseNumber(fields[5], lineNumber);
+         power[a] = parseNumber(fields[6], lineNumber);
+         splashes[a] = fields[7].toUpperCase(Locale.ROOT);
+         if (aggro[a] < 0 || control[a] < 0 || midrange[a] < 0) {
+            throw invalidLine(lineNumber, "Styles cannot be negative.");
+         }
+      }
+      String[] mapNames = new String[maps.size()];
+      double[] advantages = new double[maps.size()];
+      for (int m = 0; m < mapNames.length; m++) {
+         String[] fields = maps.get(m);
+         mapNames[m] = fields[1].toLowerCase(Locale.ROOT);
+         advantages[m] = parseNumber(fields[2], mapLines.get(mapNames[m]));
+      }
+      double[] powerChanges = new double[mapNames.length * agentCount];
+      for (int c = 0; c < changes.size(); c++) {
+         String[] fields = changes.get(c);
+         int lineNumber = changeLines.get(c);
+         int map = indexOf(mapNames, fields[1]);
+         int agent = indexOf(names, fields[2]);
+         if (map < 0) {
+            throw invalidLine(lineNumber, "Unknown map: " + fields[1]);
+         }
+         if (agent < 0) {
+            throw invalidLine(lineNumber, "Unknown agent: " + fields[2]);
+         }
+         powerChanges[map * agentCount + agent] += parseNumber(fields[3], lineNumber);
+      }
+      return new AgentCatalog(names, roles, splashes, aggro, control, midrange, power, mapNames, advantages,
+            powerChanges);
+   }
+
+   /**
+    * Writes this catalog as a text file that {@link #load(Path)} and
+    * {@link #parse(List)} read back unchanged.
+    *
+    * @param file the file to write
+    * @throws IOException if the file cannot be written
+    */
+   public void writeText(Path file) throws IOException {
+      try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+         out.write("# agent <name> <role> <aggro> <control> <midrange> <relative power> <splash>\n");
+         for (int a = 0; a < agentNames.length; a++) {
+            out.write(String.join(" ", "agent", agentNames[a], roles[a], format(baseAggro[a]),
+                  format(baseControl[a]), format(baseMidrange[a]), format(baselineRelativePower[a]), splashes[a]));
+            out.write('\n');
+         }
+         out.write("\n# map <name> <attacker advantage>, then power <map> <agent> <relative power change>\n");
+         for (int m = 0; m < mapNames.length; m++) {
+            out.write("\nmap " + mapNames[m] + " " + format(attackerMapAdvantage[m]) + "\n");
+            for (int a = 0; a < agentNames.length; a++) {
+               double change = relativePowerChanges[m * agentNames.length + a];
+               if (change != 0) {
+                  out.write("power " + mapNames[m] + " " + agentNames[a] + " " + ((change > 0) ? "+" : "")
+                        + format(change) + "\n");
+               }
+            }
+         }
+      }
+   }
+
+   /************* Getter methods *************/
+   /**
+    * Gets a 64-bit hash of every entry of the catalog. Catalogs with the same
+    * stats have the same version, and any change gives a new one.
+    *
+    * @return the version
+    */
+   public long getVersion() {
+      return version;
+   }
+
+   /**
+    * Gets the number of agents.
+    *
+    * @return the agent count
+    */
+   public int getAgentCount() {
+      return agentNames.length;
+   }
+
+   /**
+    * Gets the agent names in agent list order.
+    *
+    * @return a copy of the names
+    */
+   public String[] getAgentNames() {
+      return agentNames.clone();
+   }
+
+   /**
+    * Looks up an agent's index by name.
+    *
+    * @param name the agent name (case-insensitive, automatically trimmed)
+    * @return the agent index, or -1 if there is no such agent
+    */
+   public int getAgentIndex(String name) {
+      if (name == null) {
+         return -1;
+      }
+      return agentIndex.getOrDefault(name.trim().toLowerCase(Locale.ROOT), -1);
+   }
+
+   /**
+    * Creates an agent with its baseline stats.
+    *
+    * @param agent the agent index
+    * @return a new agent
+    */
+   public Agent newAgent(int agent) {
+      return newAgent(agent, -1);
+   }
+
+   /**
+    * Creates an agent balanced for a map.
+    *
+    * @param agent the agent index
+    * @param map   the map index, or -1 for baseline power
+    * @return a new agent whose current relative power is its power on the map
+    */
+   public Agent newAgent(int agent, int map) {
+      return new Agent(agentNames[agent], roles[agent], baseAggro[agent], baseControl[agent], baseMidrange[agent],
+            baselineRelativePower[agent], getRelativePower(map, agent), splashes[agent]);
+   }
+
+   /**
+    * Gets an agent's relative power on a map from the power matrix.
+    *
+    * @param map   the map index, or -1 for baseline power
+    * @param agent the agent index
+    * @return the agent's relative power
+    */
+   public double getRelativePower(int map, int agent) {
+      return (map < 0) ? baselineRelativePower[agent] : relativePower[map][agent];
+   }
+
+   /**
+    * Gets an agent's relative power change on a map.
+    *
+    * @param map   the map name (case-insensitive, automatically trimmed)
+    * @param agent the agent index
+    * @return the change, or 0 if the map is not in the catalog
+    */
+   public double getRelativePowerChange(String map, int agent) {
+      int m = getMapIndex(map);
+      return (m < 0) ? 0.0 : relativePowerChanges[m * agentNames.length + agent];
+   }
+
+   /**
+    * Gets the number of maps.
+    *
+    * @return the map count
+    */
+   public int getMapCount() {
+      return mapNames.length;
+   }
+
+   /**
+    * Gets a map's name.
+    *
+    * @param map the map index
+    * @return the lowercase map name
+    */
+   public String getMapName(int map) {
+      return mapNames[map];
+   }
+
+   /**
+    * Looks up a map's index by name.
+    *
+    * @param name the map name (case-insensitive, automatically trimmed)
+    * @return the map index, or -1 if there is no such map
+    */
+   public int getMapIndex(String name) {
+      if (name == null) {
+         return -1;
+      }
+      return mapIndex.getOrDefault(name.trim().toLowerCase(Locale.ROOT), -1);
+   }
+
+   /**
+    * Gets a map's attacker advantage. Negative values favor defenders,
+    * positive values favor attackers.
+    *
+    * @param map the map name (case-insensitive, automatically trimmed)
+    * @return the attacker advantage, or 0.0 if the map is not in the catalog
+    */
+   public double getAttackerMapAdvantage(String map) {
+      int m = getMapIndex(map);
+      return (m < 0) ? 0.0 : attackerMapAdvantage[m];
+   }
+
+   /************* Snapshot methods *************/
+   /**
+    * Gets the snapshot path of a catalog text file.
+    *
+    * @param file the text file
+    * @return the snapshot path
+    */
+   private static Path snapshotPath(Path file) {
+      return file.resolveSibling(file.getFileName() + ".snapshot");
+   }
+
+   /**
+    * Writes a binary snapshot of this catalog, replacing any older one in a
+    * single move.
+    *
+    * @param snapshot   the snapshot file
+    * @param sourceSize the size of the text the catalog was parsed from
+    * @param sourceHash the content hash of that text
+    * @throws IOException if the snapshot cannot be written
+    */
+   private void writeSnapshot(Path snapshot, long sourceSize, long sourceHash) throws IOException {
+      Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+         out.writeInt(SNAPSHOT_MAGIC);
+         out.writeInt(SNAPSHOT_VERSION);
+         out.writeLong(sourceSize);
+         out.writeLong(sourceHash);
+         out.writeInt(agentNames.length);
+         out.writeInt(mapNames.length);
+         for (int a = 0; a < agentNames.length; a++) {
+            writeString(out, agentNames[a]);
+            writeString(out, roles[a]);
+            writeString(out, splashes[a]);
+            out.writeDouble(baseAggro[a]);
+            out.writeDouble(baseControl[a]);
+            out.writeDouble(baseMidrange[a]);
+            out.writeDouble(baselineRelativePower[a]);
+         }
+         for (int m = 0; m < mapNames.length; m++) {
+            writeString(out, mapNames[m]);
+            out.writeDouble(attackerMapAdvantage[m]);
+         }
+         for (double change : relativePowerChanges) {
+            out.writeDouble(change);
+         }
+         out.writeLong(version);
+      }
+      Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+   }
+
+   /**
+    * Reads a binary snapshot and decodes it.
+    *
+    * <p>
+    * The snapshot is copied to the heap rather than memory-mapped, so the file
+    * is not held open and can be replaced while the catalog is in use. Every
+    * count and length is checked against the bytes that are left before
+    * anything is allocated, and the decoded catalog must have the version the
+    * snapshot recorded.
+    * </p>
+    *
+    * @param snapshot   the snapshot file
+    * @param sourceSize the current size of the text file
+    * @param sourceHash the current content hash of the text file
+    * @return the catalog, or null if the snapshot is of another text
+    * @throws IOException if the snapshot cannot be read or is not a valid
+    *                     catalog snapshot
+    */
+   private static AgentCatalog readSnapshot(Path snapshot, long sourceSize, long sourceHash) throws IOException {
+      ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+      if (in.getInt() != SNAPSHOT_MAGIC || in.getInt() != SNAPSHOT_VERSION) {
+         throw new IOException("Not a catalog snapshot: " + snapshot);
+      }
+      if (in.getLong() != sourceSize || in.getLong() != sourceHash) {
+         return null;
+      }
+      int agentCount = in.getInt();
+      int mapCount = in.getInt();
+      if (agentCount < 0 || mapCount < 0 || (long) agentCount * MIN_SNAPSHOT_AGENT_BYTES
+            + (long) mapCount * MIN_SNAPSHOT_MAP_BYTES + (long) agentCount * mapCount * Double.BYTES
+            + Long.BYTES > in.remaining()) {
+         throw new IOException("Corrupt catalog snapshot " + snapshot + ": " + agentCount + " agents and "
+               + mapCount + " maps do not fit in " + in.remaining() + " bytes");
+      }
+      String[] names = new String[agentCount];
+      String[] roles = new String[agentCount];
+      String[] splashes = new String[agentCount];
+      double[] aggro = new double[agentCount];
+      double[] control = new double[agentCount];
+      double[] midrange = new double[agentCount];
+      double[] power = new double[agentCount];
+      for (int a = 0; a < agentCount; a++) {
+         names[a] = readString(in);
+         roles[a] = readString(in);
+         splashes[a] = readString(in);
+         aggro[a] = in.getDouble();
+         control[a] = in.getDouble();
+         midrange[a] = in.getDouble();
+         power[a] = in.getDouble();
+      }
+      String[] mapNames = new String[mapCount];
+      double[] advantages = new double[mapCount];
+      for (int m = 0; m < mapCount; m++) {
+         mapNames[m] = readString(in);
+         advantages[m] = in.getDouble();
+      }
+      double[] powerChanges = new double[mapCount * agentCount];
+      if (in.remaining() != (long) powerChanges.length * Double.BYTES + Long.BYTES) {
+         throw new IOException("Corrupt catalog snapshot " + snapshot + ": unexpected length");
+      }
+      in.asDoubleBuffer().get(powerChanges);
+      in.position(in.position() + powerChanges.length * Double.BYTES);
+      AgentCatalog catalog = new AgentCatalog(names, roles, splashes, aggro, control, midrange, power, mapNames,
+            advantages, powerChanges);
+      if (catalog.getVersion() != in.getLong()) {
+         throw new IOException("Corrupt catalog snapshot " + snapshot + ": version mismatch");
+      }
+      return catalog;
+   }
+
+   /************* Helper methods *************/
+   /**
+    * Writes a length-prefixed UTF-8 string.
+    *
+    * @param out   the stream
+    * @param value the string
+    * @throws IOException if the stream cannot be written
+    */
+   private static void writeString(DataOutputStream out, String value) throws IOException {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+   }
+
+   /**
+    * Reads a length-prefixed UTF-8 string.
+    *
+    * @param in the buffer
+    * @return the string
+    * @throws IOException if the length is negative or longer than the rest of
+    *                     the buffer
+    */
+   private static String readString(ByteBuffer in) throws IOException {
+      int length = in.getInt();
+      if (length < 0 || length > in.remaining()) {
+         throw new IOException("Corrupt catalog snapshot: string length " + length + " with " + in.remaining()
+               + " bytes left");
+      }
+      byte[] bytes = new byte[length];
+      in.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+   }
+
+   /**
+    * Checks that a line has exactly the expected number of fields.
+    *
+    * @param fields     the line's fields
+    * @param count      the expected count
+    * @param lineNumber the line number, for the error message
+    */
+   private static void requireFields(String[] fields, int count, int lineNumber) {
+      if (fields.length != count) {
+         throw invalidLine(lineNumber, fields[0] + " entries need " + (count - 1) + " values, got: "
+               + (fields.length - 1));
+      }
+   }
+
+   /**
+    * Parses a number field.
+    *
+    * @param text       the field
+    * @param lineNumber the line number, for the error message
+    * @return the number
+    */
+   private static double parseNumber(String text, int lineNumber) {
+      try {
+         double value = Double.parseDouble(text);
+         if (Double.isFinite(value)) {
+            return value;
+         }
+      } catch (NumberFormatException e) {
+         // Reported below
+      }
+      throw invalidLine(lineNumber, "Not a number: " + text);
+   }
+
+   /**
+    * Builds the exception for an invalid line.
+    *
+    * @param lineNumber the line number
+    * @param message    what is wrong
+    * @return the exception
+    */
+   private static IllegalArgumentException invalidLine(int lineNumber, String message) {
+      return new IllegalArgumentException("Invalid input in AgentCatalog line " + lineNumber + ". " + message);
+   }
+
+   /**
+    * Finds a name in an array, ignoring case.
+    *
+    * @param names the names
+    * @param name  the name to find
+    * @return the index, or -1 if it is not there
+    */
+   private static int indexOf(String[] names, String name) {
+      for (int i = 0; i < names.length; i++) {
+         if (names[i].equalsIgnoreCase(name)) {
+            return i;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * Formats a number without a trailing ".0" for whole numbers.
+    *
+    * @param value the number
+    * @return the text
+    */
+   private static String format(double value) {
+      return (value == Math.rint(value) && Math.abs(value) < 1e15) ? Long.toString((long) value)
+            : Double.toString(value);
+   }
+
+   /**
+    * Hashes every entry of the catalog.
+    *
+    * @return the version
+    */
+   private long computeVersion() {
+      long hash = agentNames.length * 31L + mapNames.length;
+      for (int a = 0; a < agentNames.length; a++) {
+         hash = mix(hash, agentNames[a].hashCode());
+         hash = mix(hash, roles[a].hashCode());
+         hash = mix(hash, splashes[a].hashCode());
+      }
+      for (String map : mapNames) {
+         hash = mix(hash, map.hashCode());
+      }
+      for (double[] table : new double[][] { baseAggro, baseControl, baseMidrange, baselineRelativePower,
+            attackerMapAdvantage, relativePowerChanges }) {
+         for (double value : table) {
+            hash = mix(hash, Double.doubleToLongBits(value));
+         }
+      }
+      return hash;
+   }
+
+   /**
+    * Hashes the bytes of a catalog text file, 8 bytes at a time.
+    *
+    * @param text the file's bytes
+    * @return the content hash
+    */
+   private static long contentHash(byte[] text) {
+      ByteBuffer words = ByteBuffer.wrap(text).order(ByteOrder.LITTLE_ENDIAN);
+      long hash = text.length;
+      while (words.remaining() >= Long.BYTES) {
+         hash = mix(hash, words.getLong());
+      }
+      while (words.hasRemaining()) {
+         hash = mix(hash, words.get());
+      }
+      return hash;
+   }
+
+   /**
+    * Folds a value into a running hash.
+    *
+    * @param hash  the hash so far
+    * @param value the value to add
+    * @return the new hash
+    */
+   private static long mix(long hash, long value) {
+      long z = (hash ^ value) * 0x9E3779B97F4A7C15L;
+      z = (z ^ (z >>> 32)) * 0xD6E8FEB86659FD93L;
+      return z ^ (z >>> 32);
+   }
+}
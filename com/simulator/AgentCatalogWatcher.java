@@ -0,0 +1,219 @@
+package com.simulator;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Watches an agent catalog file and makes every new version of it the active
+ * {@link AgentCatalog} without restarting.
+ * </p>
+ *
+ * <p>
+ * A daemon thread waits for the file to be written or replaced, lets the
+ * writer finish, and loads the file into a new immutable catalog. If its
+ * version differs from the active catalog, it is swapped in with
+ * {@link AgentCatalog#setActive(AgentCatalog)} and the listener is told. A
+ * file that cannot be read or parsed is logged and the active catalog stays
+ * in place, so a half-finished edit never breaks running jobs.
+ * </p>
+ *
+ * <p>
+ * The swap is a single reference write. Teams, plans and tables hold on to
+ * the catalog they were built from, so jobs that are already running finish
+ * on the old version and only jobs started afterwards see the new one. The
+ * listener is where callers rebuild what they derived from the catalog, for
+ * example invalidating cached results with
+ * {@link MatchResultCache#invalidate(CompTables, CompTables)}.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see AgentCatalog
+ * @see MatchResultCache
+ */
+
+public final class AgentCatalogWatcher implements AutoCloseable {
+   private static final Logger logger = Logger.getLogger(AgentCatalogWatcher.class.getName());
+   // Editors often write a file in several steps, so changes are read only
+   // once the file has been quiet for this long
+   private static final long SETTLE_MILLIS = 250;
+   private final Path file;
+   private final Consumer<AgentCatalog> listener;
+   private final WatchService watchService;
+   private final Thread thread;
+   private long reloads;
+   private long failures;
+
+   /**
+    * Constructs a watcher and registers the file's directory.
+    *
+    * @param file     the catalog text file
+    * @param listener receives each catalog that becomes active
+    * @throws IOException if the directory cannot be watched
+    */
+   private AgentCatalogWatcher(Path file, Consumer<AgentCatalog> listener) throws IOException {
+      this.file = file;
+      this.listener = listener;
+      watchService = file.getFileSystem().newWatchService();
+      try {
+         file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+               StandardWatchEventKinds.ENTRY_MODIFY);
+      } catch (IOException e) {
+         watchService.close();
+         throw e;
+      }
+      thread = new Thread(this::watch, "agent-catalog-watcher");
+      thread.setDaemon(true);
+   }
+
+   /**
+    * Starts watching a catalog file.
+    *
+    * <p>
+    * The file is not loaded right away; callers load it first with
+    * {@link AgentCatalog#load(Path)} and the watcher picks up later changes.
+    * </p>
+    *
+    * @param file     the catalog text file
+    * @param listener receives each catalog that becomes active, on the
+    *                 watcher's thread; may be null
+    * @return the running watcher
+    * @throws IOException              if the file's directory cannot be watched
+    * @throws IllegalArgumentException if the file is null
+    */
+   public static AgentCatalogWatcher start(Path file, Consumer<AgentCatalog> listener) throws IOException {
+      if (file == null) {
+         throw new IllegalArgumentException("Invalid input in AgentCatalogWatcher. File cannot be null.");
+      }
+      AgentCatalogWatcher watcher = new AgentCatalogWatcher(file.toAbsolutePath(), listener);
+      watcher.thread.start();
+      return watcher;
+   }
+
+   /**
+    * Loads the file and makes it the active catalog if its version differs
+    * from the active one.
+    *
+    * @return true if a new catalog became active
+    */
+   public boolean reload() {
+      AgentCatalog catalog;
+      synchronized (this) {
+         try {
+            catalog = AgentCatalog.load(file);
+         } catch (IOException | IllegalArgumentException e) {
+            failures++;
+            logger.log(Level.WARNING, "Could not reload agent catalog " + file + ", keeping the active catalog", e);
+            return false;
+         }
+         if (catalog.getVersion() == AgentCatalog.getActive().getVersion()) {
+            return false;
+         }
+         AgentCatalog.setActive(catalog);
+         reloads++;
+      }
+      logger.log(Level.INFO, "Reloaded agent catalog {0} (version {1})",
+            new Object[] { file, Long.toHexString(catalog.getVersion()) });
+      if (listener != null) {
+         listener.accept(catalog);
+      }
+      return true;
+   }
+
+   /**
+    * Stops watching. A reload that is already running still finishes.
+    */
+   @Override
+   public void close() {
+      try {
+         watchService.close();
+      } catch (IOException e) {
+         logger.log(Level.WARNING, "Could not close the watch service for " + file, e);
+      }
+      thread.interrupt();
+   }
+
+   /************* Getter methods *************/
+   /**
+    * Gets the watched file.
+    *
+    * @return the absolute path of the catalog file
+    */
+   public Path getFile() {
+      return file;
+   }
+
+   /**
+    * Gets the number of times a new catalog became active.
+    *
+    * @return the reload count
+    */
+   public synchronized long getReloads() {
+      return reloads;
+   }
+
+   /**
+    * Gets the number of changes that could not be loaded.
+    *
+    * @return the failure count
+    */
+   public synchronized long getFailures() {
+      return failures;
+   }
+
+   /************* Helper methods *************/
+   /**
+    * Waits for changes to the file and reloads it until the watcher is
+    * closed.
+    */
+   private void watch() {
+      try {
+         while (true) {
+            WatchKey key = watchService.take();
+            boolean changed = isFileChanged(key);
+            if (!key.reset()) {
+               logger.log(Level.WARNING, "Stopped watching {0}, its directory is gone", file);
+               return;
+            }
+            if (changed) {
+               // Wait until the writer is done, then read the file once
+               Thread.sleep(SETTLE_MILLIS);
+               for (WatchKey pending = watchService.poll(); pending != null; pending = watchService.poll()) {
+                  pending.pollEvents();
+                  pending.reset();
+               }
+               reload();
+            }
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      } catch (ClosedWatchServiceException e) {
+         // Closed by close()
+      }
+   }
+
+   /**
+    * Checks whether a batch of events touched the watched file.
+    *
+    * @param key the signalled key
+    * @return true if the file was written or replaced, or events were lost
+    */
+   private boolean isFileChanged(WatchKey key) {
+      boolean changed = false;
+      for (WatchEvent<?> event : key.pollEvents()) {
+         if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+            changed = true;
+         }
+      }
+      return changed;
+   }
+}
@@ -0,0 +1,339 @@
+package com.simulator;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongConsumer;
+
+/**
+ * <p>
+ * Simulates several variants of a matchup on common random numbers and
+ * estimates how much each variant changes team 1's match win rate.
+ * </p>
+ *
+ * <p>
+ * Every variant is a compiled {@link MatchupPlan}, for example the same teams
+ * under two agent catalogs. Match N of every variant is played from the same
+ * {@link CounterRandom} stream, the stream of index N of the job. The kernels
+ * turn their draws into outcomes with inverse distribution functions, so two
+ * similar variants mostly produce the same winner from the same stream, and
+ * only the matches where the variants actually disagree contribute noise to
+ * the difference.
+ * </p>
+ *
+ * <p>
+ * Variant 0 is the baseline. For every other variant the job counts the
+ * matches team 1 wins only in that variant (gains) and only in the baseline
+ * (losses). The per-match differences are -1, 0 or 1, and their mean and
+ * sample variance give a paired confidence interval for the difference in win
+ * rate; see {@link ConfidenceInterval#pairedDifference(long, long, long, double)}.
+ * Its variance is compared with the variance two independent runs of the same
+ * length would have, which is how many fewer matches the comparison needs.
+ * </p>
+ *
+ * <p>
+ * The job runs on a {@link SimulationScheduler} like any other: the match
+ * range is split into pieces, each piece owns one simulator per variant, and
+ * the tallies are merged as pieces are joined. The results only depend on the
+ * plans, the seed and the match range.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see SimulationScheduler
+ * @see CounterRandom
+ * @see ConfidenceInterval
+ */
+
+public final class CommonRandomComparison {
+   private static final long MIN_LEAF_MATCHES = 1_024;
+   private static final long MAX_LEAF_MATCHES = 65_536;
+   private static final int LEAVES_PER_THREAD = 8;
+   private final MatchupPlan[] plans;
+   private final long jobSeed;
+   private final SimulationStatisticsCollector[] statistics;
+   private final long[] gains;
+   private final long[] losses;
+
+   /**
+    * Constructs the result of a finished job.
+    *
+    * @param plans   the variants
+    * @param jobSeed the job seed
+    * @param tally   the merged tallies of every piece
+    */
+   private CommonRandomComparison(MatchupPlan[] plans, long jobSeed, Tally tally) {
+      this.plans = plans;
+      this.jobSeed = jobSeed;
+      this.statistics = tally.statistics;
+      this.gains = tally.gains;
+      this.losses = tally.losses;
+   }
+
+   /**
+    * Simulates matches 0 through matchCount - 1 of a job for every variant
+    * and blocks until it is done.
+    *
+    * @param plans      the variants, baseline first
+    * @param jobSeed    the job seed shared by every variant
+    * @param matchCount the number of matches per variant
+    * @param scheduler  the scheduler to simulate on
+    * @param progress   receives the number of matches each finished piece
+    *                   simulated per variant, called from worker threads; may
+    *                   be null
+    * @return the comparison
+    * @throws IllegalArgumentException if there are fewer than 2 plans, a plan
+    *                                  or the scheduler is null, or the match
+    *                                  count is less than 2
+    */
+   public static CommonRandomComparison run(List<MatchupPlan> plans, long jobSeed, long matchCount,
+         SimulationScheduler scheduler, LongConsumer progress) {
+      if (plans == null || plans.size() < 2) {
+         throw new IllegalArgumentException("Invalid input in CommonRandomComparison. At least 2 plans are needed.");
+      }
+      for (MatchupPlan plan : plans) {
+         if (plan == null) {
+            throw new IllegalArgumentException("Invalid input in CommonRandomComparison. Plans cannot be null.");
+         }
+      }
+      if (scheduler == null) {
+         throw new IllegalArgumentException("Invalid input in CommonRandomComparison. Scheduler cannot be null.");
+      }
+      if (matchCount < 2) {
+         throw new IllegalArgumentException("Match count must be at least 2, got: " + matchCount);
+      }
+      MatchupPlan[] variants = plans.toArray(new MatchupPlan[0]);
+      long leafMatches = Math.clamp(matchCount / ((long) scheduler.getParallelism() * LEAVES_PER_THREAD),
+            MIN_LEAF_MATCHES, MAX_LEAF_MATCHES);
+      Job job = new Job(variants, jobSeed, progress, leafMatches);
+      return new CommonRandomComparison(variants, jobSeed, scheduler.invoke(new MatchRangeTask(job, 0, matchCount)));
+   }
+
+   /************* Getter methods *************/
+   /**
+    * Gets the number of variants, including the baseline.
+    *
+    * @return the variant count
+    */
+   public int getVariantCount() {
+      return plans.length;
+   }
+
+   /**
+    * Gets a variant's plan.
+    *
+    * @param variant the variant (0 for the baseline)
+    * @return the plan
+    */
+   public MatchupPlan getPlan(int variant) {
+      return plans[variant];
+   }
+
+   /**
+    * Gets the job seed every variant was simulated with.
+    *
+    * @return the job seed
+    */
+   public long getJobSeed() {
+      return jobSeed;
+   }
+
+   /**
+    * Gets the number of matches simulated per variant.
+    *
+    * @return the match count
+    */
+   public long getMatchCount() {
+      return statistics[0].getTotalMatches();
+   }
+
+   /**
+    * Gets a variant's statistics.
+    *
+    * @param variant the variant (0 for the baseline)
+    * @return the statistics of every match of the variant
+    */
+   public SimulationStatisticsCollector getStatistics(int variant) {
+      return statistics[variant];
+   }
+
+   /**
+    * Gets a variant's team 1 match win rate with its Wilson interval.
+    *
+    * @param variant    the variant (0 for the baseline)
+    * @param confidence the confidence level (0-1 exclusive)
+    * @return the interval
+    */
+   public ConfidenceInterval getWinRate(int variant, double confidence) {
+      return ConfidenceInterval.wilson(statistics[variant].getTeam1MatchWins(), getMatchCount(), confidence);
+   }
+
+   /**
+    * Gets the paired confidence interval for a variant's team 1 win rate minus
+    * the baseline's.
+    *
+    * @param variant    the variant (1 or more)
+    * @param confidence the confidence level (0-1 exclusive)
+    * @return the interval of the difference (-1 to 1)
+    */
+   public ConfidenceInterval getDifference(int variant, double confidence) {
+      return ConfidenceInterval.pairedDifference(gains[variant], losses[variant], getMatchCount(), confidence);
+   }
+
+   /**
+    * Gets the number of matches team 1 won in a variant but lost in the
+    * baseline.
+    *
+    * @param variant the variant (1 or more)
+    * @return the gain count
+    */
+   public long getGains(int variant) {
+      return gains[variant];
+   }
+
+   /**
+    * Gets the number of matches team 1 won in the baseline but lost in a
+    * variant.
+    *
+    * @param variant the variant (1 or more)
+    * @return the loss count
+    */
+   public long getLosses(int variant) {
+      return losses[variant];
+   }
+
+   /**
+    * Gets how many times fewer matches the paired difference needed than two
+    * independent runs would for the same precision: the variance of the
+    * difference of independent runs divided by the variance of the paired
+    * difference.
+    *
+    * @param variant the variant (1 or more)
+    * @return the variance reduction factor, or positive infinity if the
+    *         variants never disagreed
+    */
+   public double getVarianceReduction(int variant) {
+      double n = getMatchCount();
+      double p0 = statistics[0].getTeam1MatchWins() / n;
+      double p1 = statistics[variant].getTeam1MatchWins() / n;
+      double independent = p0 * (1.0 - p0) + p1 * (1.0 - p1);
+      double mean = (gains[variant] - losses[variant]) / n;
+      double paired = (gains[variant] + losses[variant]) / n - mean * mean;
+      return (paired > 0) ? independent / paired : Double.POSITIVE_INFINITY;
+   }
+
+   /**
+    * Settings shared by every piece of one job.
+    */
+   private record Job(MatchupPlan[] plans, long jobSeed, LongConsumer progress, long leafMatches) {
+   }
+
+   /**
+    * Statistics per variant and gains and losses against the baseline of a
+    * range of matches.
+    */
+   private static final class Tally {
+      private final SimulationStatisticsCollector[] statistics;
+      private final long[] gains;
+      private final long[] losses;
+
+      /**
+       * Constructs an empty tally.
+       *
+       * @param variants the number of variants
+       */
+      Tally(int variants) {
+         statistics = new SimulationStatisticsCollector[variants];
+         gains = new long[variants];
+         losses = new long[variants];
+      }
+
+      /**
+       * Adds another tally to this one.
+       *
+       * @param other the tally to add
+       */
+      void merge(Tally other) {
+         for (int v = 0; v < statistics.length; v++) {
+            statistics[v].merge(other.statistics[v]);
+            gains[v] += other.gains[v];
+            losses[v] += other.losses[v];
+         }
+      }
+   }
+
+   /**
+    * Simulates the match indices [from, to) for every variant, splitting the
+    * range while it is larger than the job's leaf size.
+    */
+   private static final class MatchRangeTask extends RecursiveTask<Tally> {
+      private static final long serialVersionUID = 1L;
+      private final transient Job job;
+      private final long from;
+      private final long to;
+
+      /**
+       * Constructs a new task for a range of match indices.
+       *
+       * @param job  the job settings
+       * @param from the first match index (inclusive)
+       * @param to   the last match index (exclusive)
+       */
+      MatchRangeTask(Job job, long from, long to) {
+         this.job = job;
+         this.from = from;
+         this.to = to;
+      }
+
+      @Override
+      protected Tally compute() {
+         if (to - from <= job.leafMatches()) {
+            return simulateRange();
+         }
+         long middle = from + (to - from) / 2;
+         MatchRangeTask left = new MatchRangeTask(job, from, middle);
+         left.fork();
+         Tally right = new MatchRangeTask(job, middle, to).compute();
+         Tally tally = left.join();
+         tally.merge(right);
+         return tally;
+      }
+
+      /**
+       * Plays every match of this range once per variant, rewinding the
+       * stream to the start of the match before each variant.
+       *
+       * @return the tally of the range
+       */
+      private Tally simulateRange() {
+         int variants = job.plans().length;
+         CounterRandom random = new CounterRandom(job.jobSeed());
+         MatchSimulator[] matches = new MatchSimulator[variants];
+         for (int v = 0; v < variants; v++) {
+            matches[v] = new MatchSimulator(job.plans()[v], random);
+         }
+         Tally tally = new Tally(variants);
+         for (long i = from; i < to; i++) {
+            random.seekMatch(i);
+            matches[0].simulateMatchHalves();
+            boolean baselineWin = matches[0].getLastMatchWinner() == 1;
+            for (int v = 1; v < variants; v++) {
+               random.seekMatch(i);
+               matches[v].simulateMatchHalves();
+               boolean win = matches[v].getLastMatchWinner() == 1;
+               if (win && !baselineWin) {
+                  tally.gains[v]++;
+               } else if (baselineWin && !win) {
+                  tally.losses[v]++;
+               }
+            }
+         }
+         for (int v = 0; v < variants; v++) {
+            tally.statistics[v] = matches[v].getStatistics();
+         }
+         if (job.progress() != null) {
+            job.progress().accept(to - from);
+         }
+         return tally;
+      }
+   }
+}
@@ -0,0 +1,160 @@
+package com.simulator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Groups every comp of a {@link CompTables} into equivalence classes by stat
+ * signature on one map.
+ * </p>
+ *
+ * <p>
+ * A matchup only depends on each team's total true aggro, control, midrange
+ * and relative power (see {@link MatchupPlan}), so comps with the same four
+ * totals are interchangeable: they win and lose against every opponent with
+ * exactly the same odds. Jobs can evaluate one representative per class and
+ * map the result back to every member comp.
+ * </p>
+ *
+ * <p>
+ * Classes are numbered in order of their lowest comp number, and that comp is
+ * the class's representative. The members of class c are stored contiguously
+ * in increasing comp number order, so the index is a handful of int arrays and
+ * never changes after construction.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see CompTables
+ * @see CounterCompSearch
+ */
+
+public final class CompSignatureIndex {
+   private final CompTables tables;
+   private final int map;
+   // Class of each comp number
+   private final int[] classOf;
+   // Members of class c are members[memberStart[c]] to members[memberStart[c + 1] - 1]
+   private final int[] memberStart;
+   private final int[] members;
+
+   /**
+    * A comp's four stat totals, compared exactly.
+    */
+   private record Signature(double trueAggro, double trueControl, double trueMidrange, double relativePower) {
+   }
+
+   /**
+    * Constructs the index of every comp in the tables on a map.
+    *
+    * @param tables the agent tables
+    * @param map    the map index (see {@link CompTables#getMapIndex(String)})
+    * @throws IllegalArgumentException if the tables are null or the map index
+    *                                  is out of range
+    */
+   public CompSignatureIndex(CompTables tables, int map) {
+      if (tables == null) {
+         throw new IllegalArgumentException("Invalid input in CompSignatureIndex. Tables cannot be null.");
+      }
+      if (map < 0 || map >= tables.getMapCount()) {
+         throw new IllegalArgumentException("Map index must be between 0 and " + (tables.getMapCount() - 1)
+               + ", got: " + map);
+      }
+      this.tables = tables;
+      this.map = map;
+      int compCount = tables.getCompCount();
+      classOf = new int[compCount];
+      Map<Signature, Integer> classes = new HashMap<>();
+      for (int number = 0; number < compCount; number++) {
+         int comp = tables.getComp(number);
+         Signature signature = new Signature(tables.compTrueAggro(comp), tables.compTrueControl(comp),
+               tables.compTrueMidrange(comp), tables.compRelativePower(comp, map));
+         Integer existing = classes.putIfAbsent(signature, classes.size());
+         classOf[number] = (existing != null) ? existing : classes.size() - 1;
+      }
+
+      // Counting sort of the comp numbers by class
+      int classCount = classes.size();
+      memberStart = new int[classCount + 1];
+      for (int number = 0; number < compCount; number++) {
+         memberStart[classOf[number] + 1]++;
+      }
+      for (int c = 0; c < classCount; c++) {
+         memberStart[c + 1] += memberStart[c];
+      }
+      members = new int[compCount];
+      int[] next = memberStart.clone();
+      for (int number = 0; number < compCount; number++) {
+         members[next[classOf[number]]++] = number;
+      }
+   }
+
+   /**
+    * Gets the number of equivalence classes.
+    *
+    * @return the class count
+    */
+   public int getClassCount() {
+      return memberStart.length - 1;
+   }
+
+   /**
+    * Gets the class of a comp.
+    *
+    * @param number the comp number (see {@link CompTables#getComp(int)})
+    * @return the class
+    */
+   public int getClassOf(int number) {
+      return classOf[number];
+   }
+
+   /**
+    * Gets the comp that represents a class, which is its lowest comp number.
+    *
+    * @param c the class
+    * @return the representative's comp mask
+    */
+   public int getRepresentative(int c) {
+      return tables.getComp(members[memberStart[c]]);
+   }
+
+   /**
+    * Gets the number of comps in a class.
+    *
+    * @param c the class
+    * @return the member count
+    */
+   public int getMemberCount(int c) {
+      return memberStart[c + 1] - memberStart[c];
+   }
+
+   /**
+    * Gets a member of a class.
+    *
+    * @param c the class
+    * @param i the member's position in the class (0 to getMemberCount(c) - 1)
+    * @return the member's comp number, in increasing order of i
+    */
+   public int getMember(int c, int i) {
+      return members[memberStart[c] + i];
+   }
+
+   /**
+    * Gets the tables this index groups.
+    *
+    * @return the tables
+    */
+   public CompTables getTables() {
+      return tables;
+   }
+
+   /**
+    * Gets the map this index was built for.
+    *
+    * @return the map index
+    */
+   public int getMap() {
+      return map;
+   }
+}
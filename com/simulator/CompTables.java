@@ -0,0 +1,547 @@
+package com.simulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Immutable, flat tables of agent statistics for working with large numbers
+ * of comps.
+ * </p>
+ *
+ * <p>
+ * A comp is an {@code int} bit mask over the agent list order: bit i is set
+ * when agent i is in the comp, so a valid comp has exactly 5 of the low
+ * {@link #getAgentCount()} bits set. The tables hold each agent's true aggro,
+ * control and midrange (with the splash a full team applies) and each agent's
+ * relative power on every map, as primitive arrays. A comp's totals are then
+ * a loop over its 5 set bits instead of building a {@link TeamComp}.
+ * </p>
+ *
+ * <p>
+ * Map 0 is "none", which uses baseline power and has no attacker advantage,
+ * and maps 1 and up are the maps of the catalog the tables were built from, in
+ * catalog order. Unknown map names resolve to "none", the same as for
+ * {@link AgentList}.
+ * </p>
+ *
+ * <p>
+ * Tables never change after construction, so any number of threads can share
+ * them.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see AgentList
+ * @see CounterCompSearch
+ */
+
+public final class CompTables {
+   /** Number of agents in a comp. */
+   public static final int TEAM_SIZE = 5;
+   private static final String NO_MAP = "none";
+   private final String[] agentNames;
+   private final double[] trueAggro;
+   private final double[] trueControl;
+   private final double[] trueMidrange;
+   // Relative power of agent a on map m at index m * agentCount + a
+   private final double[] relativePower;
+   private final String[] mapNames;
+   private final double[] attackerMapAdvantage;
+   private final int[] comps;
+   private final long fingerprint;
+
+   /**
+    * Constructs tables from already computed agent statistics, with the maps
+    * and attacker advantages of the active catalog.
+    *
+    * @param agentNames    the agent names in agent list order
+    * @param trueAggro     each agent's true aggro, with splash
+    * @param trueControl   each agent's true control, with splash
+    * @param trueMidrange  each agent's true midrange, with splash
+    * @param relativePower each agent's relative power per map, map-major
+    * @throws IllegalArgumentException if the arrays are null or their lengths
+    *                                  do not match, or there are fewer than 5
+    *                                  or more than 31 agents
+    */
+   public CompTables(String[] agentNames, double[] trueAggro, double[] trueControl, double[] trueMidrange,
+         double[] relativePower) {
+      this(agentNames, trueAggro, trueControl, trueMidrange, relativePower, mapNames(AgentCatalog.getActive()),
+            attackerMapAdvantages(AgentCatalog.getActive()));
+   }
+
+   /**
+    * Constructs tables from already computed agent statistics and maps.
+    *
+    * @param agentNames           the agent names in agent list order
+    * @param trueAggro            each agent's true aggro, with splash
+    * @param trueControl          each agent's true control, with splash
+    * @param trueMidrange         each agent's true midrange, with splash
+    * @param relativePower        each agent's relative power per map,
+    *                             map-major
+    * @param mapNames             the map names, starting with "none"
+    * @param attackerMapAdvantage each map's attacker advantage
+    * @throws IllegalArgumentException if the arrays are null or their lengths
+    *                                  do not match, there are fewer than 5 or
+    *                                  more than 31 agents, or the first map is
+    *                                  not "none"
+    */
+   public CompTables(String[] agentNames, double[] trueAggro, double[] trueControl, double[] trueMidrange,
+         double[] relativePower, String[] mapNames, double[] attackerMapAdvantage) {
+      if (agentNames == null || trueAggro == null || trueControl == null || trueMidrange == null
+            || relativePower == null || mapNames == null || attackerMapAdvantage == null) {
+         throw new IllegalArgumentException("Invalid input in CompTables. Agent tables cannot be null.");
+      }
+      int agentCount = agentNames.length;
+      if (agentCount < TEAM_SIZE || agentCount >= Integer.SIZE) {
+         throw new IllegalArgumentException("Agent count must be between 5 and 31, got: " + agentCount);
+      }
+      if (mapNames.length == 0 || !NO_MAP.equals(mapNames[0])) {
+         throw new IllegalArgumentException("Invalid input in CompTables. The first map must be \"none\".");
+      }
+      if (trueAggro.length != agentCount || trueControl.length != agentCount || trueMidrange.length != agentCount
+            || relativePower.length != mapNames.length * agentCount
+            || attackerMapAdvantage.length != mapNames.length) {
+         throw new IllegalArgumentException("Invalid input in CompTables. Table lengths do not match the agents.");
+      }
+      this.agentNames = agentNames.clone();
+      this.trueAggro = trueAggro.clone();
+      this.trueControl = trueControl.clone();
+      this.trueMidrange = trueMidrange.clone();
+      this.relativePower = relativePower.clone();
+      this.mapNames = mapNames.clone();
+      this.attackerMapAdvantage = attackerMapAdvantage.clone();
+      this.comps = enumerateComps(agentCount);
+      this.fingerprint = computeFingerprint();
+   }
+
+   /**
+    * Builds tables from the active {@link AgentCatalog} for every map.
+    *
+    * @return the tables
+    */
+   public static CompTables fromAgentList() {
+      return fromCatalog(AgentCatalog.getActive());
+   }
+
+   /**
+    * Builds tables from a catalog for "none" and every map of the catalog.
+    *
+    * @param catalog the catalog
+    * @return the tables
+    * @throws IllegalArgumentException if the catalog is null
+    */
+   public static CompTables fromCatalog(AgentCatalog catalog) {
+      if (catalog == null) {
+         throw new IllegalArgumentException("Invalid input in CompTables. Catalog cannot be null.");
+      }
+      int agentCount = catalog.getAgentCount();
+      String[] names = new String[agentCount];
+      double[] aggro = new double[agentCount];
+      double[] control = new double[agentCount];
+      double[] midrange = new double[agentCount];
+      for (int i = 0; i < agentCount; i++) {
+         // A fresh copy of the agent, so applying the splash that every agent of
+         // a full team gets leaves no shared agent changed
+         Agent agent = catalog.newAgent(i);
+         agent.applyStyleSplash();
+         names[i] = agent.getName();
+         aggro[i] = agent.getTrueAggro();
+         control[i] = agent.getTrueControl();
+         midrange[i] = agent.getTrueMidrange();
+      }
+      String[] mapNames = mapNames(catalog);
+      double[] power = new double[mapNames.length * agentCount];
+      for (int map = 0; map < mapNames.length; map++) {
+         // Map 0 is catalog map -1, baseline power
+         for (int i = 0; i < agentCount; i++) {
+            power[map * agentCount + i] = catalog.getRelativePower(map - 1, i);
+         }
+      }
+      return new CompTables(names, aggro, control, midrange, power, mapNames, attackerMapAdvantages(catalog));
+   }
+
+   /************* Comp mask methods *************/
+   /**
+    * Encodes a comp from agent names.
+    *
+    * @param names the 5 agent names (case-insensitive, automatically trimmed)
+    * @return the comp mask
+    * @throws IllegalArgumentException if there are not 5 distinct, known agents
+    */
+   public int compMask(String... names) {
+      if (names == null || names.length != TEAM_SIZE) {
+         throw new IllegalArgumentException("Invalid input in compMask. A comp needs exactly 5 agents.");
+      }
+      int comp = 0;
+      for (String name : names) {
+         int agent = getAgentIndex(name);
+         if (agent < 0) {
+            throw new IllegalArgumentException("Invalid input in compMask. Unknown agent: " + name);
+         }
+         comp |= 1 << agent;
+      }
+      if (Integer.bitCount(comp) != TEAM_SIZE) {
+         throw new IllegalArgumentException("Invalid input in compMask. Agents must be distinct.");
+      }
+      return comp;
+   }
+
+   /**
+    * Checks whether a mask is a valid comp for these tables.
+    *
+    * @param comp the mask to check
+    * @return true if exactly 5 known agents are set
+    */
+   public boolean isValidComp(int comp) {
+      return Integer.bitCount(comp) == TEAM_SIZE && (comp >>> agentNames.length) == 0;
+   }
+
+   /**
+    * Decodes a comp into its agent names, in agent list order.
+    *
+    * @param comp the comp mask
+    * @return the agent names
+    */
+   public List<String> agentNames(int comp) {
+      List<String> names = new ArrayList<>(TEAM_SIZE);
+      for (int rest = comp; rest != 0; rest &= rest - 1) {
+         names.add(agentNames[Integer.numberOfTrailingZeros(rest)]);
+      }
+      return List.copyOf(names);
+   }
+
+   /**
+    * Gets the number of valid comps.
+    *
+    * @return C(agents, 5)
+    */
+   public int getCompCount() {
+      return comps.length;
+   }
+
+   /**
+    * Gets a comp by its number. Comps are numbered in increasing mask order.
+    *
+    * @param number the comp number (0 to getCompCount() - 1)
+    * @return the comp mask
+    */
+   public int getComp(int number) {
+      return comps[number];
+   }
+
+   /************* Comp total methods *************/
+   /**
+    * Sums a comp's true aggro.
+    *
+    * @param comp the comp mask
+    * @return the comp's total true aggro
+    */
+   public double compTrueAggro(int comp) {
+      return sum(trueAggro, 0, comp);
+   }
+
+   /**
+    * Sums a comp's true control.
+    *
+    * @param comp the comp mask
+    * @return the comp's total true control
+    */
+   public double compTrueControl(int comp) {
+      return sum(trueControl, 0, comp);
+   }
+
+   /**
+    * Sums a comp's true midrange.
+    *
+    * @param comp the comp mask
+    * @return the comp's total true midrange
+    */
+   public double compTrueMidrange(int comp) {
+      return sum(trueMidrange, 0, comp);
+   }
+
+   /**
+    * Sums a comp's relative power on a map.
+    *
+    * @param comp the comp mask
+    * @param map  the map index
+    * @return the comp's total relative power
+    */
+   public double compRelativePower(int comp, int map) {
+      return sum(relativePower, map * agentNames.length, comp);
+   }
+
+   /**
+    * Compiles a matchup between two comps.
+    *
+    * @param team1Comp        team 1's comp mask
+    * @param team2Comp        team 2's comp mask
+    * @param map              the map index
+    * @param startingAttacker the team that attacks first (1 or 2)
+    * @return the compiled matchup
+    */
+   public MatchupPlan compile(int team1Comp, int team2Comp, int map, int startingAttacker) {
+      return new MatchupPlan(mapNames[map], attackerMapAdvantage[map], startingAttacker, compTrueAggro(team1Comp),
+            compTrueControl(team1Comp), compTrueMidrange(team1Comp), compRelativePower(team1Comp, map),
+            compTrueAggro(team2Comp), compTrueControl(team2Comp), compTrueMidrange(team2Comp),
+            compRelativePower(team2Comp, map));
+   }
+
+   /************* Getter methods *************/
+   /**
+    * Gets the number of agents.
+    *
+    * @return the agent count
+    */
+   public int getAgentCount() {
+      return agentNames.length;
+   }
+
+   /**
+    * Gets an agent's name.
+    *
+    * @param agent the agent index
+    * @return the agent's name
+    */
+   public String getAgentName(int agent) {
+      return agentNames[agent];
+   }
+
+   /**
+    * Looks up an agent's index by name.
+    *
+    * @param name the agent name (case-insensitive, automatically trimmed)
+    * @return the agent index, or -1 if there is no such agent
+    */
+   public int getAgentIndex(String name) {
+      if (name == null) {
+         return -1;
+      }
+      String trimmedName = name.trim();
+      for (int i = 0; i < agentNames.length; i++) {
+         if (agentNames[i].equalsIgnoreCase(trimmedName)) {
+            return i;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * Gets an agent's true aggro, with splash.
+    *
+    * @param agent the agent index
+    * @return the agent's true aggro
+    */
+   public double getTrueAggro(int agent) {
+      return trueAggro[agent];
+   }
+
+   /**
+    * Gets an agent's true control, with splash.
+    *
+    * @param agent the agent index
+    * @return the agent's true control
+    */
+   public double getTrueControl(int agent) {
+      return trueControl[agent];
+   }
+
+   /**
+    * Gets an agent's true midrange, with splash.
+    *
+    * @param agent the agent index
+    * @return the agent's true midrange
+    */
+   public double getTrueMidrange(int agent) {
+      return trueMidrange[agent];
+   }
+
+   /**
+    * Gets an agent's relative power on a map.
+    *
+    * @param map   the map index
+    * @param agent the agent index
+    * @return the agent's relative power
+    */
+   public double getRelativePower(int map, int agent) {
+      return relativePower[map * agentNames.length + agent];
+   }
+
+   /**
+    * Gets a map's attacker advantage.
+    *
+    * @param map the map index
+    * @return the attacker advantage, 0 for "none"
+    */
+   public double getAttackerMapAdvantage(int map) {
+      return attackerMapAdvantage[map];
+   }
+
+   /**
+    * Gets a 64-bit hash of every name and statistic in the tables. Tables
+    * built from the same catalog have the same fingerprint, and any change to
+    * an agent's statistics, the maps or a map's attacker advantage changes
+    * it, so it identifies the catalog version results were computed with.
+    * Map indices are only meaningful together with the fingerprint.
+    *
+    * @return the fingerprint
+    */
+   public long getFingerprint() {
+      return fingerprint;
+   }
+
+   /**
+    * Gets the number of maps, including "none".
+    *
+    * @return the map count
+    */
+   public int getMapCount() {
+      return mapNames.length;
+   }
+
+   /**
+    * Gets a map's name.
+    *
+    * @param map the map index
+    * @return the lowercase map name
+    */
+   public String getMapName(int map) {
+      return mapNames[map];
+   }
+
+   /**
+    * Looks up a map's index by name.
+    *
+    * @param name the map name (case-insensitive, automatically trimmed)
+    * @return the map index, or 0 ("none") for unknown names
+    */
+   public int getMapIndex(String name) {
+      if (name != null) {
+         String trimmedName = name.trim();
+         for (int i = 1; i < mapNames.length; i++) {
+            if (mapNames[i].equalsIgnoreCase(trimmedName)) {
+               return i;
+            }
+         }
+      }
+      return 0;
+   }
+
+   /************* Helper methods *************/
+   /**
+    * Sums the entries of a comp's agents in one row of a table.
+    *
+    * @param table  the table
+    * @param offset the row's first index
+    * @param comp   the comp mask
+    * @return the sum
+    */
+   private static double sum(double[] table, int offset, int comp) {
+      double total = 0;
+      for (int rest = comp; rest != 0; rest &= rest - 1) {
+         total += table[offset + Integer.numberOfTrailingZeros(rest)];
+      }
+      return total;
+   }
+
+   /**
+    * Lists "none" followed by every map of a catalog.
+    *
+    * @param catalog the catalog
+    * @return the map names, in map order
+    */
+   private static String[] mapNames(AgentCatalog catalog) {
+      String[] names = new String[catalog.getMapCount() + 1];
+      names[0] = NO_MAP;
+      for (int map = 1; map < names.length; map++) {
+         names[map] = catalog.getMapName(map - 1);
+      }
+      return names;
+   }
+
+   /**
+    * Reads the attacker advantage of every map from a catalog.
+    *
+    * @param catalog the catalog
+    * @return the advantages, in map order, 0 for "none"
+    */
+   private static double[] attackerMapAdvantages(AgentCatalog catalog) {
+      double[] advantages = new double[catalog.getMapCount() + 1];
+      for (int map = 1; map < advantages.length; map++) {
+         advantages[map] = catalog.getAttackerMapAdvantage(catalog.getMapName(map - 1));
+      }
+      return advantages;
+   }
+
+   /**
+    * Hashes the agent and map names and every table entry.
+    *
+    * @return the fingerprint
+    */
+   private long computeFingerprint() {
+      long hash = agentNames.length;
+      for (String name : agentNames) {
+         hash = mix(hash, name.hashCode());
+      }
+      for (String name : mapNames) {
+         hash = mix(hash, name.hashCode());
+      }
+      for (double[] table : new double[][] { trueAggro, trueControl, trueMidrange, relativePower,
+            attackerMapAdvantage }) {
+         for (double value : table) {
+            hash = mix(hash, Double.doubleToLongBits(value));
+         }
+      }
+      return hash;
+   }
+
+   /**
+    * Folds a value into a running hash.
+    *
+    * @param hash  the hash so far
+    * @param value the value to add
+    * @return the new hash
+    */
+   private static long mix(long hash, long value) {
+      long z = (hash ^ value) * 0x9E3779B97F4A7C15L;
+      z = (z ^ (z >>> 32)) * 0xD6E8FEB86659FD93L;
+      return z ^ (z >>> 32);
+   }
+
+   /**
+    * Lists every mask with exactly 5 of the low agentCount bits set, in
+    * increasing order.
+    *
+    * @param agentCount the number of agents
+    * @return the comp masks
+    */
+   private static int[] enumerateComps(int agentCount) {
+      int count = (int) binomial(agentCount, TEAM_SIZE);
+      int[] masks = new int[count];
+      int comp = (1 << TEAM_SIZE) - 1;
+      for (int i = 0; i < count; i++) {
+         masks[i] = comp;
+         // Next larger mask with the same number of set bits
+         int lowest = comp & -comp;
+         int ripple = comp + lowest;
+         comp = ripple | (((comp ^ ripple) >>> 2) / lowest);
+      }
+      return masks;
+   }
+
+   /**
+    * Computes a binomial coefficient.
+    *
+    * @param n the number of items
+    * @param k the number chosen
+    * @return C(n, k)
+    */
+   private static long binomial(int n, int k) {
+      long result = 1;
+      for (int i = 1; i <= k; i++) {
+         result = result * (n - k + i) / i;
+      }
+      return result;
+   }
+}
@@ -0,0 +1,276 @@
+package com.simulator;
+
+/**
+ * <p>
+ * Immutable confidence interval for a probability, such as a team's match win
+ * rate estimated by simulation, or for a difference between two of them.
+ * </p>
+ *
+ * <p>
+ * Intervals are built with the Wilson score method, which stays accurate for
+ * lopsided matchups where the win rate is close to 0% or 100%. Differences of
+ * paired simulations use the normal interval of the mean difference, and the
+ * means of a few independent replicates use the Student t interval. The normal
+ * quantile for a confidence level is computed with Acklam's rational
+ * approximation (relative error below 1.2e-9), and the t quantile from it with
+ * the Cornish-Fisher expansion.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see SimulationScheduler
+ */
+
+public final class ConfidenceInterval {
+   private static final double[] A = { -3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+         1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00 };
+   private static final double[] B = { -5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+         6.680131188771972e+01, -1.328068155288572e+01 };
+   private static final double[] C = { -7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+         -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00 };
+   private static final double[] D = { 7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+         3.754408661907416e+00 };
+   private static final double TAIL = 0.02425;
+   private final double estimate;
+   private final double lower;
+   private final double upper;
+   private final double confidence;
+
+   /**
+    * Constructs a new interval.
+    *
+    * @param estimate   the point estimate (0-1)
+    * @param lower      the lower bound (0-1)
+    * @param upper      the upper bound (0-1)
+    * @param confidence the confidence level (0-1 exclusive)
+    */
+   public ConfidenceInterval(double estimate, double lower, double upper, double confidence) {
+      this.estimate = estimate;
+      this.lower = lower;
+      this.upper = upper;
+      this.confidence = confidence;
+   }
+
+   /**
+    * Builds the Wilson score interval for a binomial proportion.
+    *
+    * @param successes  the number of successes, such as team 1 match wins
+    * @param trials     the number of trials, such as matches simulated
+    * @param confidence the confidence level, such as 0.99
+    * @return the interval around successes / trials
+    * @throws IllegalArgumentException if trials is not positive, successes is
+    *                                  outside 0-trials or the confidence level
+    *                                  is outside (0, 1)
+    */
+   public static ConfidenceInterval wilson(long successes, long trials, double confidence) {
+      if (trials <= 0) {
+         throw new IllegalArgumentException("Trials must be positive, got: " + trials);
+      }
+      if (successes < 0 || successes > trials) {
+         throw new IllegalArgumentException("Successes must be between 0 and " + trials + ", got: " + successes);
+      }
+      double z = zScore(confidence);
+      double n = trials;
+      double p = successes / n;
+      double z2 = z * z;
+      double denominator = 1.0 + z2 / n;
+      double center = (p + z2 / (2.0 * n)) / denominator;
+      double halfWidth = z / denominator * Math.sqrt(p * (1.0 - p) / n + z2 / (4.0 * n * n));
+      return new ConfidenceInterval(p, Math.max(0.0, center - halfWidth), Math.min(1.0, center + halfWidth),
+            confidence);
+   }
+
+   /**
+    * Builds the normal interval for the mean of paired differences that are
+    * each -1, 0 or 1, such as whether team 1 won a match in one variant of a
+    * matchup but not in another with the same random stream.
+    *
+    * @param gains      the number of pairs with a difference of 1
+    * @param losses     the number of pairs with a difference of -1
+    * @param trials     the number of pairs
+    * @param confidence the confidence level, such as 0.99
+    * @return the interval around (gains - losses) / trials, within -1 to 1
+    * @throws IllegalArgumentException if there are fewer than 2 trials, the
+    *                                  counts are negative or add up to more
+    *                                  than the trials, or the confidence level
+    *                                  is outside (0, 1)
+    */
+   public static ConfidenceInterval pairedDifference(long gains, long losses, long trials, double confidence) {
+      if (trials < 2) {
+         throw new IllegalArgumentException("Trials must be at least 2, got: " + trials);
+      }
+      if (gains < 0 || losses < 0 || gains + losses > trials) {
+         throw new IllegalArgumentException("Gains and losses must be between 0 and " + trials + " in total, got: "
+               + gains + " and " + losses);
+      }
+      double z = zScore(confidence);
+      double n = trials;
+      double mean = (gains - losses) / n;
+      // Sample variance of the differences, whose squares are 1 for every gain
+      // or loss
+      double variance = Math.max(0.0, (gains + losses - n * mean * mean) / (n - 1.0));
+      double halfWidth = z * Math.sqrt(variance / n);
+      return new ConfidenceInterval(mean, Math.max(-1.0, mean - halfWidth), Math.min(1.0, mean + halfWidth),
+            confidence);
+   }
+
+   /**
+    * Returns the Student t interval for the mean of independent replicate
+    * estimates of a probability, such as the win rates of randomized
+    * quasi-Monte Carlo replicates.
+    *
+    * @param estimates  the replicate estimates
+    * @param confidence the confidence level, such as 0.99
+    * @return the interval around the mean, within 0 to 1
+    * @throws IllegalArgumentException if there are fewer than 2 estimates or
+    *                                  the confidence level is outside (0, 1)
+    */
+   public static ConfidenceInterval replicateMean(double[] estimates, double confidence) {
+      if (estimates == null || estimates.length < 2) {
+         throw new IllegalArgumentException("Invalid input in ConfidenceInterval. At least 2 estimates are needed.");
+      }
+      int n = estimates.length;
+      double mean = 0;
+      for (double estimate : estimates) {
+         mean += estimate;
+      }
+      mean /= n;
+      double squares = 0;
+      for (double estimate : estimates) {
+         squares += (estimate - mean) * (estimate - mean);
+      }
+      double halfWidth = tScore(confidence, n - 1) * Math.sqrt(squares / (n - 1.0) / n);
+      return new ConfidenceInterval(mean, Math.max(0.0, mean - halfWidth), Math.min(1.0, mean + halfWidth),
+            confidence);
+   }
+
+   /**
+    * Returns the two-sided Student t quantile for a confidence level, for
+    * example 2.131 for 0.95 with 15 degrees of freedom.
+    *
+    * <p>
+    * One and two degrees of freedom use the exact closed forms, tan(pi c / 2)
+    * and c sqrt(2 / (1 - c^2)) for confidence c. From 3 degrees of freedom on
+    * it uses the Cornish-Fisher expansion around the normal quantile up to
+    * the fourth order, which up to 99% confidence is within 1% of the exact
+    * quantile, and within 1e-3 from 10 degrees of freedom.
+    * </p>
+    *
+    * @param confidence       the confidence level (0-1 exclusive)
+    * @param degreesOfFreedom the degrees of freedom
+    * @return the t-score
+    * @throws IllegalArgumentException if the confidence level is outside (0, 1)
+    *                                  or the degrees of freedom are less than 1
+    */
+   public static double tScore(double confidence, int degreesOfFreedom) {
+      if (degreesOfFreedom < 1) {
+         throw new IllegalArgumentException("Degrees of freedom must be at least 1, got: " + degreesOfFreedom);
+      }
+      double z = zScore(confidence);
+      if (degreesOfFreedom == 1) {
+         return Math.tan(Math.PI * confidence / 2.0);
+      }
+      if (degreesOfFreedom == 2) {
+         return confidence * Math.sqrt(2.0 / (1.0 - confidence * confidence));
+      }
+      double z2 = z * z;
+      double nu = degreesOfFreedom;
+      double g1 = z * (z2 + 1) / 4;
+      double g2 = z * ((5 * z2 + 16) * z2 + 3) / 96;
+      double g3 = z * (((3 * z2 + 19) * z2 + 17) * z2 - 15) / 384;
+      double g4 = z * ((((79 * z2 + 776) * z2 + 1482) * z2 - 1920) * z2 - 945) / 92160;
+      return z + (g1 + (g2 + (g3 + g4 / nu) / nu) / nu) / nu;
+   }
+
+   /**
+    * Returns the two-sided standard normal quantile for a confidence level, for
+    * example 1.96 for 0.95.
+    *
+    * @param confidence the confidence level (0-1 exclusive)
+    * @return the z-score
+    * @throws IllegalArgumentException if the confidence level is outside (0, 1)
+    */
+   public static double zScore(double confidence) {
+      if (!(confidence > 0.0 && confidence < 1.0)) {
+         throw new IllegalArgumentException("Confidence must be between 0 and 1, got: " + confidence);
+      }
+      return inverseNormal(0.5 + confidence / 2.0);
+   }
+
+   /**
+    * Gets the point estimate.
+    *
+    * @return the estimate (0-1)
+    */
+   public double getEstimate() {
+      return estimate;
+   }
+
+   /**
+    * Gets the lower bound.
+    *
+    * @return the lower bound (0-1)
+    */
+   public double getLower() {
+      return lower;
+   }
+
+   /**
+    * Gets the upper bound.
+    *
+    * @return the upper bound (0-1)
+    */
+   public double getUpper() {
+      return upper;
+   }
+
+   /**
+    * Gets half of the interval's width, the "plus or minus" margin.
+    *
+    * @return the half width (0-1)
+    */
+   public double getHalfWidth() {
+      return (upper - lower) / 2.0;
+   }
+
+   /**
+    * Gets the confidence level.
+    *
+    * @return the confidence level (0-1 exclusive)
+    */
+   public double getConfidence() {
+      return confidence;
+   }
+
+   /**
+    * Returns the standard normal quantile of a probability.
+    *
+    * @param p the probability (0-1 exclusive)
+    * @return x such that P(Z &lt; x) = p
+    */
+   private static double inverseNormal(double p) {
+      if (p < TAIL) {
+         double q = Math.sqrt(-2.0 * Math.log(p));
+         return tail(q);
+      }
+      if (p > 1.0 - TAIL) {
+         double q = Math.sqrt(-2.0 * Math.log(1.0 - p));
+         return -tail(q);
+      }
+      double q = p - 0.5;
+      double r = q * q;
+      return (((((A[0] * r + A[1]) * r + A[2]) * r + A[3]) * r + A[4]) * r + A[5]) * q
+            / (((((B[0] * r + B[1]) * r + B[2]) * r + B[3]) * r + B[4]) * r + 1.0);
+   }
+
+   /**
+    * Evaluates the lower tail approximation of the normal quantile.
+    *
+    * @param q sqrt(-2 log p) for the tail probability p
+    * @return the (negative) quantile
+    */
+   private static double tail(double q) {
+      return (((((C[0] * q + C[1]) * q + C[2]) * q + C[3]) * q + C[4]) * q + C[5])
+            / ((((D[0] * q + D[1]) * q + D[2]) * q + D[3]) * q + 1.0);
+   }
+}
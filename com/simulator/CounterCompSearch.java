@@ -0,0 +1,314 @@
+package com.simulator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>
+ * Finds the best counter comps against a fixed enemy comp on one map by
+ * evaluating every 5-agent comp in the agent list.
+ * </p>
+ *
+ * <p>
+ * With 27 agents there are C(27, 5) = 80,730 comps. None of them is built as
+ * a {@link TeamComp}: comps are bit masks over the flat {@link CompTables},
+ * and each comp is scored from those tables:
+ * </p>
+ * <ul>
+ * <li>Sum the five agents' true aggro, control, midrange and relative
+ * power</li>
+ * <li>Turn the sums into style and counter probabilities against the
+ * enemy</li>
+ * <li>Compute the round win probability per side with
+ * {@link MatchProbabilitySolver#roundWinProbability(double, double, double, double, int)}</li>
+ * <li>Solve the match exactly for both starting sides and average them, since
+ * the starting side is a coin flip</li>
+ * </ul>
+ *
+ * <p>
+ * The comps are numbered in increasing mask order. The range of comp numbers
+ * is split into pieces on a {@link SimulationScheduler} so every core scores
+ * comps, and each piece keeps only its best K comps in a small heap. Ties are
+ * broken by comp number, so the result does not depend on the parallelism.
+ * </p>
+ *
+ * <p>
+ * Many comps have the same stat totals and therefore the same odds, so the
+ * search first scores one representative of each {@link CompSignatureIndex}
+ * class and every comp then reads its class's score.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see CompTables
+ * @see CompSignatureIndex
+ * @see MatchProbabilitySolver
+ * @see SimulationScheduler
+ */
+
+public final class CounterCompSearch {
+   /** Number of agents in a comp. */
+   public static final int TEAM_SIZE = CompTables.TEAM_SIZE;
+   private static final int LEAF_COMPS = 1_024;
+   private static final int LEAF_CLASSES = 256;
+   // Worst candidate first, so the head of a heap is the one to drop
+   private static final Comparator<Scored> WORST_FIRST = Comparator.comparingDouble(Scored::winProbability)
+         .thenComparing(Comparator.comparingInt(Scored::rank).reversed());
+   private final CompTables tables;
+   private final int map;
+   private final double attackerMapAdvantage;
+   private final CompSignatureIndex index;
+
+   /**
+    * A counter comp and its match win probability against the enemy.
+    *
+    * @param comp           the comp mask over {@link CompTables}
+    * @param agents         the comp's agent names, in agent list order
+    * @param winProbability the comp's match win probability (0-1), averaged
+    *                       over both starting sides
+    */
+   public record Counter(int comp, List<String> agents, double winProbability) {
+   }
+
+   /**
+    * A comp number and its score.
+    */
+   private record Scored(int rank, double winProbability) {
+   }
+
+   /**
+    * Constructs a new search for a map with tables built from the built-in
+    * agent list.
+    *
+    * @param map the map name (unknown names use baseline stats and no attacker
+    *            advantage)
+    * @throws IllegalArgumentException if the map is null
+    */
+   public CounterCompSearch(String map) {
+      this(CompTables.fromAgentList(), map);
+   }
+
+   /**
+    * Constructs a new search for a map.
+    *
+    * @param tables the agent tables to enumerate comps from
+    * @param map    the map name (unknown names use baseline stats and no
+    *               attacker advantage)
+    * @throws IllegalArgumentException if the tables or map are null
+    */
+   public CounterCompSearch(CompTables tables, String map) {
+      if (tables == null || map == null) {
+         throw new IllegalArgumentException("Invalid input in CounterCompSearch. Tables and map cannot be null.");
+      }
+      this.tables = tables;
+      this.map = tables.getMapIndex(map);
+      attackerMapAdvantage = tables.getAttackerMapAdvantage(this.map);
+      index = new CompSignatureIndex(tables, this.map);
+   }
+
+   /**
+    * Gets the number of comps a search evaluates.
+    *
+    * @return C(agents, 5)
+    */
+   public int getCompCount() {
+      return tables.getCompCount();
+   }
+
+   /**
+    * Gets the number of distinct stat signatures a search actually scores.
+    *
+    * @return the number of equivalence classes
+    */
+   public int getClassCount() {
+      return index.getClassCount();
+   }
+
+   /**
+    * Gets the map this search was built for.
+    *
+    * @return the lowercase map name, or "none"
+    */
+   public String getMap() {
+      return tables.getMapName(map);
+   }
+
+   /**
+    * Evaluates every comp against an enemy and returns the best ones.
+    *
+    * @param enemy     the enemy comp (5 agents, balanced for the same map)
+    * @param count     the number of counters to return
+    * @param scheduler the scheduler whose threads score the comps
+    * @return up to {@code count} comps, best first
+    * @throws IllegalArgumentException if the enemy is null or incomplete, the
+    *                                  scheduler is null or the count is less
+    *                                  than 1
+    */
+   public List<Counter> findCounters(TeamComp enemy, int count, SimulationScheduler scheduler) {
+      if (enemy == null || enemy.getTeamComp().size() != TEAM_SIZE) {
+         throw new IllegalArgumentException("Invalid input in findCounters. Enemy team must have 5 agents.");
+      }
+      if (scheduler == null) {
+         throw new IllegalArgumentException("Invalid input in findCounters. Scheduler cannot be null.");
+      }
+      if (count < 1) {
+         throw new IllegalArgumentException("Counter count must be at least 1, got: " + count);
+      }
+      double enemyPoints = enemy.getTotalTrueAggro() + enemy.getTotalTrueControl() + enemy.getTotalTrueMidrange();
+      Enemy target = new Enemy(MatchupPlan.styleProbabilities(enemy.getTotalTrueAggro(), enemy.getTotalTrueControl(),
+            enemy.getTotalTrueMidrange(), enemyPoints), enemy.getTotalRelativePower(), count,
+            new double[index.getClassCount()]);
+
+      scheduler.invoke(new ClassScoreTask(target, 0, index.getClassCount()));
+      PriorityQueue<Scored> best = scheduler.invoke(new SearchTask(target, 0, getCompCount()));
+      List<Scored> ranked = new ArrayList<>(best);
+      ranked.sort(WORST_FIRST.reversed());
+      List<Counter> counters = new ArrayList<>(ranked.size());
+      for (Scored scored : ranked) {
+         int comp = tables.getComp(scored.rank());
+         counters.add(new Counter(comp, tables.agentNames(comp), scored.winProbability()));
+      }
+      return counters;
+   }
+
+   /**
+    * Scores one comp against the enemy.
+    *
+    * @param comp   the comp mask
+    * @param target the enemy
+    * @return the comp's match win probability, averaged over both starting
+    *         sides
+    */
+   private double winProbability(int comp, Enemy target) {
+      double aggro = tables.compTrueAggro(comp);
+      double control = tables.compTrueControl(comp);
+      double midrange = tables.compTrueMidrange(comp);
+      double[] styles = MatchupPlan.styleProbabilities(aggro, control, midrange, aggro + control + midrange);
+      double counters = MatchupPlan.counterProbability(styles, target.styles());
+      double countered = MatchupPlan.counterProbability(target.styles(), styles);
+      double powerAdvantage = MatchSimulator.relativePowerAdvantage(tables.compRelativePower(comp, map),
+            target.relativePower());
+      double attack = MatchProbabilitySolver.roundWinProbability(counters, countered, powerAdvantage,
+            attackerMapAdvantage, 1);
+      double defense = MatchProbabilitySolver.roundWinProbability(counters, countered, powerAdvantage,
+            attackerMapAdvantage, 2);
+      return (MatchProbabilitySolver.matchWinProbability(attack, defense, 1)
+            + MatchProbabilitySolver.matchWinProbability(attack, defense, 2)) / 2.0;
+   }
+
+   /**
+    * Adds a scored comp to a heap of at most {@code count} comps.
+    *
+    * @param best   the heap, worst comp first
+    * @param scored the comp to add
+    * @param count  the heap's capacity
+    */
+   private static void offer(PriorityQueue<Scored> best, Scored scored, int count) {
+      if (best.size() < count) {
+         best.add(scored);
+      } else if (WORST_FIRST.compare(scored, best.peek()) > 0) {
+         best.poll();
+         best.add(scored);
+      }
+   }
+
+   /**
+    * The enemy's style probabilities and relative power, how many counters to
+    * keep and the score of each signature class.
+    */
+   private record Enemy(double[] styles, double relativePower, int count, double[] classScores) {
+   }
+
+   /**
+    * Scores the representatives of classes [from, to), splitting the range
+    * while it is larger than {@value #LEAF_CLASSES} classes.
+    */
+   private final class ClassScoreTask extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+      private final transient Enemy target;
+      private final int from;
+      private final int to;
+
+      /**
+       * Constructs a new task for a range of classes.
+       *
+       * @param target the enemy
+       * @param from   the first class (inclusive)
+       * @param to     the last class (exclusive)
+       */
+      ClassScoreTask(Enemy target, int from, int to) {
+         this.target = target;
+         this.from = from;
+         this.to = to;
+      }
+
+      @Override
+      protected void compute() {
+         if (to - from <= LEAF_CLASSES) {
+            for (int c = from; c < to; c++) {
+               target.classScores()[c] = winProbability(index.getRepresentative(c), target);
+            }
+            return;
+         }
+         int middle = from + (to - from) / 2;
+         invokeAll(new ClassScoreTask(target, from, middle), new ClassScoreTask(target, middle, to));
+      }
+   }
+
+   /**
+    * Ranks the comp numbers [from, to) by their class scores, splitting the range while it is larger
+    * than {@value #LEAF_COMPS} comps.
+    */
+   private final class SearchTask extends RecursiveTask<PriorityQueue<Scored>> {
+      private static final long serialVersionUID = 1L;
+      private final transient Enemy target;
+      private final int from;
+      private final int to;
+
+      /**
+       * Constructs a new task for a range of comp numbers.
+       *
+       * @param target the enemy
+       * @param from   the first comp number (inclusive)
+       * @param to     the last comp number (exclusive)
+       */
+      SearchTask(Enemy target, int from, int to) {
+         this.target = target;
+         this.from = from;
+         this.to = to;
+      }
+
+      @Override
+      protected PriorityQueue<Scored> compute() {
+         if (to - from <= LEAF_COMPS) {
+            return scoreRange();
+         }
+         int middle = from + (to - from) / 2;
+         SearchTask left = new SearchTask(target, from, middle);
+         left.fork();
+         PriorityQueue<Scored> right = new SearchTask(target, middle, to).compute();
+         PriorityQueue<Scored> best = left.join();
+         for (Scored scored : right) {
+            offer(best, scored, target.count());
+         }
+         return best;
+      }
+
+      /**
+       * Ranks every comp of this range.
+       *
+       * @return the range's best comps, worst first
+       */
+      private PriorityQueue<Scored> scoreRange() {
+         PriorityQueue<Scored> best = new PriorityQueue<>(target.count() + 1, WORST_FIRST);
+         for (int rank = from; rank < to; rank++) {
+            offer(best, new Scored(rank, target.classScores()[index.getClassOf(rank)]), target.count());
+         }
+         return best;
+      }
+   }
+}
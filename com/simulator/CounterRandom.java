@@ -0,0 +1,128 @@
+package com.simulator;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * <p>
+ * Counter-based random generator (Philox4x32-10) whose output depends only on
+ * the job seed, a match index and a position within that match.
+ * </p>
+ *
+ * <p>
+ * Calling {@link #seekMatch(long)} before each match gives match N of a job the
+ * same random stream no matter which worker runs it or how the job was split
+ * up. This means:
+ * </p>
+ * <ul>
+ * <li>Results do not depend on the thread count or scheduling</li>
+ * <li>An interrupted run can be resumed from the first unfinished match
+ * index</li>
+ * <li>Any single match can be replayed from its index, as long as the same
+ * simulation kernel is used</li>
+ * </ul>
+ *
+ * <p>
+ * Each call to {@link #nextInt()} uses one 32-bit word and each call to
+ * {@link #nextLong()} or {@link #nextDouble()} uses two. A block of four words
+ * is generated at a time. Instances are not thread-safe; every worker needs
+ * its own.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see SimulationRandom
+ * @see MatchSimulator
+ */
+
+public final class CounterRandom implements RandomGenerator {
+   // Philox constants, shared with the lane generator of VectorMatchSimulator
+   static final int MULTIPLIER_0 = 0xD2511F53;
+   static final int MULTIPLIER_1 = 0xCD9E8D57;
+   static final int WEYL_0 = 0x9E3779B9;
+   static final int WEYL_1 = 0xBB67AE85;
+   static final int ROUNDS = 10;
+   private final int key0;
+   private final int key1;
+   private final int[] block = new int[4];
+   private int matchLow;
+   private int matchHigh;
+   private int blockCounter;
+   private int position;
+
+   /**
+    * Constructs a new generator for a job, positioned at the start of match 0.
+    *
+    * @param jobSeed the job seed
+    */
+   public CounterRandom(long jobSeed) {
+      key0 = (int) jobSeed;
+      key1 = (int) (jobSeed >>> 32);
+      seekMatch(0);
+   }
+
+   /**
+    * Moves the generator to the start of a match's stream.
+    *
+    * @param matchIndex the index of the match within the job
+    */
+   public void seekMatch(long matchIndex) {
+      matchLow = (int) matchIndex;
+      matchHigh = (int) (matchIndex >>> 32);
+      blockCounter = 0;
+      position = block.length;
+   }
+
+   /**
+    * Returns the next 32 random bits of the current match's stream.
+    *
+    * @return a random int
+    */
+   @Override
+   public int nextInt() {
+      if (position == block.length) {
+         generateBlock();
+      }
+      return block[position++];
+   }
+
+   /**
+    * Returns the next 64 random bits of the current match's stream.
+    *
+    * @return a random long
+    */
+   @Override
+   public long nextLong() {
+      long high = nextInt();
+      return (high << 32) | (nextInt() & 0xFFFFFFFFL);
+   }
+
+   /**
+    * Encrypts the counter (block counter, 0, match index) with the job key and
+    * stores the four output words.
+    */
+   private void generateBlock() {
+      int c0 = blockCounter++;
+      int c1 = 0;
+      int c2 = matchLow;
+      int c3 = matchHigh;
+      int k0 = key0;
+      int k1 = key1;
+      for (int round = 0; round < ROUNDS; round++) {
+         long product0 = (MULTIPLIER_0 & 0xFFFFFFFFL) * (c0 & 0xFFFFFFFFL);
+         long product1 = (MULTIPLIER_1 & 0xFFFFFFFFL) * (c2 & 0xFFFFFFFFL);
+         int next0 = (int) (product1 >>> 32) ^ c1 ^ k0;
+         int next2 = (int) (product0 >>> 32) ^ c3 ^ k1;
+         c1 = (int) product1;
+         c3 = (int) product0;
+         c0 = next0;
+         c2 = next2;
+         k0 += WEYL_0;
+         k1 += WEYL_1;
+      }
+      block[0] = c0;
+      block[1] = c1;
+      block[2] = c2;
+      block[3] = c3;
+      position = 0;
+   }
+}
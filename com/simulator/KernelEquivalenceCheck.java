@@ -0,0 +1,336 @@
+package com.simulator;
+
+/**
+ * <p>
+ * Statistical equivalence check of the fast match kernels against the
+ * round-by-round reference, {@link MatchSimulator#simulateMatchFast()}.
+ * </p>
+ *
+ * <p>
+ * The table kernel ({@link MatchSimulator#simulateMatchTable()}), the half
+ * kernel ({@link MatchSimulator#simulateMatchHalves()}) and, when the JVM runs
+ * with {@code --add-modules jdk.incubator.vector}, the SIMD lane kernel
+ * ({@link VectorMatchSimulator}) integrate the style rolls and the stylistic
+ * swing out analytically, so they must produce the same distribution of final
+ * scorelines and halftime scores as the reference.
+ * Each kernel plays the same matchups from its own fixed seed, and the
+ * histograms are compared with a two-sample chi-square test of homogeneity.
+ * Sparse buckets are pooled so every tested bucket has enough matches for the
+ * chi-square approximation.
+ * </p>
+ *
+ * <p>
+ * The check covers a lopsided matchup and a mirror matchup on a map without
+ * attacker advantage, which has true 50/50 rounds. Run it with
+ * {@code java com.simulator.KernelEquivalenceCheck [matches]}; it prints
+ * every test and exits with status 1 if any p-value is below
+ * {@value #SIGNIFICANCE}. The seeds are fixed, so a passing tree keeps
+ * passing until a kernel changes.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see MatchSimulator
+ * @see MatchupPlan
+ */
+
+public final class KernelEquivalenceCheck {
+   /** The p-value below which a kernel is reported as different. */
+   public static final double SIGNIFICANCE = 0.001;
+   private static final long DEFAULT_MATCHES = 200_000;
+   private static final long REFERENCE_SEED = 0x5EED0001L;
+   private static final long CANDIDATE_SEED = 0x5EED0002L;
+   private static final long MIN_BUCKET_MATCHES = 10;
+   private static final int MAX_ITERATIONS = 10_000;
+   private static final double EPSILON = 1e-15;
+
+   /**
+    * Private constructor to prevent instantiation of this utility class.
+    */
+   private KernelEquivalenceCheck() {
+      // Private constructor to prevent instantiation
+   }
+
+   /**
+    * A match kernel of {@link MatchSimulator}.
+    */
+   public enum Kernel {
+      REFERENCE, TABLE, HALVES, VECTOR
+   }
+
+   /**
+    * The result of one chi-square test.
+    *
+    * @param statistic        the chi-square statistic
+    * @param degreesOfFreedom the degrees of freedom
+    * @param pValue           the probability of a statistic at least this large
+    *                         if both samples share one distribution
+    */
+   public record Result(double statistic, int degreesOfFreedom, double pValue) {
+      /**
+       * Checks whether the test found no significant difference.
+       *
+       * @return true if the p-value is at least {@link #SIGNIFICANCE}
+       */
+      public boolean passed() {
+         return pValue >= SIGNIFICANCE;
+      }
+   }
+
+   /**
+    * Runs the check and exits with status 1 if any kernel differs from the
+    * reference.
+    *
+    * @param args optionally the number of matches per kernel and matchup
+    */
+   public static void main(String[] args) {
+      long matches = (args.length > 0) ? Long.parseLong(args[0].trim()) : DEFAULT_MATCHES;
+      CompTables tables = CompTables.fromAgentList();
+      int team1 = tables.compMask("Jett", "Omen", "Sova", "Killjoy", "Skye");
+      int team2 = tables.compMask("Raze", "Brimstone", "Fade", "Cypher", "Breach");
+      MatchupPlan[] plans = { tables.compile(team1, team2, tables.getMapIndex("bind"), 1),
+            tables.compile(team1, team1, 0, 2) };
+      String[] labels = { "lopsided on bind", "mirror with 50/50 rounds" };
+
+      boolean passed = true;
+      for (int m = 0; m < plans.length; m++) {
+         SimulationStatisticsCollector reference = simulate(plans[m], Kernel.REFERENCE, REFERENCE_SEED, matches);
+         Kernel[] kernels = SimulationScheduler.isVectorKernelAvailable()
+               ? new Kernel[] { Kernel.TABLE, Kernel.HALVES, Kernel.VECTOR }
+               : new Kernel[] { Kernel.TABLE, Kernel.HALVES };
+         for (Kernel kernel : kernels) {
+            SimulationStatisticsCollector candidate = simulate(plans[m], kernel, CANDIDATE_SEED, matches);
+            Result scorelines = compareScorelines(reference, candidate);
+            Result halftimes = compareHalftimes(reference, candidate);
+            System.out.printf("%-24s %-7s scorelines chi2 %8.2f df %2d p %.4f | halftime chi2 %7.2f df %2d p %.4f%n",
+                  labels[m], kernel, scorelines.statistic(), scorelines.degreesOfFreedom(), scorelines.pValue(),
+                  halftimes.statistic(), halftimes.degreesOfFreedom(), halftimes.pValue());
+            passed &= scorelines.passed() && halftimes.passed();
+         }
+      }
+      System.out.println(passed ? "All kernels match the reference." : "A kernel differs from the reference.");
+      if (!passed) {
+         System.exit(1);
+      }
+   }
+
+   /**
+    * Plays matches 0 through matchCount - 1 of a job with one kernel.
+    *
+    * @param plan       the compiled matchup
+    * @param kernel     the kernel to play with
+    * @param jobSeed    the job seed
+    * @param matchCount the number of matches
+    * @return the statistics of every match
+    * @throws IllegalStateException if the kernel is {@link Kernel#VECTOR} and
+    *                               the Vector API is not available
+    */
+   public static SimulationStatisticsCollector simulate(MatchupPlan plan, Kernel kernel, long jobSeed,
+         long matchCount) {
+      if (kernel == Kernel.VECTOR) {
+         if (!SimulationScheduler.isVectorKernelAvailable()) {
+            throw new IllegalStateException("The vector kernel needs --add-modules jdk.incubator.vector.");
+         }
+         return simulateLanes(plan, jobSeed, matchCount);
+      }
+      CounterRandom random = new CounterRandom(jobSeed);
+      MatchSimulator match = new MatchSimulator(plan, random);
+      for (long i = 0; i < matchCount; i++) {
+         random.seekMatch(i);
+         switch (kernel) {
+            case REFERENCE -> match.simulateMatchFast();
+            case TABLE -> match.simulateMatchTable();
+            case HALVES -> match.simulateMatchHalves();
+         }
+      }
+      return match.getStatistics();
+   }
+
+   /**
+    * Compares the final scoreline histograms of two samples.
+    *
+    * @param first  the first sample
+    * @param second the second sample
+    * @return the chi-square test of homogeneity
+    */
+   public static Result compareScorelines(SimulationStatisticsCollector first, SimulationStatisticsCollector second) {
+      long[] a = new long[Scoreline.BUCKETS];
+      long[] b = new long[Scoreline.BUCKETS];
+      for (int i = 0; i < Scoreline.BUCKETS; i++) {
+         a[i] = first.getScorelineCount(i);
+         b[i] = second.getScorelineCount(i);
+      }
+      return chiSquare(a, b);
+   }
+
+   /**
+    * Compares the halftime score histograms of two samples.
+    *
+    * @param first  the first sample
+    * @param second the second sample
+    * @return the chi-square test of homogeneity
+    */
+   public static Result compareHalftimes(SimulationStatisticsCollector first, SimulationStatisticsCollector second) {
+      long[] a = new long[Scoreline.HALFTIME_BUCKETS];
+      long[] b = new long[Scoreline.HALFTIME_BUCKETS];
+      for (int i = 0; i < Scoreline.HALFTIME_BUCKETS; i++) {
+         a[i] = first.getHalftimeCount(i);
+         b[i] = second.getHalftimeCount(i);
+      }
+      return chiSquare(a, b);
+   }
+
+   /**
+    * Two-sample chi-square test of homogeneity for two histograms over the
+    * same buckets. Buckets with fewer than {@value #MIN_BUCKET_MATCHES}
+    * matches in both samples together are pooled into one.
+    *
+    * @param a the first histogram
+    * @param b the second histogram
+    * @return the test result; a single usable bucket gives a statistic of 0
+    *         with 0 degrees of freedom and a p-value of 1
+    * @throws IllegalArgumentException if the histograms differ in length or
+    *                                  either one is empty
+    */
+   public static Result chiSquare(long[] a, long[] b) {
+      if (a.length != b.length) {
+         throw new IllegalArgumentException("Histograms must have the same buckets, got: " + a.length + " and "
+               + b.length);
+      }
+      double totalA = 0;
+      double totalB = 0;
+      for (int i = 0; i < a.length; i++) {
+         totalA += a[i];
+         totalB += b[i];
+      }
+      if (totalA == 0 || totalB == 0) {
+         throw new IllegalArgumentException("Invalid input in chiSquare. Histograms cannot be empty.");
+      }
+      double scaleA = Math.sqrt(totalB / totalA);
+      double scaleB = Math.sqrt(totalA / totalB);
+      double statistic = 0;
+      int buckets = 0;
+      long pooledA = 0;
+      long pooledB = 0;
+      for (int i = 0; i < a.length; i++) {
+         if (a[i] + b[i] < MIN_BUCKET_MATCHES) {
+            pooledA += a[i];
+            pooledB += b[i];
+            continue;
+         }
+         statistic += term(a[i], b[i], scaleA, scaleB);
+         buckets++;
+      }
+      if (pooledA + pooledB > 0) {
+         statistic += term(pooledA, pooledB, scaleA, scaleB);
+         buckets++;
+      }
+      int degreesOfFreedom = buckets - 1;
+      if (degreesOfFreedom < 1) {
+         return new Result(0.0, 0, 1.0);
+      }
+      return new Result(statistic, degreesOfFreedom, chiSquareSurvival(statistic, degreesOfFreedom));
+   }
+
+   /************* Helper methods *************/
+   /**
+    * Plays matches 0 through matchCount - 1 of a job in SIMD lanes. Kept apart
+    * so the vector classes are only loaded when the module is available.
+    *
+    * @param plan       the compiled matchup
+    * @param jobSeed    the job seed
+    * @param matchCount the number of matches
+    * @return the statistics of every match
+    */
+   private static SimulationStatisticsCollector simulateLanes(MatchupPlan plan, long jobSeed, long matchCount) {
+      SimulationStatisticsCollector statistics = new SimulationStatisticsCollector();
+      new VectorMatchSimulator(plan, jobSeed).simulateRange(0, matchCount, statistics);
+      return statistics;
+   }
+
+   /**
+    * Returns one bucket's contribution to the two-sample chi-square
+    * statistic.
+    *
+    * @param a      the first sample's count
+    * @param b      the second sample's count
+    * @param scaleA sqrt(total b / total a)
+    * @param scaleB sqrt(total a / total b)
+    * @return the contribution
+    */
+   private static double term(long a, long b, double scaleA, double scaleB) {
+      double difference = a * scaleA - b * scaleB;
+      return difference * difference / (a + b);
+   }
+
+   /**
+    * Returns P(X &gt;= x) for a chi-square variable with the given degrees of
+    * freedom, the regularized upper incomplete gamma function Q(k / 2, x / 2).
+    *
+    * @param x                the statistic
+    * @param degreesOfFreedom the degrees of freedom
+    * @return the p-value
+    */
+   static double chiSquareSurvival(double x, int degreesOfFreedom) {
+      double s = degreesOfFreedom / 2.0;
+      double z = x / 2.0;
+      if (z <= 0) {
+         return 1.0;
+      }
+      double logPrefix = s * Math.log(z) - z - logGamma(s);
+      if (z < s + 1) {
+         // Series for the lower function P(s, z)
+         double term = 1.0 / s;
+         double sum = term;
+         for (int n = 1; n < MAX_ITERATIONS && Math.abs(term) > Math.abs(sum) * EPSILON; n++) {
+            term *= z / (s + n);
+            sum += term;
+         }
+         return Math.max(0.0, 1.0 - sum * Math.exp(logPrefix));
+      }
+      // Lentz's continued fraction for Q(s, z)
+      double tiny = 1e-300;
+      double b = z + 1 - s;
+      double c = 1 / tiny;
+      double d = 1 / b;
+      double h = d;
+      for (int n = 1; n < MAX_ITERATIONS; n++) {
+         double an = -n * (n - s);
+         b += 2;
+         d = an * d + b;
+         d = (Math.abs(d) < tiny) ? tiny : d;
+         c = b + an / c;
+         c = (Math.abs(c) < tiny) ? tiny : c;
+         d = 1 / d;
+         double delta = d * c;
+         h *= delta;
+         if (Math.abs(delta - 1) < EPSILON) {
+            break;
+         }
+      }
+      return Math.exp(logPrefix) * h;
+   }
+
+   /**
+    * Returns ln(Gamma(x)) for x &gt; 0 with the Lanczos approximation (g = 7,
+    * 9 terms).
+    *
+    * @param x the argument
+    * @return the log of the gamma function
+    */
+   private static double logGamma(double x) {
+      double[] coefficients = { 0.99999999999980993, 676.5203681218851, -1259.1392167224028, 771.32342877765313,
+            -176.61502916214059, 12.507343278686905, -0.13857109526572012, 9.9843695780195716e-6,
+            1.5056327351493116e-7 };
+      if (x < 0.5) {
+         return Math.log(Math.PI / Math.abs(Math.sin(Math.PI * x))) - logGamma(1 - x);
+      }
+      double shifted = x - 1;
+      double sum = coefficients[0];
+      for (int i = 1; i < coefficients.length; i++) {
+         sum += coefficients[i] / (shifted + i);
+      }
+      double t = shifted + 7.5;
+      return 0.5 * Math.log(2 * Math.PI) + (shifted + 0.5) * Math.log(t) - t + Math.log(sum);
+   }
+}
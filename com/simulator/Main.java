@@ -1,9 +1,15 @@
 package com.simulator;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,6 +53,24 @@ import java.util.logging.Logger;
  * <ul>
  * <li>Default: Launches GUI mode</li>
  * <li>Runs in console mode with --console argument</li>
+ * <li>Reproduces a console run with --seed=&lt;number&gt;</li>
+ * <li>Resumes a seeded console run with --start-match=&lt;index&gt;</li>
+ * <li>Finds the best counter comps against one team with
+ * --counters=&lt;count&gt;</li>
+ * <li>Builds a round-robin matrix for the comps listed in a file with
+ * --matrix=&lt;file&gt;</li>
+ * <li>Reuses stored console results from another file with
+ * --store=&lt;file&gt;, or turns the store off with --store=none</li>
+ * <li>Loads agent stats and map balance from a catalog file with
+ * --catalog=&lt;file&gt;</li>
+ * <li>Compares one matchup under the active catalog and other catalog files
+ * with --compare-catalogs=&lt;file&gt;[,&lt;file&gt;...]</li>
+ * <li>Compares two candidate comps against the same enemy with
+ * --compare-comps</li>
+ * <li>Estimates fast runs with variance reduction with
+ * --variance-reduction=antithetic,stratified,control</li>
+ * <li>Estimates fast runs with scrambled Sobol points with
+ * --qmc[=&lt;replicates&gt;]</li>
  * </ul>
  *
  * <p>
@@ -61,8 +85,9 @@ import java.util.logging.Logger;
  * in console mode, if an interactive console is not available (for example,
  * when run under certain IDE configurations), we print brief usage guidance
  * and avoid blocking for input.</li>
- * <li><b>Threading:</b> Console simulations use multiple threads and aggregate
- * results after joining all workers.</li>
+ * <li><b>Threading:</b> Console simulations run on a work-stealing
+ * {@link SimulationScheduler}, which merges the statistics of every piece of
+ * the job.</li>
  * </ul>
  *
  * @author exicutioner161
@@ -70,22 +95,39 @@ import java.util.logging.Logger;
  * @see MatchSimulator
  * @see TeamComp
  * @see SimulationStatisticsCollector
- * @see ConcurrentSimulationThread
+ * @see SimulationScheduler
  * @see SimulatorApp
  */
 
 public class Main {
    private static final Logger logger = Logger.getLogger(Main.class.getName());
+   private static final long MAX_PRECISION_MATCHES = 1_000_000_000L;
    private static final NumberFormat numberFormat = NumberFormat.getInstance();
-   private static final TeamComp teamOne = new TeamComp();
-   private static final TeamComp teamTwo = new TeamComp();
-   private static final MatchSimulator match = new MatchSimulator(teamOne, teamTwo);
-   private static final List<ConcurrentSimulationThread> startedThreads = new ArrayList<>();
-   private static int numThreads = (int) Math.max(1, (ConcurrentSimulationThread.getOptimalThreadCount() * 0.8));
+   // Rebuilt by --catalog=, since the teams keep the catalog they were built
+   // from
+   private static TeamComp teamOne = new TeamComp();
+   private static TeamComp teamTwo = new TeamComp();
+   private static MatchSimulator match = new MatchSimulator(teamOne, teamTwo);
+   private static final SimulationStatisticsCollector jobStatistics = new SimulationStatisticsCollector();
+   private static MatchupPlan plan;
+   private static Long jobSeed = null;
+   private static long startMatchIndex = 0;
+   private static int numThreads = (int) Math.max(1, (SimulationScheduler.getOptimalParallelism() * 0.8));
    private static long matches = 0;
    private static long startMilliseconds = 0;
    private static boolean fastSimulation = true;
+   private static boolean exactSolution = false;
+   private static boolean precisionMode = false;
+   private static double targetMarginOfError = 0;
+   private static double confidenceLevel = 0.95;
    private static boolean consoleMode = false;
+   private static int counterCount = 0;
+   private static String matrixCompFile = null;
+   private static Path resultStorePath = MatchResultStore.defaultPath();
+   private static List<Path> comparisonCatalogFiles = null;
+   private static boolean compComparison = false;
+   private static Set<VarianceReducedEstimate.Technique> varianceTechniques = null;
+   private static int qmcReplicates = 0;
 
    /**
     * <p>
@@ -270,6 +312,86 @@ public class Main {
     */
    public static boolean returnFastSimulationChoice(Scanner input) {
       System.out.println("Do you want to run a fast simulation? (Y/N):");
+      return returnYesNoChoice(input);
+   }
+
+   /**
+    * <p>
+    * Prompts the user to choose between an exact calculation and a Monte Carlo
+    * simulation.
+    * </p>
+    *
+    * <p>
+    * The exact calculation solves the match as a Markov chain and returns the
+    * win probability and scoreline distribution instantly, so no match count is
+    * needed.
+    * </p>
+    *
+    * @param input the Scanner for user input
+    * @return true if the exact calculation is requested, false to simulate
+    */
+   public static boolean returnExactSolutionChoice(Scanner input) {
+      System.out.println("Do you want to calculate exact probabilities instead of simulating? (Y/N):");
+      return returnYesNoChoice(input);
+   }
+
+   /**
+    * <p>
+    * Prompts the user to choose between a fixed number of matches and running
+    * until a target precision is reached.
+    * </p>
+    *
+    * <p>
+    * In precision mode the simulation stops as soon as the confidence interval
+    * of Team 1's match win rate is narrow enough, so lopsided matchups finish
+    * after far fewer matches.
+    * </p>
+    *
+    * @param input the Scanner for user input
+    * @return true if a target precision is requested, false for a fixed count
+    */
+   public static boolean returnPrecisionModeChoice(Scanner input) {
+      System.out.println(
+            "Do you want to simulate until a target precision is reached instead of a fixed number of matches? (Y/N):");
+      return returnYesNoChoice(input);
+   }
+
+   /**
+    * <p>
+    * Prompts the user for a percentage strictly between 0 and 100, prompting
+    * again until the input is valid.
+    * </p>
+    *
+    * @param input  the Scanner for user input
+    * @param prompt the prompt to display
+    * @return the percentage as a fraction (0-1 exclusive)
+    */
+   public static double returnPercentChoice(Scanner input, String prompt) {
+      System.out.println(prompt);
+      while (true) {
+         String in = input.nextLine().trim();
+         exitIfRequested(in);
+         try {
+            double percent = Double.parseDouble(in.replace("%", ""));
+            if (percent > 0 && percent < 100) {
+               return percent / 100.0;
+            }
+         } catch (NumberFormatException e) {
+            // Prompt again below
+         }
+         System.out.println("Invalid input. Please enter a number between 0 and 100.");
+      }
+   }
+
+   /**
+    * <p>
+    * Reads a yes/no answer, prompting again until the input is valid.
+    * </p>
+    *
+    * @param input the Scanner for user input
+    * @return true for yes, false for no
+    */
+   private static boolean returnYesNoChoice(Scanner input) {
       String in;
       while (true) {
          in = input.nextLine().trim();
@@ -297,7 +419,8 @@ public class Main {
     * <li>Map selection for advantage calculations</li>
     * <li>Agent selection for both teams</li>
     * <li>Attacking team designation</li>
-    * <li>Number of matches to simulate</li>
+    * <li>Exact calculation or simulation</li>
+    * <li>Target precision or number of matches to simulate</li>
     * <li>Simulation mode (fast or detailed)</li>
     * </ul>
     *
@@ -322,10 +445,28 @@ public class Main {
          chooseAttackingTeam(input, match);
          System.out.println();
 
-         matches = returnNumberOfMatchesChoice(input);
+         exactSolution = returnExactSolutionChoice(input);
          System.out.println();
 
-         fastSimulation = returnFastSimulationChoice(input);
+         if (!exactSolution) {
+            precisionMode = returnPrecisionModeChoice(input);
+            System.out.println();
+         }
+
+         if (precisionMode) {
+            targetMarginOfError = returnPercentChoice(input,
+                  "Enter the target margin of error in percent (for example 0.05):");
+            System.out.println();
+
+            confidenceLevel = returnPercentChoice(input, "Enter the confidence level in percent (for example 99):");
+            matches = MAX_PRECISION_MATCHES;
+            fastSimulation = true;
+         } else if (!exactSolution) {
+            matches = returnNumberOfMatchesChoice(input);
+            System.out.println();
+
+            fastSimulation = returnFastSimulationChoice(input);
+         }
          System.out.println("\nSimulation parameters set up successfully.");
       } catch (Exception e) {
          logger.log(Level.SEVERE,
@@ -349,126 +490,6 @@ public class Main {
       }
    }
 
-   /**
-    * <p>
-    * Calculates the number of simulations assigned to a specific thread.
-    * </p>
-    *
-    * <p>
-    * Distributes the total matches evenly across threads, with remainder
-    * matches distributed to the first few threads to ensure all matches
-    * are simulated exactly once.
-    * </p>
-    *
-    * @param threadIndex          the index of the thread
-    * @param simulationsPerThread the base number of simulations per thread
-    * @param remainderSimulations the number of extra simulations to distribute
-    * @return the total number of simulations for this specific thread
-    */
-   public static long getSimulationsForThread(int threadIndex, long simulationsPerThread, long remainderSimulations) {
-      if (threadIndex < remainderSimulations) {
-         return simulationsPerThread + 1;
-      } else {
-         return simulationsPerThread;
-      }
-   }
-
-   /**
-    * <p>
-    * Validates that at least one thread is available for simulation.
-    * </p>
-    *
-    * <p>
-    * If no threads are available, logs a severe error and terminates
-    * the application since simulation cannot proceed.
-    * </p>
-    *
-    * @param numThreads the number of available threads
-    */
-   public static void checkAvailableThreads(int numThreads) {
-      if (numThreads < 1) {
-         logger.log(Level.SEVERE, "No threads available! Number of threads available: {0}", numThreads);
-         System.exit(0);
-      }
-   }
-
-   /**
-    * <p>
-    * Creates a new simulation thread if the thread has simulations assigned.
-    * </p>
-    *
-    * <p>
-    * This method only creates a thread if it has at least one simulation
-    * to run, preventing the creation of unnecessary idle threads.
-    * </p>
-    *
-    * @param simulationsForThisThread the number of simulations assigned to this
-    *                                 thread
-    */
-   public static void handleCreationOfNewThreads(long simulationsForThisThread) {
-      if (simulationsForThisThread < 1) {
-         return;
-      }
-      createNewConcurrentSimulationThread(startedThreads, simulationsForThisThread);
-   }
-
-   /**
-    * <p>
-    * Creates and starts a new concurrent simulation thread.
-    * </p>
-    *
-    * <p>
-    * Instantiates a new ConcurrentSimulationThread with the current team
-    * configurations and simulation parameters, starts the thread, and
-    * adds it to the list of active threads for tracking.
-    * </p>
-    *
-    * @param startedThreads           the list to add the new thread to for
-    *                                 tracking
-    * @param simulationsForThisThread the number of matches this thread should
-    *                                 simulate
-    */
-   public static void createNewConcurrentSimulationThread(
-         List<ConcurrentSimulationThread> startedThreads,
-         long simulationsForThisThread) {
-      // Propagate current map and attacking team settings
-      String currentMap = match.getMap();
-      int currentAttacker = (int) match.getAttackingTeam();
-      ConcurrentSimulationThread thread = new ConcurrentSimulationThread(teamOne, teamTwo,
-            simulationsForThisThread, fastSimulation, currentMap, currentAttacker);
-      thread.start();
-      startedThreads.add(thread);
-   }
-
-   /**
-    * <p>
-    * Waits for all simulation threads to complete execution.
-    * </p>
-    *
-    * <p>
-    * This method joins each thread in the started threads list, ensuring
-    * that the main thread waits for all simulations to complete before
-    * proceeding to result aggregation and display.
-    * </p>
-    *
-    * <p>
-    * Handles InterruptedException by setting the interrupt flag and logging
-    * a warning, allowing graceful degradation if threads are interrupted.
-    * </p>
-    */
-   public static void waitForAllThreadsToFinish() {
-      for (ConcurrentSimulationThread currentThread : startedThreads) {
-         try {
-            if (currentThread != null) {
-               currentThread.join();
-            }
-         } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.log(Level.WARNING, "Thread execution was interrupted", e);
-         }
-      }
-   }
-
    /**
     * <p>
     * Displays comprehensive statistics for both team compositions.
@@ -504,6 +525,8 @@ public class Main {
     * <li>Total round wins for both teams</li>
     * <li>50/50 round outcomes for both teams</li>
     * <li>Map used for the simulation</li>
+    * <li>Confidence interval of Team 1's match win rate</li>
+    * <li>Final scoreline and halftime score distributions</li>
     * </ul>
     *
     * <p>
@@ -511,18 +534,85 @@ public class Main {
     * </p>
     */
    public static void printMatchStats() {
-      long totalMatchesSimulated = SimulationStatisticsCollector.getTeam1MatchWins()
-            + SimulationStatisticsCollector.getTeam2MatchWins();
+      long totalMatchesSimulated = jobStatistics.getTotalMatches();
       System.out.printf(
             "Number of matches simulated: %s%nTeam 1 match record vs Team 2: %s-%s%nTotal rounds won by Team 1 vs Team 2: %s-%s%n50/50 rounds won by Team 1 vs Team 2: %s-%s%nMap: %s%n",
             numberFormat.format(totalMatchesSimulated),
-            numberFormat.format(SimulationStatisticsCollector.getTeam1MatchWins()),
-            numberFormat.format(SimulationStatisticsCollector.getTeam2MatchWins()),
-            numberFormat.format(SimulationStatisticsCollector.getTeam1RoundWins()),
-            numberFormat.format(SimulationStatisticsCollector.getTeam2RoundWins()),
-            numberFormat.format(SimulationStatisticsCollector.getTeam1FiftyFiftyWins()),
-            numberFormat.format(SimulationStatisticsCollector.getTeam2FiftyFiftyWins()),
+            numberFormat.format(jobStatistics.getTeam1MatchWins()),
+            numberFormat.format(jobStatistics.getTeam2MatchWins()),
+            numberFormat.format(jobStatistics.getTeam1RoundWins()),
+            numberFormat.format(jobStatistics.getTeam2RoundWins()),
+            numberFormat.format(jobStatistics.getTeam1FiftyFiftyWins()),
+            numberFormat.format(jobStatistics.getTeam2FiftyFiftyWins()),
+            match.getMap().toUpperCase());
+      if (totalMatchesSimulated > 0) {
+         ConfidenceInterval interval = ConfidenceInterval.wilson(jobStatistics.getTeam1MatchWins(),
+               totalMatchesSimulated, confidenceLevel);
+         System.out.printf("Team 1 match win rate: %.4f%% +/- %.4f%% (%s%% Wilson interval %.4f%%-%.4f%%)%n",
+               interval.getEstimate() * 100, interval.getHalfWidth() * 100, confidenceLevel * 100,
+               interval.getLower() * 100, interval.getUpper() * 100);
+         printScorelineDistributions(totalMatchesSimulated);
+      }
+   }
+
+   /**
+    * <p>
+    * Displays how often each final scoreline and halftime score occurred.
+    * </p>
+    *
+    * <p>
+    * Scores that never occurred are omitted.
+    * </p>
+    *
+    * @param totalMatchesSimulated the number of matches the counts are out of
+    */
+   private static void printScorelineDistributions(long totalMatchesSimulated) {
+      System.out.printf("Overtime: %s (%.4f%%)%n", numberFormat.format(jobStatistics.getOvertimeMatches()),
+            jobStatistics.getOvertimeMatches() * 100.0 / totalMatchesSimulated);
+      System.out.println("\nFinal scoreline distribution (Team 1 - Team 2):");
+      for (int i = 0; i < Scoreline.BUCKETS; i++) {
+         long count = jobStatistics.getScorelineCount(i);
+         if (count > 0) {
+            System.out.printf("%-7s %15s %9.4f%%%n", Scoreline.label(i), numberFormat.format(count),
+                  count * 100.0 / totalMatchesSimulated);
+         }
+      }
+      System.out.println("\nHalftime score distribution (Team 1 - Team 2):");
+      for (int team1Rounds = Scoreline.HALFTIME_BUCKETS - 1; team1Rounds >= 0; team1Rounds--) {
+         long count = jobStatistics.getHalftimeCount(team1Rounds);
+         if (count > 0) {
+            System.out.printf("%-7s %15s %9.4f%%%n", team1Rounds + "-" + (Scoreline.HALFTIME_BUCKETS - 1 - team1Rounds),
+                  numberFormat.format(count), count * 100.0 / totalMatchesSimulated);
+         }
+      }
+   }
+
+   /**
+    * <p>
+    * Displays the exact match probabilities and scoreline distribution.
+    * </p>
+    *
+    * <p>
+    * Scorelines with a probability below 0.005% are omitted to keep the output
+    * readable.
+    * </p>
+    *
+    * @param result the exact calculation result to display
+    */
+   public static void printExactMatchStats(MatchProbabilityResult result) {
+      System.out.printf(
+            "Team 1 round win chance attacking/defending: %.4f%% / %.4f%%%nTeam 1 match win probability: %.6f%%%nTeam 2 match win probability: %.6f%%%nOvertime probability: %.4f%%%nExpected rounds won by Team 1 vs Team 2: %.3f-%.3f%nMap: %s%n",
+            result.getTeam1AttackRoundWinProbability() * 100, result.getTeam1DefenseRoundWinProbability() * 100,
+            result.getTeam1MatchWinProbability() * 100, result.getTeam2MatchWinProbability() * 100,
+            result.getOvertimeProbability() * 100, result.getExpectedTeam1Rounds(), result.getExpectedTeam2Rounds(),
             match.getMap().toUpperCase());
+      System.out.println("\nFinal scoreline distribution (Team 1 - Team 2):");
+      for (int i = 0; i < Scoreline.BUCKETS; i++) {
+         double probability = result.getScorelineProbability(i);
+         if (probability >= 0.00005) {
+            System.out.printf("%-7s %9.4f%%%n", Scoreline.label(i), probability * 100);
+         }
+      }
    }
 
    /**
@@ -602,6 +692,12 @@ public class Main {
       // Startup message
       startupMessage();
 
+      // A matrix job reads its comps from a file and needs no console input
+      if (matrixCompFile != null) {
+         runMatchupMatrix();
+         return;
+      }
+
       // Detect non-interactive environment (e.g., IDE debug console) and avoid
       // blocking for input
       if (System.console() == null) {
@@ -615,45 +711,75 @@ public class Main {
          return;
       }
 
+      if (counterCount > 0) {
+         runCounterSearch();
+         return;
+      }
+
+      if (comparisonCatalogFiles != null) {
+         runCatalogComparison();
+         return;
+      }
+
+      if (compComparison) {
+         runCompComparison();
+         return;
+      }
+
       // Set up simulation parameters
       setUpSimulationParameters(teamOne, teamTwo, match);
+      warnAboutIgnoredEstimators();
 
       // Start measuring elapsed time
       startLoggingElapsedTime();
 
-      // Adjust numThreads if necessary before calculating work distribution
+      if (exactSolution) {
+         MatchProbabilityResult result = match.solveMatchExact();
+         printTeamStats(teamOne, teamTwo);
+         printExactMatchStats(result);
+         finishLoggingElapsedTime();
+         return;
+      }
+
+      // Adjust numThreads if necessary so no thread starts without work
       adjustNumThreadsIfNecessary();
 
-      // Ensure numThreads is at least 1 to avoid division by zero
+      // Ensure numThreads is at least 1
       if (numThreads < 1) {
          numThreads = 1;
       }
 
-      // Run concurrent simulations
-      long simulationsPerThread = matches / numThreads;
-      long remainderSimulations = matches % numThreads;
+      // Compile the matchup once; every piece of the job reads the same plan
+      plan = match.getPlan();
 
-      System.out.printf("Running %s simulations across %d threads...%n", numberFormat.format(matches), numThreads);
+      // Derive every match's random stream from the job seed and its index so
+      // the run can be repeated or resumed
+      long seed = (jobSeed != null) ? jobSeed : SimulationRandom.newJobSeed();
 
-      long totalSimulatedMatches = 0;
-
-      while (totalSimulatedMatches < matches) {
-         // Clear the startedThreads list to avoid joining finished threads multiple
-         // times
-         startedThreads.clear();
-         // Create and start threads
-         checkAvailableThreads(numThreads);
-         for (int i = 0; i < numThreads; i++) {
-            long simulationsForThisThread = getSimulationsForThread(i, simulationsPerThread, remainderSimulations);
-            handleCreationOfNewThreads(simulationsForThisThread);
+      // Run the job on a work-stealing scheduler
+      try (SimulationScheduler scheduler = new SimulationScheduler(numThreads)) {
+         if (precisionMode) {
+            System.out.printf("Simulating until +/-%s%% at %s%% confidence across %d threads (seed %d)...%n",
+                  targetMarginOfError * 100, confidenceLevel * 100, numThreads, seed);
+            jobStatistics.merge(scheduler.runToPrecision(plan, seed, startMatchIndex, targetMarginOfError,
+                  confidenceLevel, matches, null));
+         } else if (fastSimulation && qmcReplicates > 0) {
+            runQuasiMonteCarlo(scheduler, seed);
+            printTeamStats(teamOne, teamTwo);
+            finishLoggingElapsedTime();
+            return;
+         } else if (fastSimulation && varianceTechniques != null) {
+            runVarianceReduced(scheduler, seed);
+            printTeamStats(teamOne, teamTwo);
+            finishLoggingElapsedTime();
+            return;
+         } else if (fastSimulation && startMatchIndex == 0 && resultStorePath != null) {
+            runWithResultStore(scheduler, seed);
+         } else {
+            System.out.printf("Running %s simulations across %d threads (seed %d, matches %d-%d)...%n",
+                  numberFormat.format(matches), numThreads, seed, startMatchIndex, startMatchIndex + matches - 1);
+            jobStatistics.merge(scheduler.run(plan, seed, startMatchIndex, matches, fastSimulation, null));
          }
-
-         // Wait for all threads to complete
-         waitForAllThreadsToFinish();
-         totalSimulatedMatches = SimulationStatisticsCollector.getTeam1MatchWins()
-               + SimulationStatisticsCollector.getTeam2MatchWins();
-         simulationsPerThread = (matches - totalSimulatedMatches) / numThreads;
-         remainderSimulations = (matches - totalSimulatedMatches) % numThreads;
       }
 
       // Print simulation results
@@ -662,6 +788,697 @@ public class Main {
       finishLoggingElapsedTime();
    }
 
+   /**
+    * <p>
+    * Logs the estimate flags the chosen simulation setup cannot honor.
+    * </p>
+    *
+    * <p>
+    * The variance reduced and quasi-Monte Carlo estimates only replace fast
+    * runs with a fixed number of matches, so they are ignored for the exact
+    * solution, precision mode and detailed simulations. When both are
+    * requested, the quasi-Monte Carlo estimate runs.
+    * </p>
+    */
+   private static void warnAboutIgnoredEstimators() {
+      String setup = null;
+      if (exactSolution) {
+         setup = "the exact solution";
+      } else if (precisionMode) {
+         setup = "precision mode";
+      } else if (!fastSimulation) {
+         setup = "detailed simulations";
+      }
+      if (setup != null && varianceTechniques != null) {
+         logger.log(Level.WARNING, "Ignoring --variance-reduction=, which only applies to fast runs, not {0}.",
+               setup);
+      }
+      if (setup != null && qmcReplicates > 0) {
+         logger.log(Level.WARNING, "Ignoring --qmc, which only applies to fast runs, not {0}.", setup);
+      } else if (qmcReplicates > 0 && varianceTechniques != null) {
+         logger.log(Level.WARNING, "Ignoring --variance-reduction=, which --qmc replaces.");
+      }
+   }
+
+   /**
+    * <p>
+    * Runs a fast simulation job through the persistent result store, so only
+    * the matches no earlier run stored are simulated.
+    * </p>
+    *
+    * <p>
+    * Without {@code --seed} the stored job of the matchup is continued,
+    * whatever its seed. If the store cannot be opened or the teams cannot be
+    * keyed, the job runs normally with the given seed.
+    * </p>
+    *
+    * @param scheduler the scheduler to simulate on
+    * @param seed      the seed to use if the store cannot be used
+    */
+   private static void runWithResultStore(SimulationScheduler scheduler, long seed) {
+      // Key the results by the catalog the plan was compiled from
+      MatchResultCache.Key key = MatchResultCache.key(CompTables.fromCatalog(teamOne.getCatalog()), teamOne, teamTwo,
+            plan.getMap(), plan.getStartingAttacker());
+      if (key != null) {
+         try (MatchResultStore store = MatchResultStore.open(resultStorePath)) {
+            MatchResultCache cache = new MatchResultCache(1, store);
+            MatchResultCache.Result result = cache.run(key, plan, jobSeed, matches, scheduler, null);
+            System.out.printf("Reused %s stored matches, simulated %s across %d threads (seed %d)...%n",
+                  numberFormat.format(result.reusedMatches()),
+                  numberFormat.format(result.statistics().getTotalMatches() - result.reusedMatches()), numThreads,
+                  result.jobSeed());
+            jobStatistics.merge(result.statistics());
+            return;
+         } catch (IOException e) {
+            logger.log(Level.WARNING, "Result store unavailable, simulating without it", e);
+         }
+      }
+      System.out.printf("Running %s simulations across %d threads (seed %d)...%n", numberFormat.format(matches),
+            numThreads, seed);
+      jobStatistics.merge(scheduler.run(plan, seed, 0, matches, true, null));
+   }
+
+   /**
+    * <p>
+    * Runs a fast simulation job with the variance reduction techniques given
+    * with {@code --variance-reduction} and prints the estimate, its interval
+    * and its effective sample size.
+    * </p>
+    *
+    * <p>
+    * The job always starts at match 0 and does not use the result store,
+    * whose statistics are plain Monte Carlo counts.
+    * </p>
+    *
+    * @param scheduler the scheduler to simulate on
+    * @param seed      the job seed
+    */
+   private static void runVarianceReduced(SimulationScheduler scheduler, long seed) {
+      long minimum = 2L * VarianceReducedEstimate.BLOCK_SAMPLES
+            * (varianceTechniques.contains(VarianceReducedEstimate.Technique.ANTITHETIC) ? 2 : 1);
+      long matchCount = Math.max(matches, minimum);
+      System.out.printf("Running %s simulations with %s across %d threads (seed %d)...%n",
+            numberFormat.format(matchCount),
+            varianceTechniques.isEmpty() ? "no variance reduction" : varianceTechniques, numThreads, seed);
+      VarianceReducedEstimate estimate = VarianceReducedEstimate.run(plan, seed, matchCount, varianceTechniques,
+            scheduler, null);
+      ConfidenceInterval interval = estimate.getInterval(confidenceLevel);
+      System.out.printf("Team 1 match win rate: %.4f%% +/- %.4f%% (%s%% normal interval)%n",
+            interval.getEstimate() * 100, interval.getHalfWidth() * 100, confidenceLevel * 100);
+      if (estimate.getTechniques().contains(VarianceReducedEstimate.Technique.CONTROL_VARIATE)) {
+         System.out.printf("Without the control variate: %.4f%% (coefficient %.4f)%n",
+               estimate.getNaiveEstimate() * 100, estimate.getControlCoefficient());
+      }
+      System.out.printf("Effective sample size: %s matches from %s simulated (%.2fx)%n",
+            numberFormat.format(Math.round(estimate.getEffectiveSampleSize())),
+            numberFormat.format(estimate.getMatchCount()),
+            estimate.getEffectiveSampleSize() / estimate.getMatchCount());
+   }
+
+   /**
+    * <p>
+    * Runs a fast simulation job on scrambled Sobol points with the number of
+    * replicates given with {@code --qmc} and prints the replicate estimate,
+    * its interval and its effective sample size.
+    * </p>
+    *
+    * <p>
+    * The job always starts at match 0 and does not use the result store. The
+    * usual match statistics are not printed, because a Wilson interval over
+    * Sobol points would overstate the error many times over.
+    * </p>
+    *
+    * @param scheduler the scheduler to simulate on
+    * @param seed      the job seed
+    */
+   private static void runQuasiMonteCarlo(SimulationScheduler scheduler, long seed) {
+      long matchCount = Math.max(matches, qmcReplicates);
+      System.out.printf("Running about %s quasi-Monte Carlo simulations in %d replicates across %d threads"
+            + " (seed %d)...%n", numberFormat.format(matchCount), qmcReplicates, numThreads, seed);
+      QuasiMonteCarloEstimate estimate = QuasiMonteCarloEstimate.run(plan, seed, matchCount, qmcReplicates, scheduler,
+            null);
+      ConfidenceInterval interval = estimate.getInterval(confidenceLevel);
+      System.out.printf("Team 1 match win rate: %.4f%% +/- %.4f%% (%s%% t interval over %d replicates of %s)%n",
+            interval.getEstimate() * 100, interval.getHalfWidth() * 100, confidenceLevel * 100,
+            estimate.getReplicates(), numberFormat.format(estimate.getPointsPerReplicate()));
+      System.out.printf("Effective sample size: %s matches from %s simulated (%.2fx)%n",
+            numberFormat.format(Math.round(estimate.getEffectiveSampleSize())),
+            numberFormat.format(estimate.getMatchCount()),
+            estimate.getEffectiveSampleSize() / estimate.getMatchCount());
+   }
+
+   /**
+    * <p>
+    * Runs the counter search workflow: prompts for a map and the enemy team,
+    * then prints the best comps against it.
+    * </p>
+    *
+    * <p>
+    * Every 5-agent comp is scored with the exact solver, so the ranking has no
+    * simulation noise.
+    * </p>
+    */
+   private static void runCounterSearch() {
+      System.out.println("Input counter search parameters. Type 'exit' to quit.");
+      try (Scanner input = new Scanner(System.in)) {
+         chooseMap(input, teamOne, teamTwo, match);
+         System.out.println();
+
+         System.out.println("Enter the 5 agents of the team to counter:");
+         int agentsAdded = 0;
+         while (agentsAdded < CounterCompSearch.TEAM_SIZE) {
+            String agentName = input.nextLine().trim();
+            exitIfRequested(agentName);
+            if (teamTwo.canInputAgent(agentName)) {
+               teamTwo.addAgent(agentName);
+               agentsAdded++;
+            } else {
+               System.out.println("Invalid agent name. Please try again.");
+            }
+         }
+      } catch (Exception e) {
+         logger.log(Level.SEVERE, "An error occurred while setting up the counter search.", e);
+         return;
+      }
+
+      startLoggingElapsedTime();
+      CounterCompSearch search = new CounterCompSearch(match.getMap());
+      System.out.printf("%nSearching %s comps across %d threads...%n", numberFormat.format(search.getCompCount()),
+            numThreads);
+      List<CounterCompSearch.Counter> counters;
+      try (SimulationScheduler scheduler = new SimulationScheduler(numThreads)) {
+         counters = search.findCounters(teamTwo, counterCount, scheduler);
+      }
+
+      System.out.printf("%nBest counters on %s (match win rate, averaged over both starting sides):%n",
+            match.getMap().toUpperCase());
+      for (int i = 0; i < counters.size(); i++) {
+         CounterCompSearch.Counter counter = counters.get(i);
+         System.out.printf("%3d. %.4f%%  %s%n", i + 1, counter.winProbability() * 100,
+               String.join(", ", counter.agents()));
+      }
+      finishLoggingElapsedTime();
+   }
+
+   /**
+    * <p>
+    * Runs the catalog comparison workflow: prompts for one matchup and a
+    * match count, then simulates the matchup under the active catalog and
+    * under every catalog given with {@code --compare-catalogs} on common
+    * random numbers.
+    * </p>
+    *
+    * <p>
+    * Match N is played from the same random stream under every catalog, so
+    * the differences in win rate against the active catalog come with paired
+    * confidence intervals far narrower than those of independent runs of the
+    * same length.
+    * </p>
+    */
+   private static void runCatalogComparison() {
+      List<String> labels = new ArrayList<>();
+      List<AgentCatalog> catalogs = new ArrayList<>();
+      labels.add("active catalog");
+      catalogs.add(AgentCatalog.getActive());
+      for (Path file : comparisonCatalogFiles) {
+         try {
+            catalogs.add(AgentCatalog.load(file));
+            labels.add(file.toString());
+         } catch (IOException | IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "Could not load agent catalog " + file, e);
+            return;
+         }
+      }
+
+      System.out.println("Input catalog comparison parameters. Type 'exit' to quit.");
+      try (Scanner input = new Scanner(System.in)) {
+         chooseMap(input, teamOne, teamTwo, match);
+         System.out.println();
+         inputAgents(input, match);
+         System.out.println();
+         chooseAttackingTeam(input, match);
+         System.out.println();
+         matches = Math.max(2, returnNumberOfMatchesChoice(input));
+      } catch (Exception e) {
+         logger.log(Level.SEVERE, "An error occurred while setting up the catalog comparison.", e);
+         return;
+      }
+
+      List<MatchupPlan> plans = new ArrayList<>();
+      for (AgentCatalog catalog : catalogs) {
+         try {
+            TeamComp one = copyTeam(catalog, teamOne, match.getMap());
+            TeamComp two = copyTeam(catalog, teamTwo, match.getMap());
+            plans.add(MatchupPlan.compile(one, two, match.getMap(), match.getStartingAttackingTeam()));
+         } catch (IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "Could not build the matchup under " + labels.get(plans.size()), e);
+            return;
+         }
+      }
+
+      startLoggingElapsedTime();
+      long seed = (jobSeed != null) ? jobSeed : SimulationRandom.newJobSeed();
+      System.out.printf("Running %s simulations under %d catalogs across %d threads (seed %d)...%n",
+            numberFormat.format(matches), catalogs.size(), numThreads, seed);
+      CommonRandomComparison comparison;
+      try (SimulationScheduler scheduler = new SimulationScheduler(numThreads)) {
+         comparison = CommonRandomComparison.run(plans, seed, matches, scheduler, null);
+      }
+      printComparison(comparison, labels);
+      finishLoggingElapsedTime();
+   }
+
+   /**
+    * <p>
+    * Runs the comp comparison workflow: prompts for a map, an enemy comp, two
+    * candidate comps, the starting attacker and a match count, then simulates
+    * comp A against the enemy and comp B against the enemy on common random
+    * numbers.
+    * </p>
+    *
+    * <p>
+    * Both matchups play match N from the same random stream, so the
+    * difference between the comps' win rates comes with a paired confidence
+    * interval. Small changes, such as swapping one controller for another, are
+    * resolved with a fraction of the matches two independent runs would need.
+    * </p>
+    */
+   private static void runCompComparison() {
+      CompTables tables = CompTables.fromAgentList();
+      int enemy;
+      int compA;
+      int compB;
+      System.out.println("Input comp comparison parameters. Type 'exit' to quit.");
+      try (Scanner input = new Scanner(System.in)) {
+         chooseMap(input, teamOne, teamTwo, match);
+         System.out.println();
+         enemy = readComp(input, tables, "Enter the 5 agents of the enemy team:");
+         compA = readComp(input, tables, "Enter the 5 agents of comp A:");
+         compB = readComp(input, tables, "Enter the 5 agents of comp B:");
+         System.out.println("Comps A and B play as team 1 and the enemy as team 2.");
+         chooseAttackingTeam(input, match);
+         System.out.println();
+         matches = Math.max(2, returnNumberOfMatchesChoice(input));
+      } catch (Exception e) {
+         logger.log(Level.SEVERE, "An error occurred while setting up the comp comparison.", e);
+         return;
+      }
+
+      int map = tables.getMapIndex(match.getMap());
+      int startingAttacker = match.getStartingAttackingTeam();
+      List<MatchupPlan> plans = List.of(tables.compile(compA, enemy, map, startingAttacker),
+            tables.compile(compB, enemy, map, startingAttacker));
+      List<String> labels = List.of("A: " + String.join(", ", tables.agentNames(compA)),
+            "B: " + String.join(", ", tables.agentNames(compB)));
+
+      startLoggingElapsedTime();
+      long seed = (jobSeed != null) ? jobSeed : SimulationRandom.newJobSeed();
+      System.out.printf("Running %s simulations per comp across %d threads (seed %d)...%n",
+            numberFormat.format(matches), numThreads, seed);
+      CommonRandomComparison comparison;
+      try (SimulationScheduler scheduler = new SimulationScheduler(numThreads)) {
+         comparison = CommonRandomComparison.run(plans, seed, matches, scheduler, null);
+      }
+      System.out.printf("%nEnemy: %s%n", String.join(", ", tables.agentNames(enemy)));
+      printComparison(comparison, labels);
+      finishLoggingElapsedTime();
+   }
+
+   /**
+    * <p>
+    * Prompts for a comp until 5 distinct, known agents have been entered.
+    * </p>
+    *
+    * @param input  the Scanner for user input
+    * @param tables the agent tables to encode the comp with
+    * @param prompt the prompt to show
+    * @return the comp mask
+    */
+   private static int readComp(Scanner input, CompTables tables, String prompt) {
+      System.out.println(prompt);
+      while (true) {
+         String[] names = new String[CompTables.TEAM_SIZE];
+         int agentsAdded = 0;
+         while (agentsAdded < names.length) {
+            String agentName = input.nextLine().trim();
+            exitIfRequested(agentName);
+            if (tables.getAgentIndex(agentName) >= 0) {
+               names[agentsAdded++] = agentName;
+            } else {
+               System.out.println("Invalid agent name. Please try again.");
+            }
+         }
+         try {
+            return tables.compMask(names);
+         } catch (IllegalArgumentException e) {
+            System.out.println("A comp needs 5 different agents. Please enter all 5 again.");
+         }
+      }
+   }
+
+   /**
+    * <p>
+    * Prints each variant's team 1 win rate and, for every variant after the
+    * first, the paired difference against the first.
+    * </p>
+    *
+    * @param comparison the finished comparison
+    * @param labels     the name of each variant
+    */
+   private static void printComparison(CommonRandomComparison comparison, List<String> labels) {
+      System.out.printf("%nTeam 1 win rate (%s matches each, %s%% confidence):%n",
+            numberFormat.format(comparison.getMatchCount()), confidenceLevel * 100);
+      for (int v = 0; v < comparison.getVariantCount(); v++) {
+         ConfidenceInterval rate = comparison.getWinRate(v, confidenceLevel);
+         System.out.printf("  %-30s %.4f%% +/- %.4f%%%n", labels.get(v), rate.getEstimate() * 100,
+               rate.getHalfWidth() * 100);
+      }
+      System.out.printf("%nDifference against %s (paired on common random numbers):%n", labels.get(0));
+      for (int v = 1; v < comparison.getVariantCount(); v++) {
+         ConfidenceInterval difference = comparison.getDifference(v, confidenceLevel);
+         System.out.printf("  %-30s %+.4f%% +/- %.4f%% (%s matches changed winner, %.1fx fewer matches than"
+               + " independent runs)%n", labels.get(v), difference.getEstimate() * 100,
+               difference.getHalfWidth() * 100,
+               numberFormat.format(comparison.getGains(v) + comparison.getLosses(v)),
+               comparison.getVarianceReduction(v));
+      }
+   }
+
+   /**
+    * <p>
+    * Builds a team with the same agents as another one from a catalog.
+    * </p>
+    *
+    * @param catalog the catalog to take the agents from
+    * @param team    the team whose agents to copy
+    * @param map     the map to balance the agents for
+    * @return the new team
+    * @throws IllegalArgumentException if the catalog has no agent of that name
+    */
+   private static TeamComp copyTeam(AgentCatalog catalog, TeamComp team, String map) {
+      TeamComp copy = new TeamComp(catalog, map);
+      for (Agent agent : team.getTeamComp()) {
+         if (!copy.canInputAgent(agent.getName())) {
+            throw new IllegalArgumentException("Invalid input in copyTeam. Unknown agent: " + agent.getName());
+         }
+         copy.addAgent(agent.getName());
+      }
+      return copy;
+   }
+
+   /**
+    * <p>
+    * Runs the matchup matrix workflow: reads a pool of comps from a file and
+    * writes their round-robin matrix on every map as binary and CSV files next
+    * to it.
+    * </p>
+    *
+    * <p>
+    * Each non-blank line of the file is one comp, written as 5 agent names
+    * separated by commas. Lines starting with # are comments. Invalid lines
+    * are logged and skipped.
+    * </p>
+    */
+   private static void runMatchupMatrix() {
+      CompTables tables = CompTables.fromAgentList();
+      List<Integer> pool = new ArrayList<>();
+      try {
+         for (String line : Files.readAllLines(Path.of(matrixCompFile))) {
+            String trimmedLine = line.trim();
+            if (trimmedLine.isEmpty() || trimmedLine.startsWith("#")) {
+               continue;
+            }
+            try {
+               pool.add(tables.compMask(trimmedLine.split(",")));
+            } catch (IllegalArgumentException e) {
+               logger.log(Level.WARNING, "Skipping invalid comp: {0}", trimmedLine);
+            }
+         }
+      } catch (IOException e) {
+         logger.log(Level.SEVERE, "Could not read the comp file.", e);
+         return;
+      }
+      int[] comps = pool.stream().mapToInt(Integer::intValue).toArray();
+      // Every real map, without "none"
+      int[] maps = new int[tables.getMapCount() - 1];
+      for (int i = 0; i < maps.length; i++) {
+         maps[i] = i + 1;
+      }
+
+      startLoggingElapsedTime();
+      System.out.printf("Solving %s matchups across %d threads...%n",
+            numberFormat.format((long) comps.length * comps.length * maps.length * 2), numThreads);
+      MatchupMatrix matrix;
+      try (SimulationScheduler scheduler = new SimulationScheduler(numThreads)) {
+         matrix = MatchupMatrix.compute(tables, comps, maps, scheduler);
+      }
+      try {
+         matrix.writeBinary(Path.of(matrixCompFile + ".matrix.bin"));
+         matrix.writeCsv(Path.of(matrixCompFile + ".matrix.csv"));
+         System.out.printf("Wrote %s.matrix.bin and %s.matrix.csv%n", matrixCompFile, matrixCompFile);
+      } catch (IOException e) {
+         logger.log(Level.SEVERE, "Could not write the matrix files.", e);
+      }
+      finishLoggingElapsedTime();
+   }
+
+   /**
+    * <p>
+    * Sets the number of counter comps to search for from a command line value.
+    * </p>
+    *
+    * <p>
+    * A valid count switches to console mode, where the search runs. Invalid
+    * or non-positive counts are logged and ignored.
+    * </p>
+    *
+    * @param countText the number of counters to list
+    */
+   private static void setCounterCount(String countText) {
+      try {
+         int count = Integer.parseInt(countText.trim());
+         if (count > 0) {
+            counterCount = count;
+            consoleMode = true;
+            return;
+         }
+      } catch (NumberFormatException e) {
+         // Logged below
+      }
+      logger.log(Level.WARNING, "Ignoring invalid counter count: {0}", countText);
+   }
+
+   /**
+    * <p>
+    * Sets the result store file from a command line value. {@code none}
+    * turns the store off.
+    * </p>
+    *
+    * @param pathText the store's data file
+    */
+   private static void setResultStorePath(String pathText) {
+      if ("none".equalsIgnoreCase(pathText.trim())) {
+         resultStorePath = null;
+         return;
+      }
+      try {
+         resultStorePath = Path.of(pathText.trim());
+      } catch (InvalidPathException e) {
+         logger.log(Level.WARNING, "Ignoring invalid result store path: {0}", pathText);
+      }
+   }
+
+   /**
+    * <p>
+    * Loads an agent catalog file and makes it the active catalog.
+    * </p>
+    *
+    * <p>
+    * If the file does not exist yet, the built-in catalog is written to it as
+    * a starting point for balance changes. A file that cannot be read or
+    * parsed is logged and the built-in catalog stays active.
+    * </p>
+    *
+    * @param pathText the catalog text file
+    */
+   private static void loadCatalog(String pathText) {
+      try {
+         Path file = Path.of(pathText.trim());
+         if (!Files.exists(file)) {
+            AgentCatalog.builtIn().writeText(file);
+            System.out.println("Wrote the built-in agent catalog to " + file);
+         }
+         AgentCatalog.setActive(AgentCatalog.load(file));
+         createTeams();
+      } catch (IOException | IllegalArgumentException e) {
+         logger.log(Level.WARNING, "Could not load agent catalog " + pathText + ", using the built-in catalog", e);
+      }
+   }
+
+   /**
+    * <p>
+    * Builds empty console teams and their simulator from the active catalog.
+    * </p>
+    *
+    * <p>
+    * The teams are first built when the class loads, before any command line
+    * value is read, so loading a catalog has to build them again.
+    * </p>
+    */
+   private static void createTeams() {
+      teamOne = new TeamComp();
+      teamTwo = new TeamComp();
+      match = new MatchSimulator(teamOne, teamTwo);
+   }
+
+   /**
+    * <p>
+    * Sets the catalog files to compare against the active catalog from a
+    * comma-separated command line value.
+    * </p>
+    *
+    * @param filesText the catalog text files
+    */
+   private static void setComparisonCatalogFiles(String filesText) {
+      List<Path> files = new ArrayList<>();
+      for (String file : filesText.split(",")) {
+         if (file.isBlank()) {
+            continue;
+         }
+         try {
+            files.add(Path.of(file.trim()));
+         } catch (InvalidPathException e) {
+            logger.log(Level.WARNING, "Ignoring invalid catalog path: {0}", file);
+         }
+      }
+      if (files.isEmpty()) {
+         logger.log(Level.WARNING, "Ignoring empty catalog comparison: {0}", filesText);
+         return;
+      }
+      comparisonCatalogFiles = files;
+      consoleMode = true;
+   }
+
+   /**
+    * <p>
+    * Sets the variance reduction techniques from a comma-separated command
+    * line value of antithetic, stratified and control. {@code none} runs the
+    * same kernel without any technique, as a baseline for the others.
+    * </p>
+    *
+    * <p>
+    * A value with at least one known technique switches to console mode,
+    * where the estimate runs. Unknown techniques are logged and ignored, and a
+    * value without any known technique is ignored entirely.
+    * </p>
+    *
+    * @param techniquesText the techniques
+    */
+   private static void setVarianceTechniques(String techniquesText) {
+      Set<VarianceReducedEstimate.Technique> techniques = EnumSet.noneOf(VarianceReducedEstimate.Technique.class);
+      boolean recognized = false;
+      for (String technique : techniquesText.split(",")) {
+         switch (technique.trim().toLowerCase()) {
+            case "antithetic" -> techniques.add(VarianceReducedEstimate.Technique.ANTITHETIC);
+            case "stratified" -> techniques.add(VarianceReducedEstimate.Technique.STRATIFIED);
+            case "control" -> techniques.add(VarianceReducedEstimate.Technique.CONTROL_VARIATE);
+            case "none" -> {
+               // Plain Monte Carlo on the same kernel
+            }
+            case "" -> {
+               continue;
+            }
+            default -> {
+               logger.log(Level.WARNING, "Ignoring unknown variance reduction technique: {0}", technique);
+               continue;
+            }
+         }
+         recognized = true;
+      }
+      if (!recognized) {
+         logger.log(Level.WARNING, "Ignoring invalid variance reduction techniques: {0}", techniquesText);
+         return;
+      }
+      varianceTechniques = techniques;
+      consoleMode = true;
+   }
+
+   /**
+    * <p>
+    * Sets the number of quasi-Monte Carlo replicates from a command line value.
+    * </p>
+    *
+    * <p>
+    * The flag switches to console mode, where the estimate runs. Values below
+    * {@value QuasiMonteCarloEstimate#MIN_REPLICATES} are logged and replaced
+    * with the default.
+    * </p>
+    *
+    * @param replicatesText the replicate count, or empty for the default
+    */
+   private static void setQmcReplicates(String replicatesText) {
+      qmcReplicates = QuasiMonteCarloEstimate.DEFAULT_REPLICATES;
+      consoleMode = true;
+      if (replicatesText.isBlank()) {
+         return;
+      }
+      try {
+         int replicates = Integer.parseInt(replicatesText.trim());
+         if (replicates >= QuasiMonteCarloEstimate.MIN_REPLICATES) {
+            qmcReplicates = replicates;
+            return;
+         }
+      } catch (NumberFormatException e) {
+         // Logged below
+      }
+      logger.log(Level.WARNING, "Ignoring invalid replicate count: {0}", replicatesText);
+   }
+
+   /**
+    * <p>
+    * Sets the job seed from a command line value.
+    * </p>
+    *
+    * <p>
+    * Invalid seeds are logged and ignored, so the run falls back to a fresh
+    * random seed.
+    * </p>
+    *
+    * @param seedText the seed as a 64-bit integer
+    */
+   private static void setJobSeed(String seedText) {
+      try {
+         jobSeed = SimulationRandom.parseJobSeed(seedText);
+      } catch (NumberFormatException e) {
+         logger.log(Level.WARNING, "Ignoring invalid seed: {0}", seedText);
+      }
+   }
+
+   /**
+    * <p>
+    * Sets the index of the first match to simulate from a command line value.
+    * </p>
+    *
+    * <p>
+    * Invalid or negative indices are logged and ignored, so the run starts at
+    * match 0.
+    * </p>
+    *
+    * @param indexText the match index
+    */
+   private static void setStartMatchIndex(String indexText) {
+      try {
+         long index = Long.parseLong(indexText.trim());
+         if (index >= 0) {
+            startMatchIndex = index;
+            return;
+         }
+      } catch (NumberFormatException e) {
+         // Logged below
+      }
+      logger.log(Level.WARNING, "Ignoring invalid start match: {0}", indexText);
+   }
+
    /**
     * <p>
     * Main method for the Valorant Match Simulator application.
@@ -677,12 +1494,68 @@ public class Main {
     * </ul>
     *
     * <p>
+    * A console run can be repeated exactly by passing the seed it printed with
+    * {@code --seed=<number>}, on any number of threads. An interrupted run can
+    * be finished by also passing {@code --start-match=<index>} with the first
+    * match index it did not complete.
+    * </p>
+    *
+    * <p>
+    * {@code --counters=<count>} replaces the match setup in console mode with a
+    * search for the best comps against one team. {@code --matrix=<file>} runs
+    * a matchup matrix job for the comps in a file without any prompts.
+    * </p>
+    *
+    * <p>
+    * Fast console runs from match 0 are saved to a result store in the user's
+    * home directory and continued from it on the next run of the same
+    * matchup. {@code --store=<file>} uses another store and
+    * {@code --store=none} turns it off.
+    * </p>
+    *
+    * <p>
+    * {@code --catalog=<file>} replaces the built-in agent stats and map balance
+    * with the ones in a catalog file (see {@link AgentCatalog}), in both the
+    * console and the GUI. The GUI also watches the file and applies changes
+    * saved to it to the next simulation without restarting.
+    * {@code --compare-catalogs=<file>[,<file>...]} simulates one matchup under
+    * the active catalog and each of the files on common random numbers and
+    * reports the differences in win rate. {@code --compare-comps} does the
+    * same for two candidate comps against one enemy comp.
+    * </p>
+    *
+    * <p>
+    * {@code --variance-reduction=<techniques>} estimates fast console runs
+    * with antithetic outcome draws, stratified style rolls and a control
+    * variate, in any combination (see {@link VarianceReducedEstimate}), and
+    * reports how many plain matches the estimate is worth. It starts the
+    * console, and is ignored with a warning if the run chosen there is not a
+    * fast one.
+    * {@code --qmc[=<replicates>]} plays fast console runs on independently
+    * scrambled Sobol points instead (see {@link QuasiMonteCarloEstimate}),
+    * which reaches the same precision with far fewer matches. It also starts
+    * the console, is ignored the same way, and takes precedence over
+    * {@code --variance-reduction=}.
+    * </p>
+    *
+    * <p>
     * If GUI launch fails (e.g., due to module access or native access issues),
     * the application logs the failure and automatically falls back to console
     * mode.
     * </p>
     *
-    * @param args Command line arguments (use {@code --console} for console mode)
+    * @param args Command line arguments (use {@code --console} for console
+    *             mode, {@code --seed=<number>} for a fixed job seed,
+    *             {@code --start-match=<index>} to start at a later match,
+    *             {@code --counters=<count>} for a counter search,
+    *             {@code --matrix=<file>} for a matchup matrix,
+    *             {@code --store=<file>} for the result store,
+    *             {@code --catalog=<file>} for an agent catalog and
+    *             {@code --compare-catalogs=<files>} for a catalog
+    *             comparison, {@code --compare-comps} for a comp
+    *             comparison, {@code --variance-reduction=<techniques>}
+    *             for variance reduced fast runs and {@code --qmc} for
+    *             quasi-Monte Carlo fast runs)
     */
    public static void main(String[] args) {
       // Debug: Print arguments received
@@ -694,7 +1567,30 @@ public class Main {
             if ("--console".equalsIgnoreCase(arg)) {
                consoleMode = true;
                System.out.println("Console mode detected!");
-               break;
+            } else if (arg.toLowerCase().startsWith("--seed=")) {
+               setJobSeed(arg.substring("--seed=".length()));
+            } else if (arg.toLowerCase().startsWith("--start-match=")) {
+               setStartMatchIndex(arg.substring("--start-match=".length()));
+            } else if (arg.toLowerCase().startsWith("--counters=")) {
+               setCounterCount(arg.substring("--counters=".length()));
+            } else if (arg.toLowerCase().startsWith("--matrix=")) {
+               matrixCompFile = arg.substring("--matrix=".length());
+               consoleMode = true;
+            } else if (arg.toLowerCase().startsWith("--store=")) {
+               setResultStorePath(arg.substring("--store=".length()));
+            } else if (arg.toLowerCase().startsWith("--catalog=")) {
+               loadCatalog(arg.substring("--catalog=".length()));
+            } else if (arg.toLowerCase().startsWith("--compare-catalogs=")) {
+               setComparisonCatalogFiles(arg.substring("--compare-catalogs=".length()));
+            } else if ("--compare-comps".equalsIgnoreCase(arg)) {
+               compComparison = true;
+               consoleMode = true;
+            } else if (arg.toLowerCase().startsWith("--variance-reduction=")) {
+               setVarianceTechniques(arg.substring("--variance-reduction=".length()));
+            } else if ("--qmc".equalsIgnoreCase(arg)) {
+               setQmcReplicates("");
+            } else if (arg.toLowerCase().startsWith("--qmc=")) {
+               setQmcReplicates(arg.substring("--qmc=".length()));
             }
          }
       }
@@ -709,4 +1605,4 @@ public class Main {
          }
       }
    }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.simulator;
+
+/**
+ * <p>
+ * Immutable result of an exact match probability calculation.
+ * </p>
+ *
+ * <p>
+ * Holds the per-side round win probabilities the calculation started from,
+ * the resulting match win probability, and the full distributions of
+ * halftime and final scorelines. Scoreline probabilities are indexed as
+ * described in {@link Scoreline}.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see MatchProbabilitySolver
+ * @see Scoreline
+ */
+
+public final class MatchProbabilityResult {
+   private final double team1AttackRoundWinProbability;
+   private final double team1DefenseRoundWinProbability;
+   private final double team1MatchWinProbability;
+   private final double overtimeProbability;
+   private final double[] halftimeProbabilities;
+   private final double[] scorelineProbabilities;
+
+   /**
+    * Constructs a new result. The arrays are copied.
+    *
+    * @param team1AttackRoundWinProbability  team 1's round win probability while
+    *                                        attacking
+    * @param team1DefenseRoundWinProbability team 1's round win probability while
+    *                                        defending
+    * @param team1MatchWinProbability        team 1's match win probability
+    * @param overtimeProbability             probability that the match reaches
+    *                                        12-12
+    * @param halftimeProbabilities           probability of each halftime score,
+    *                                        indexed by team 1's first half rounds
+    * @param scorelineProbabilities          probability of each final scoreline
+    *                                        bucket
+    */
+   public MatchProbabilityResult(double team1AttackRoundWinProbability, double team1DefenseRoundWinProbability,
+         double team1MatchWinProbability, double overtimeProbability, double[] halftimeProbabilities,
+         double[] scorelineProbabilities) {
+      this.team1AttackRoundWinProbability = team1AttackRoundWinProbability;
+      this.team1DefenseRoundWinProbability = team1DefenseRoundWinProbability;
+      this.team1MatchWinProbability = team1MatchWinProbability;
+      this.overtimeProbability = overtimeProbability;
+      this.halftimeProbabilities = halftimeProbabilities.clone();
+      this.scorelineProbabilities = scorelineProbabilities.clone();
+   }
+
+   /**
+    * Gets team 1's probability of winning a round while attacking.
+    *
+    * @return the round win probability (0-1)
+    */
+   public double getTeam1AttackRoundWinProbability() {
+      return team1AttackRoundWinProbability;
+   }
+
+   /**
+    * Gets team 1's probability of winning a round while defending.
+    *
+    * @return the round win probability (0-1)
+    */
+   public double getTeam1DefenseRoundWinProbability() {
+      return team1DefenseRoundWinProbability;
+   }
+
+   /**
+    * Gets team 1's probability of winning the match.
+    *
+    * @return the match win probability (0-1)
+    */
+   public double getTeam1MatchWinProbability() {
+      return team1MatchWinProbability;
+   }
+
+   /**
+    * Gets team 2's probability of winning the match.
+    *
+    * @return the match win probability (0-1)
+    */
+   public double getTeam2MatchWinProbability() {
+      return 1.0 - team1MatchWinProbability;
+   }
+
+   /**
+    * Gets the probability that the match goes to overtime.
+    *
+    * @return the probability of reaching 12-12 (0-1)
+    */
+   public double getOvertimeProbability() {
+      return overtimeProbability;
+   }
+
+   /**
+    * Gets the probability of a halftime score.
+    *
+    * @param team1Rounds the rounds team 1 won in the first half (0-12)
+    * @return the probability of that halftime score
+    */
+   public double getHalftimeProbability(int team1Rounds) {
+      return halftimeProbabilities[team1Rounds];
+   }
+
+   /**
+    * Gets the probability of a final scoreline bucket.
+    *
+    * @param index the bucket index, see {@link Scoreline}
+    * @return the probability of that scoreline
+    */
+   public double getScorelineProbability(int index) {
+      return scorelineProbabilities[index];
+   }
+
+   /**
+    * Returns the expected number of rounds won by team 1, treating the pooled
+    * overtime bucket as its shortest score.
+    *
+    * @return the expected team 1 rounds per match
+    */
+   public double getExpectedTeam1Rounds() {
+      double expected = 0;
+      for (int i = 0; i < Scoreline.BUCKETS; i++) {
+         expected += scorelineProbabilities[i] * Scoreline.team1Rounds(i);
+      }
+      return expected;
+   }
+
+   /**
+    * Returns the expected number of rounds won by team 2, treating the pooled
+    * overtime bucket as its shortest score.
+    *
+    * @return the expected team 2 rounds per match
+    */
+   public double getExpectedTeam2Rounds() {
+      double expected = 0;
+      for (int i = 0; i < Scoreline.BUCKETS; i++) {
+         expected += scorelineProbabilities[i] * Scoreline.team2Rounds(i);
+      }
+      return expected;
+   }
+}
@@ -0,0 +1,361 @@
+package com.simulator;
+
+/**
+ * <p>
+ * Computes exact match outcome probabilities instead of estimating them with
+ * Monte Carlo simulation.
+ * </p>
+ *
+ * <p>
+ * Rounds in a match are independent once the attacking side is known, so a
+ * match is a Markov chain over (team 1 rounds, team 2 rounds, attacking team).
+ * This class integrates the style rolls and stylistic swing of a round into a
+ * single round win probability per side, then walks the chain with dynamic
+ * programming:
+ * </p>
+ * <ul>
+ * <li>First half: 12 rounds with the starting attacker (a binomial
+ * distribution)</li>
+ * <li>Second half: sides swapped, played until a team reaches 13 rounds or
+ * the score is 12-12</li>
+ * <li>Overtime: sides alternate every round until a team leads by 2, which is
+ * solved in closed form</li>
+ * </ul>
+ *
+ * <p>
+ * The result matches what {@link MatchSimulator#simulateMatchFast()} converges
+ * to and takes microseconds to compute.
+ * </p>
+ *
+ * <p>
+ * This class cannot be instantiated and only provides static methods.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see MatchSimulator
+ * @see MatchProbabilityResult
+ */
+
+public final class MatchProbabilitySolver {
+   private static final int ROUNDS_PER_HALF = 12;
+   private static final int ROUNDS_TO_WIN = 13;
+   private static final double FIFTY_FIFTY_CHANCE = 50.0;
+   private static final double MIN_STYLISTIC_SWING = 1.0;
+   private static final double MAX_STYLISTIC_SWING = 5.0;
+
+   /**
+    * Private constructor to prevent instantiation of this utility class.
+    */
+   private MatchProbabilitySolver() {
+      // Private constructor to prevent instantiation
+   }
+
+   /**
+    * Calculates team 1's probability of winning a single round.
+    *
+    * This mirrors {@code MatchSimulator.calculateTeam1Advantage()} with the
+    * style rolls and the uniform 1-5% stylistic swing integrated out, including
+    * the sign the simulator applies to the swing while team 2 is attacking.
+    * Chances outside 0-100% are clamped the same way the simulator's outcome
+    * roll clamps them.
+    *
+    * @param team1CounterProbability probability that team 1's style counters
+    *                                team 2's style
+    * @param team2CounterProbability probability that team 2's style counters
+    *                                team 1's style
+    * @param relativePowerAdvantage  team 1's relative power advantage (percent)
+    * @param attackerMapAdvantage    the map's attacker advantage (percent)
+    * @param attackingTeam           the attacking team (1 or 2)
+    * @return team 1's round win probability (0-1)
+    * @throws IllegalArgumentException if attackingTeam is not 1 or 2
+    */
+   public static double roundWinProbability(double team1CounterProbability, double team2CounterProbability,
+         double relativePowerAdvantage, double attackerMapAdvantage, int attackingTeam) {
+      double advantage;
+      double team1CounterSign;
+      switch (attackingTeam) {
+         case 1 -> {
+            advantage = relativePowerAdvantage + attackerMapAdvantage;
+            team1CounterSign = 1;
+         }
+         case 2 -> {
+            advantage = relativePowerAdvantage - attackerMapAdvantage;
+            team1CounterSign = -1;
+         }
+         default -> throw new IllegalArgumentException("Team must be 1 or 2, got: " + attackingTeam);
+      }
+
+      double center = (FIFTY_FIFTY_CHANCE + advantage) / 100.0;
+      double neutralProbability = 1.0 - team1CounterProbability - team2CounterProbability;
+      return neutralProbability * clamp(center)
+            + team1CounterProbability * expectedSwingChance(center, team1CounterSign)
+            + team2CounterProbability * expectedSwingChance(center, -team1CounterSign);
+   }
+
+   /**
+    * Solves a compiled matchup exactly.
+    *
+    * @param plan the compiled matchup
+    * @return the match win probability with halftime and scoreline
+    *         distributions
+    */
+   public static MatchProbabilityResult solve(MatchupPlan plan) {
+      return solve(roundWinProbability(plan, 1), roundWinProbability(plan, 2), plan.getStartingAttacker());
+   }
+
+   /**
+    * Calculates team 1's probability of winning a round of a compiled matchup.
+    *
+    * @param plan          the compiled matchup
+    * @param attackingTeam the attacking team (1 or 2)
+    * @return team 1's round win probability (0-1)
+    */
+   public static double roundWinProbability(MatchupPlan plan, int attackingTeam) {
+      return roundWinProbability(plan.getTeam1CounterProbability(), plan.getTeam2CounterProbability(),
+            plan.getRelativePowerAdvantage(), plan.getAttackerMapAdvantage(), attackingTeam);
+   }
+
+   /**
+    * Solves a match exactly from team 1's per-side round win probabilities.
+    *
+    * @param team1AttackRoundWinProbability  team 1's round win probability while
+    *                                        attacking
+    * @param team1DefenseRoundWinProbability team 1's round win probability while
+    *                                        defending
+    * @param startingAttacker                the team that attacks in the first
+    *                                        half (1 or 2)
+    * @return the match win probability with halftime and scoreline
+    *         distributions
+    * @throws IllegalArgumentException if a probability is outside 0-1 or the
+    *                                  starting attacker is not 1 or 2
+    * @throws IllegalStateException    if overtime can be reached but never
+    *                                  decided
+    */
+   public static MatchProbabilityResult solve(double team1AttackRoundWinProbability,
+         double team1DefenseRoundWinProbability, int startingAttacker) {
+      checkProbability(team1AttackRoundWinProbability);
+      checkProbability(team1DefenseRoundWinProbability);
+      double firstHalf = switch (startingAttacker) {
+         case 1 -> team1AttackRoundWinProbability;
+         case 2 -> team1DefenseRoundWinProbability;
+         default -> throw new IllegalArgumentException("Team must be 1 or 2, got: " + startingAttacker);
+      };
+      double secondHalf = (startingAttacker == 1) ? team1DefenseRoundWinProbability : team1AttackRoundWinProbability;
+
+      double[] halftime = binomial(ROUNDS_PER_HALF, firstHalf);
+      double[] scorelines = new double[Scoreline.BUCKETS];
+
+      // Second half: walk the score grid in order of rounds played
+      double[][] state = new double[ROUNDS_TO_WIN][ROUNDS_TO_WIN];
+      for (int h = 0; h <= ROUNDS_PER_HALF; h++) {
+         state[h][ROUNDS_PER_HALF - h] = halftime[h];
+      }
+      for (int played = ROUNDS_PER_HALF; played < 2 * ROUNDS_PER_HALF; played++) {
+         int minTeam1 = Math.max(0, played - ROUNDS_PER_HALF);
+         int maxTeam1 = Math.min(ROUNDS_PER_HALF, played);
+         for (int t1 = minTeam1; t1 <= maxTeam1; t1++) {
+            int t2 = played - t1;
+            double p = state[t1][t2];
+            if (p == 0) {
+               continue;
+            }
+            double win = p * secondHalf;
+            double loss = p - win;
+            if (t1 + 1 == ROUNDS_TO_WIN) {
+               scorelines[Scoreline.index(ROUNDS_TO_WIN, t2)] += win;
+            } else {
+               state[t1 + 1][t2] += win;
+            }
+            if (t2 + 1 == ROUNDS_TO_WIN) {
+               scorelines[Scoreline.index(t1, ROUNDS_TO_WIN)] += loss;
+            } else {
+               state[t1][t2 + 1] += loss;
+            }
+         }
+      }
+
+      double regulationWin = 0;
+      for (int i = 0; i < Scoreline.BUCKETS; i++) {
+         if (Scoreline.isTeam1Win(i)) {
+            regulationWin += scorelines[i];
+         }
+      }
+
+      // Overtime: each pair of rounds has one round per side, tied pairs repeat
+      double overtime = state[ROUNDS_PER_HALF][ROUNDS_PER_HALF];
+      double matchWin = regulationWin;
+      if (overtime > 0) {
+         double pairWin = firstHalf * secondHalf;
+         double pairLoss = (1.0 - firstHalf) * (1.0 - secondHalf);
+         double decided = pairWin + pairLoss;
+         if (decided <= 0) {
+            throw new IllegalStateException("Overtime can be reached but never decided with these round odds.");
+         }
+         double tied = 1.0 - decided;
+         double reach = overtime;
+         for (int length = 0; length < Scoreline.OVERTIME_LENGTHS - 1; length++) {
+            scorelines[Scoreline.overtimeIndex(length, true)] += reach * pairWin;
+            scorelines[Scoreline.overtimeIndex(length, false)] += reach * pairLoss;
+            reach *= tied;
+         }
+         // The last bucket pools every longer overtime (geometric tail)
+         scorelines[Scoreline.overtimeIndex(Scoreline.OVERTIME_LENGTHS - 1, true)] += reach * pairWin / decided;
+         scorelines[Scoreline.overtimeIndex(Scoreline.OVERTIME_LENGTHS - 1, false)] += reach * pairLoss / decided;
+         matchWin += overtime * pairWin / decided;
+      }
+
+      return new MatchProbabilityResult(team1AttackRoundWinProbability, team1DefenseRoundWinProbability, matchWin,
+            overtime, halftime, scorelines);
+   }
+
+   /**
+    * Computes only team 1's match win probability, without the halftime and
+    * scoreline distributions.
+    *
+    * Gives the same result as {@code solve(...).getTeam1MatchWinProbability()}
+    * (up to rounding) at a fraction of the cost, for jobs that solve millions
+    * of matchups. Each halftime score is resolved in closed form: team 1 wins in
+    * regulation if it takes its remaining rounds before team 2 takes its own
+    * (a negative binomial sum), and reaches overtime with the binomial
+    * probability of splitting the second half evenly.
+    *
+    * @param team1AttackRoundWinProbability  team 1's round win probability while
+    *                                        attacking
+    * @param team1DefenseRoundWinProbability team 1's round win probability while
+    *                                        defending
+    * @param startingAttacker                the team that attacks in the first
+    *                                        half (1 or 2)
+    * @return team 1's match win probability (0-1)
+    * @throws IllegalArgumentException if a probability is outside 0-1 or the
+    *                                  starting attacker is not 1 or 2
+    * @throws IllegalStateException    if overtime can be reached but never
+    *                                  decided
+    */
+   public static double matchWinProbability(double team1AttackRoundWinProbability,
+         double team1DefenseRoundWinProbability, int startingAttacker) {
+      checkProbability(team1AttackRoundWinProbability);
+      checkProbability(team1DefenseRoundWinProbability);
+      double firstHalf = switch (startingAttacker) {
+         case 1 -> team1AttackRoundWinProbability;
+         case 2 -> team1DefenseRoundWinProbability;
+         default -> throw new IllegalArgumentException("Team must be 1 or 2, got: " + startingAttacker);
+      };
+      double secondHalf = (startingAttacker == 1) ? team1DefenseRoundWinProbability : team1AttackRoundWinProbability;
+      double secondHalfLoss = 1.0 - secondHalf;
+      double pairWin = firstHalf * secondHalf;
+      double pairLoss = (1.0 - firstHalf) * secondHalfLoss;
+      double decided = pairWin + pairLoss;
+
+      // Powers of the per-round odds, indexed by exponent
+      double[] firstWin = new double[ROUNDS_TO_WIN + 1];
+      double[] firstLoss = new double[ROUNDS_TO_WIN + 1];
+      double[] secondWin = new double[ROUNDS_TO_WIN + 1];
+      double[] secondLoss = new double[ROUNDS_TO_WIN + 1];
+      firstWin[0] = firstLoss[0] = secondWin[0] = secondLoss[0] = 1;
+      for (int e = 1; e <= ROUNDS_TO_WIN; e++) {
+         firstWin[e] = firstWin[e - 1] * firstHalf;
+         firstLoss[e] = firstLoss[e - 1] * (1.0 - firstHalf);
+         secondWin[e] = secondWin[e - 1] * secondHalf;
+         secondLoss[e] = secondLoss[e - 1] * secondHalfLoss;
+      }
+
+      double matchWin = 0;
+      double coefficient = 1;
+      for (int h = 0; h <= ROUNDS_PER_HALF; h++) {
+         double halftime = coefficient * firstWin[h] * firstLoss[ROUNDS_PER_HALF - h];
+         // Team 1 needs 13 - h more rounds while team 2 takes at most h - 1 of
+         // its own, since 12-12 goes to overtime
+         int needed = ROUNDS_TO_WIN - h;
+         double race = 0;
+         double ways = 1;
+         for (int k = 0; k < h; k++) {
+            race += ways * secondLoss[k];
+            ways = ways * (needed + k) / (k + 1);
+         }
+         double regulationWin = secondWin[needed] * race;
+         double overtime = coefficient * secondWin[ROUNDS_PER_HALF - h] * secondLoss[h];
+         if (overtime > 0) {
+            if (decided <= 0) {
+               throw new IllegalStateException("Overtime can be reached but never decided with these round odds.");
+            }
+            regulationWin += overtime * pairWin / decided;
+         }
+         matchWin += halftime * regulationWin;
+         coefficient = coefficient * (ROUNDS_PER_HALF - h) / (h + 1);
+      }
+      return matchWin;
+   }
+
+   /**
+    * Returns the binomial distribution of successes in a number of trials.
+    *
+    * @param trials      the number of trials
+    * @param probability the success probability of each trial
+    * @return an array where index k holds the probability of k successes
+    */
+   static double[] binomial(int trials, double probability) {
+      double[] distribution = new double[trials + 1];
+      double coefficient = 1;
+      for (int k = 0; k <= trials; k++) {
+         distribution[k] = coefficient * Math.pow(probability, k) * Math.pow(1.0 - probability, trials - k);
+         coefficient = coefficient * (trials - k) / (k + 1);
+      }
+      return distribution;
+   }
+
+   /**
+    * Returns the expected round win chance when a uniform stylistic swing of
+    * 1-5% is applied in the given direction.
+    *
+    * @param center the round win chance before the swing (0-1 scale, unclamped)
+    * @param sign   +1 if the swing favors team 1, -1 if it favors team 2
+    * @return the expected clamped win chance
+    */
+   private static double expectedSwingChance(double center, double sign) {
+      double a = center + sign * MIN_STYLISTIC_SWING / 100.0;
+      double b = center + sign * MAX_STYLISTIC_SWING / 100.0;
+      double low = Math.min(a, b);
+      double high = Math.max(a, b);
+      return (clampIntegral(high) - clampIntegral(low)) / (high - low);
+   }
+
+   /**
+    * Returns the antiderivative of the clamp-to-[0, 1] function.
+    *
+    * @param x the upper integration bound
+    * @return the integral of clamp(t) from 0 to x (0 for negative x)
+    */
+   private static double clampIntegral(double x) {
+      if (x <= 0) {
+         return 0;
+      }
+      if (x <= 1) {
+         return x * x / 2.0;
+      }
+      return 0.5 + (x - 1.0);
+   }
+
+   /**
+    * Clamps a chance to the 0-1 range, matching how a uniform outcome roll
+    * treats chances below 0% or above 100%.
+    *
+    * @param chance the chance to clamp
+    * @return the clamped chance
+    */
+   private static double clamp(double chance) {
+      return Math.max(0.0, Math.min(1.0, chance));
+   }
+
+   /**
+    * Validates that a value is a probability.
+    *
+    * @param probability the value to check
+    * @throws IllegalArgumentException if the value is outside 0-1 or NaN
+    */
+   private static void checkProbability(double probability) {
+      if (!(probability >= 0.0 && probability <= 1.0)) {
+         throw new IllegalArgumentException("Round win probability must be between 0 and 1, got: " + probability);
+      }
+   }
+}
@@ -0,0 +1,480 @@
+package com.simulator;
+
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Bounded in-memory cache of Monte Carlo matchup results.
+ * </p>
+ *
+ * <p>
+ * Results are keyed by both teams' agent sets, the map, the starting attacker
+ * and the version of the agent catalog the matchup was compiled from. Agent
+ * sets are {@link CompTables} comp masks, so the order the agents were picked
+ * in does not matter. The teams themselves stay in order, since the model is
+ * not symmetric between team 1 and team 2.
+ * </p>
+ *
+ * <p>
+ * Each entry keeps the job seed and the merged statistics of matches 0
+ * through n - 1 of that job. A request for at most n matches is answered from
+ * the entry without simulating. A request for more matches only simulates
+ * matches n onward and merges them into the entry, which gives exactly the
+ * statistics of one longer run with the same seed.
+ * </p>
+ *
+ * <p>
+ * When the cache is full the least recently used entry is evicted. Lookups
+ * and updates are synchronized, but simulations run outside the lock, so
+ * several jobs can use the cache at once. If two jobs extend the same entry,
+ * the one with more matches is kept.
+ * </p>
+ *
+ * <p>
+ * When a new catalog becomes active, {@link #invalidate(CompTables, CompTables)}
+ * drops only the entries of the old catalog whose matchups the new one
+ * changed. Entries whose teams and map have the same statistics in both
+ * catalogs are kept under the new catalog's version.
+ * </p>
+ *
+ * <p>
+ * A cache can be backed by a {@link MatchResultStore}. Matchups that are not
+ * in memory are then looked up in the store, and every newly simulated result
+ * is also appended to it, so results outlive the process.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see SimulationScheduler
+ * @see CompTables
+ * @see MatchResultStore
+ */
+
+public final class MatchResultCache {
+   private static final Logger logger = Logger.getLogger(MatchResultCache.class.getName());
+   private final int capacity;
+   private final MatchResultStore store;
+   private final Map<Key, Entry> entries;
+   private long hits;
+   private long misses;
+   private long refinements;
+   private long evictions;
+   private long loads;
+   private long invalidations;
+
+   /**
+    * Identifies a matchup independently of agent order.
+    *
+    * @param team1Comp        team 1's comp mask
+    * @param team2Comp        team 2's comp mask
+    * @param map              the map index
+    * @param startingAttacker the team that attacks first (1 or 2)
+    * @param catalogVersion   the version of the agent catalog
+    */
+   public record Key(int team1Comp, int team2Comp, int map, int startingAttacker, long catalogVersion) {
+   }
+
+   /**
+    * The answer to a cached request.
+    *
+    * @param jobSeed       the seed of the job the statistics belong to
+    * @param statistics    the statistics of matches 0 through
+    *                      statistics.getTotalMatches() - 1 of the job
+    * @param reusedMatches the number of matches taken from the cache instead of
+    *                      simulated
+    */
+   public record Result(long jobSeed, SimulationStatisticsCollector statistics, long reusedMatches) {
+   }
+
+   /**
+    * A job seed and the statistics of the job's first matches.
+    */
+   private record Entry(long jobSeed, SimulationStatisticsCollector statistics) {
+   }
+
+   /**
+    * Constructs a new empty cache that only keeps results in memory.
+    *
+    * @param capacity the most matchups to keep
+    * @throws IllegalArgumentException if the capacity is less than 1
+    */
+   public MatchResultCache(int capacity) {
+      this(capacity, null);
+   }
+
+   /**
+    * Constructs a new empty cache backed by a persistent store.
+    *
+    * @param capacity the most matchups to keep in memory
+    * @param store    the store to read missing matchups from and write new
+    *                 results to, or null for none
+    * @throws IllegalArgumentException if the capacity is less than 1
+    */
+   public MatchResultCache(int capacity, MatchResultStore store) {
+      if (capacity < 1) {
+         throw new IllegalArgumentException("Cache capacity must be at least 1, got: " + capacity);
+      }
+      this.capacity = capacity;
+      this.store = store;
+      entries = new LinkedHashMap<>(16, 0.75f, true) {
+         private static final long serialVersionUID = 1L;
+
+         @Override
+         protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > MatchResultCache.this.capacity) {
+               evictions++;
+               return true;
+            }
+            return false;
+         }
+      };
+   }
+
+   /**
+    * Builds the key of a matchup between two full teams.
+    *
+    * @param tables           the agent tables of the current catalog
+    * @param team1            team 1
+    * @param team2            team 2
+    * @param map              the map name
+    * @param startingAttacker the team that attacks first (1 or 2)
+    * @return the key, or null if either team is not 5 distinct agents of the
+    *         tables
+    * @throws IllegalArgumentException if the tables or teams are null
+    */
+   public static Key key(CompTables tables, TeamComp team1, TeamComp team2, String map, int startingAttacker) {
+      if (tables == null || team1 == null || team2 == null) {
+         throw new IllegalArgumentException("Invalid input in MatchResultCache. Tables and teams cannot be null.");
+      }
+      int team1Comp = compMask(tables, team1);
+      int team2Comp = compMask(tables, team2);
+      if (!tables.isValidComp(team1Comp) || !tables.isValidComp(team2Comp)) {
+         return null;
+      }
+      return new Key(team1Comp, team2Comp, tables.getMapIndex(map), startingAttacker, tables.getFingerprint());
+   }
+
+   /**
+    * Gets the statistics of at least a number of matches of a matchup,
+    * simulating only what the cache does not already hold.
+    *
+    * <p>
+    * Without a requested seed any cached entry is used. With a requested seed
+    * only an entry of that seed is used; otherwise the job is simulated from
+    * the start and replaces the entry.
+    * </p>
+    *
+    * @param key           the matchup's key
+    * @param plan          the compiled matchup, used when matches have to be
+    *                      simulated
+    * @param requestedSeed the job seed the caller asked for, or null for any
+    * @param matchCount    the number of matches wanted
+    * @param scheduler     the scheduler that simulates missing matches
+    * @param progress      receives the number of matches each finished piece
+    *                      simulated, called from worker threads; may be null
+    * @return the statistics, which may cover more matches than requested if
+    *         the cache already held them
+    * @throws IllegalArgumentException if the key, plan or scheduler is null or
+    *                                  the match count is negative
+    */
+   public Result run(Key key, MatchupPlan plan, Long requestedSeed, long matchCount, SimulationScheduler scheduler,
+         LongConsumer progress) {
+      if (key == null || plan == null || scheduler == null) {
+         throw new IllegalArgumentException(
+               "Invalid input in MatchResultCache. Key, plan and scheduler cannot be null.");
+      }
+      if (matchCount < 0) {
+         throw new IllegalArgumentException("Match count cannot be negative, got: " + matchCount);
+      }
+      Entry cached;
+      synchronized (this) {
+         cached = entries.get(key);
+         if (cached == null) {
+            cached = load(key);
+         }
+         if (cached != null && requestedSeed != null && cached.jobSeed() != requestedSeed) {
+            cached = null;
+         }
+         if (cached == null) {
+            misses++;
+         } else if (cached.statistics().getTotalMatches() >= matchCount) {
+            hits++;
+            return new Result(cached.jobSeed(), copy(cached.statistics()), cached.statistics().getTotalMatches());
+         } else {
+            refinements++;
+         }
+      }
+
+      // Simulate the matches the cache does not hold, starting after the cached
+      // ones so the merged statistics equal one longer run
+      long seed = (cached != null) ? cached.jobSeed()
+            : (requestedSeed != null) ? requestedSeed : SimulationRandom.newJobSeed();
+      SimulationStatisticsCollector statistics = new SimulationStatisticsCollector();
+      long reused = 0;
+      if (cached != null) {
+         statistics.merge(cached.statistics());
+         reused = statistics.getTotalMatches();
+      }
+      statistics.merge(scheduler.run(plan, seed, reused, matchCount - reused, true, progress));
+
+      synchronized (this) {
+         Entry current = entries.get(key);
+         if (current == null || current.jobSeed() != seed
+               || current.statistics().getTotalMatches() < statistics.getTotalMatches()) {
+            entries.put(key, new Entry(seed, copy(statistics)));
+            save(key, seed, statistics);
+         }
+      }
+      return new Result(seed, statistics, reused);
+   }
+
+   /**
+    * Moves the entries of one catalog version to another after a balance
+    * change, dropping only the matchups the change affected.
+    *
+    * <p>
+    * An entry of the previous tables is kept, under the current tables'
+    * version, when both of its comps consist of the same agents with the
+    * same totals in both tables and its map has the same attacker advantage,
+    * since its statistics are then exactly what the current catalog would
+    * produce. Maps are matched by name, so a kept entry moves to its map's
+    * index in the current tables. Every other entry of the previous tables is removed. Entries of
+    * any other version are left alone and age out of the cache.
+    * </p>
+    *
+    * @param previous the tables of the catalog that was active
+    * @param current  the tables of the catalog that is active now
+    * @return the number of entries removed
+    * @throws IllegalArgumentException if either tables are null
+    */
+   public synchronized int invalidate(CompTables previous, CompTables current) {
+      if (previous == null || current == null) {
+         throw new IllegalArgumentException("Invalid input in MatchResultCache. Tables cannot be null.");
+      }
+      long previousVersion = previous.getFingerprint();
+      long currentVersion = current.getFingerprint();
+      if (previousVersion == currentVersion) {
+         return 0;
+      }
+      int removed = 0;
+      Map<Key, Entry> kept = new LinkedHashMap<>();
+      for (Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator(); it.hasNext();) {
+         Map.Entry<Key, Entry> cached = it.next();
+         Key key = cached.getKey();
+         if (key.catalogVersion() != previousVersion) {
+            continue;
+         }
+         it.remove();
+         int currentMap = (key.map() < previous.getMapCount()) ? current.getMapIndex(previous.getMapName(key.map()))
+               : -1;
+         if (currentMap >= 0 && isUnchanged(key, currentMap, previous, current)) {
+            kept.put(new Key(key.team1Comp(), key.team2Comp(), currentMap, key.startingAttacker(), currentVersion),
+                  cached.getValue());
+         } else {
+            removed++;
+         }
+      }
+      for (Map.Entry<Key, Entry> moved : kept.entrySet()) {
+         entries.putIfAbsent(moved.getKey(), moved.getValue());
+         save(moved.getKey(), moved.getValue().jobSeed(), moved.getValue().statistics());
+      }
+      invalidations += removed;
+      return removed;
+   }
+
+   /**
+    * Removes every entry.
+    */
+   public synchronized void clear() {
+      entries.clear();
+   }
+
+   /************* Getter methods *************/
+   /**
+    * Gets the most matchups the cache keeps.
+    *
+    * @return the capacity
+    */
+   public int getCapacity() {
+      return capacity;
+   }
+
+   /**
+    * Gets the number of matchups currently cached.
+    *
+    * @return the entry count
+    */
+   public synchronized int getSize() {
+      return entries.size();
+   }
+
+   /**
+    * Gets the number of requests answered without simulating.
+    *
+    * @return the hit count
+    */
+   public synchronized long getHits() {
+      return hits;
+   }
+
+   /**
+    * Gets the number of requests that had to be simulated from the start.
+    *
+    * @return the miss count
+    */
+   public synchronized long getMisses() {
+      return misses;
+   }
+
+   /**
+    * Gets the number of requests that extended a cached entry with more
+    * matches.
+    *
+    * @return the refinement count
+    */
+   public synchronized long getRefinements() {
+      return refinements;
+   }
+
+   /**
+    * Gets the number of entries evicted to stay within the capacity.
+    *
+    * @return the eviction count
+    */
+   public synchronized long getEvictions() {
+      return evictions;
+   }
+
+   /**
+    * Gets the number of entries removed because a catalog change affected
+    * their matchups.
+    *
+    * @return the invalidation count
+    */
+   public synchronized long getInvalidations() {
+      return invalidations;
+   }
+
+   /**
+    * Gets the number of entries loaded from the persistent store.
+    *
+    * @return the load count
+    */
+   public synchronized long getLoads() {
+      return loads;
+   }
+
+   /************* Helper methods *************/
+   /**
+    * Loads a matchup from the store into memory. Called with the lock held.
+    *
+    * @param key the matchup's key
+    * @return the loaded entry, or null if there is no store or it does not
+    *         hold the matchup
+    */
+   private Entry load(Key key) {
+      if (store == null) {
+         return null;
+      }
+      MatchResultStore.StoredResult stored = store.get(key);
+      if (stored == null) {
+         return null;
+      }
+      loads++;
+      Entry entry = new Entry(stored.jobSeed(), stored.statistics());
+      entries.put(key, entry);
+      return entry;
+   }
+
+   /**
+    * Appends a result to the store. A store that cannot grow is logged and
+    * otherwise ignored, since the result itself is still valid.
+    *
+    * @param key        the matchup's key
+    * @param seed       the job seed
+    * @param statistics the statistics
+    */
+   private void save(Key key, long seed, SimulationStatisticsCollector statistics) {
+      if (store == null) {
+         return;
+      }
+      try {
+         store.put(key, seed, statistics);
+      } catch (UncheckedIOException e) {
+         logger.log(Level.WARNING, "Could not save result to " + store.getPath(), e);
+      }
+   }
+
+   /**
+    * Checks whether a matchup has exactly the same inputs in two tables.
+    *
+    * @param key        the matchup's key
+    * @param currentMap the index of the key's map in the current tables
+    * @param previous   the tables the key was made with
+    * @param current    the tables to compare with
+    * @return true if both comps and the map are unchanged
+    */
+   private static boolean isUnchanged(Key key, int currentMap, CompTables previous, CompTables current) {
+      return previous.getAttackerMapAdvantage(key.map()) == current.getAttackerMapAdvantage(currentMap)
+            && isUnchanged(key.team1Comp(), key.map(), currentMap, previous, current)
+            && isUnchanged(key.team2Comp(), key.map(), currentMap, previous, current);
+   }
+
+   /**
+    * Checks whether a comp has the same agents and totals on a map in two
+    * tables.
+    *
+    * @param comp        the comp mask
+    * @param previousMap the map's index in the previous tables
+    * @param currentMap  the map's index in the current tables
+    * @param previous    the tables the comp mask was made with
+    * @param current     the tables to compare with
+    * @return true if the comp is unchanged
+    */
+   private static boolean isUnchanged(int comp, int previousMap, int currentMap, CompTables previous,
+         CompTables current) {
+      return previous.isValidComp(comp) && current.isValidComp(comp)
+            && previous.agentNames(comp).equals(current.agentNames(comp))
+            && previous.compTrueAggro(comp) == current.compTrueAggro(comp)
+            && previous.compTrueControl(comp) == current.compTrueControl(comp)
+            && previous.compTrueMidrange(comp) == current.compTrueMidrange(comp)
+            && previous.compRelativePower(comp, previousMap) == current.compRelativePower(comp, currentMap);
+   }
+
+   /**
+    * Encodes a team as a comp mask without validating it.
+    *
+    * @param tables the agent tables
+    * @param team   the team
+    * @return the mask, or 0 if the team has an agent the tables do not know
+    */
+   private static int compMask(CompTables tables, TeamComp team) {
+      int comp = 0;
+      for (Agent agent : team.getTeamComp()) {
+         int index = (agent != null) ? tables.getAgentIndex(agent.getName()) : -1;
+         if (index < 0) {
+            return 0;
+         }
+         comp |= 1 << index;
+      }
+      return comp;
+   }
+
+   /**
+    * Copies a collector, so cached statistics are never shared with callers.
+    *
+    * @param statistics the collector to copy
+    * @return the copy
+    */
+   private static SimulationStatisticsCollector copy(SimulationStatisticsCollector statistics) {
+      SimulationStatisticsCollector copy = new SimulationStatisticsCollector();
+      copy.merge(statistics);
+      return copy;
+   }
+}
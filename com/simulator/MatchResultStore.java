@@ -0,0 +1,537 @@
+package com.simulator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Persistent, memory-mapped store of Monte Carlo matchup results, so results
+ * survive restarts of the console and the GUI.
+ * </p>
+ *
+ * <p>
+ * The store is two files. The data file is append-only: every record holds a
+ * {@link MatchResultCache.Key} (both comp masks, the map, the starting
+ * attacker and the catalog fingerprint), the job seed and every counter of a
+ * {@link SimulationStatisticsCollector}, including the scoreline and halftime
+ * histograms. Records have a fixed size, so record n is always at the same
+ * offset. Saving a matchup again appends a new record instead of overwriting
+ * the old one.
+ * </p>
+ *
+ * <p>
+ * The index file is an open-addressing hash table with linear probing. Each
+ * slot holds a record number plus one, or 0 when empty, and always points at
+ * the newest record of its key. The table is doubled when it is half full.
+ * The data file is the source of truth: if the index is missing, from another
+ * version or does not cover every record (for example after a crash), it is
+ * rebuilt from the records on open.
+ * </p>
+ *
+ * <p>
+ * Both files are read and written through {@link FileChannel#map} in fixed
+ * size regions, so lookups read the mapped pages directly and the store can
+ * grow past the 2 GB limit of a single mapping. Methods are synchronized, and
+ * the data file is locked while the store is open so two processes cannot
+ * append to it at once.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see MatchResultCache
+ */
+
+public final class MatchResultStore implements AutoCloseable {
+   private static final int DATA_MAGIC = 0x564D5253;
+   private static final int INDEX_MAGIC = 0x564D5249;
+   private static final int VERSION = 1;
+   private static final int HEADER_BYTES = 64;
+   // Data header layout
+   private static final int RECORD_COUNT = 16;
+   // Index header layout
+   private static final int CAPACITY = 8;
+   private static final int INDEXED_RECORDS = 16;
+   private static final int KEY_COUNT = 24;
+   // Record layout
+   private static final int TEAM1_COMP = 0;
+   private static final int TEAM2_COMP = 4;
+   private static final int MAP = 8;
+   private static final int STARTING_ATTACKER = 12;
+   private static final int CATALOG_VERSION = 16;
+   private static final int JOB_SEED = 24;
+   private static final int TEAM1_MATCH_WINS = 32;
+   private static final int TEAM2_MATCH_WINS = 40;
+   private static final int TEAM1_ROUND_WINS = 48;
+   private static final int TEAM2_ROUND_WINS = 56;
+   private static final int TEAM1_FIFTY_FIFTY_WINS = 64;
+   private static final int TEAM2_FIFTY_FIFTY_WINS = 72;
+   private static final int SCORELINES = 80;
+   private static final int HALFTIMES = SCORELINES + Long.BYTES * Scoreline.BUCKETS;
+   private static final int RECORD_BYTES = HALFTIMES + Long.BYTES * Scoreline.HALFTIME_BUCKETS;
+   private static final int RECORDS_PER_REGION = 16_384;
+   private static final long MAX_SLOTS_PER_REGION = 1L << 27;
+   private static final long INITIAL_CAPACITY = 4_096;
+   private final Path path;
+   private final FileChannel dataChannel;
+   private final FileChannel indexChannel;
+   private final FileLock lock;
+   private final MappedByteBuffer dataHeader;
+   private final MappedByteBuffer indexHeader;
+   private final MappedRegions records;
+   private MappedRegions slots;
+   private long recordCount;
+   private long capacity;
+   private long keyCount;
+
+   /**
+    * A stored job seed and the statistics of the job's first matches.
+    *
+    * @param jobSeed    the job seed
+    * @param statistics the statistics of matches 0 through
+    *                   statistics.getTotalMatches() - 1 of the job
+    */
+   public record StoredResult(long jobSeed, SimulationStatisticsCollector statistics) {
+   }
+
+   /**
+    * Opens a store, creating it if it does not exist yet.
+    *
+    * @param path the data file; the index is the same path with ".index"
+    *             appended
+    * @throws IOException if the files cannot be opened or are not a result
+    *                     store, or another process has the store open
+    */
+   private MatchResultStore(Path path) throws IOException {
+      this.path = path;
+      Path parent = path.toAbsolutePath().getParent();
+      if (parent != null) {
+         Files.createDirectories(parent);
+      }
+      dataChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+      FileChannel index = null;
+      try {
+         lock = acquireLock(dataChannel, path);
+         boolean created = dataChannel.size() == 0;
+         dataHeader = dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+         if (created) {
+            dataHeader.putInt(0, DATA_MAGIC).putInt(4, VERSION).putInt(8, RECORD_BYTES).putLong(RECORD_COUNT, 0);
+         } else if (dataHeader.getInt(0) != DATA_MAGIC || dataHeader.getInt(4) != VERSION
+               || dataHeader.getInt(8) != RECORD_BYTES) {
+            throw new IOException("Not a result store of this version: " + path);
+         }
+         recordCount = dataHeader.getLong(RECORD_COUNT);
+         records = new MappedRegions(dataChannel, HEADER_BYTES, RECORDS_PER_REGION * RECORD_BYTES);
+
+         index = FileChannel.open(path.resolveSibling(path.getFileName() + ".index"), StandardOpenOption.CREATE,
+               StandardOpenOption.READ, StandardOpenOption.WRITE);
+         indexChannel = index;
+         indexHeader = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+         capacity = indexHeader.getLong(CAPACITY);
+         if (indexHeader.getInt(0) == INDEX_MAGIC && indexHeader.getInt(4) == VERSION
+               && Long.bitCount(capacity) == 1 && indexHeader.getLong(INDEXED_RECORDS) == recordCount) {
+            slots = mapSlots(capacity);
+            keyCount = indexHeader.getLong(KEY_COUNT);
+         } else {
+            // Missing, outdated or interrupted index
+            rebuildIndex(Math.max(INITIAL_CAPACITY, Long.highestOneBit(Math.max(1, recordCount)) * 4));
+         }
+      } catch (IOException | RuntimeException e) {
+         dataChannel.close();
+         if (index != null) {
+            index.close();
+         }
+         if (e instanceof UncheckedIOException unchecked) {
+            throw unchecked.getCause();
+         }
+         throw e;
+      }
+   }
+
+   /**
+    * Opens a store, creating it and its directory if they do not exist yet.
+    *
+    * @param path the data file; the index is the same path with ".index"
+    *             appended
+    * @return the open store
+    * @throws IOException              if the files cannot be opened or are not
+    *                                  a result store, or another process has
+    *                                  the store open
+    * @throws IllegalArgumentException if the path is null
+    */
+   public static MatchResultStore open(Path path) throws IOException {
+      if (path == null) {
+         throw new IllegalArgumentException("Invalid input in MatchResultStore. Path cannot be null.");
+      }
+      return new MatchResultStore(path);
+   }
+
+   /**
+    * Gets the default store location, a file in the user's home directory
+    * shared by the console and the GUI.
+    *
+    * @return the default data file path
+    */
+   public static Path defaultPath() {
+      return Path.of(System.getProperty("user.home"), ".valorant-match-simulator", "results.store");
+   }
+
+   /**
+    * Looks up the newest stored result of a matchup.
+    *
+    * @param key the matchup's key
+    * @return the stored result, or null if the matchup was never stored
+    * @throws IllegalArgumentException if the key is null
+    */
+   public synchronized StoredResult get(MatchResultCache.Key key) {
+      if (key == null) {
+         throw new IllegalArgumentException("Invalid input in MatchResultStore. Key cannot be null.");
+      }
+      long slot = findSlot(key);
+      long record = slots.getLong(slot * Long.BYTES) - 1;
+      return (record < 0) ? null : readRecord(record);
+   }
+
+   /**
+    * Appends a matchup's result and points the index at it.
+    *
+    * @param key        the matchup's key
+    * @param jobSeed    the seed of the job the statistics belong to
+    * @param statistics the statistics of matches 0 through
+    *                   statistics.getTotalMatches() - 1 of the job
+    * @throws IllegalArgumentException if the key or statistics are null
+    * @throws UncheckedIOException     if the files cannot grow
+    */
+   public synchronized void put(MatchResultCache.Key key, long jobSeed, SimulationStatisticsCollector statistics) {
+      if (key == null || statistics == null) {
+         throw new IllegalArgumentException("Invalid input in MatchResultStore. Key and statistics cannot be null.");
+      }
+      long record = recordCount;
+      writeRecord(record, key, jobSeed, statistics);
+      // The record is complete before it is counted, and counted before it is
+      // indexed, so a crash never leaves the index pointing at garbage
+      recordCount = record + 1;
+      dataHeader.putLong(RECORD_COUNT, recordCount);
+      if (index(record)) {
+         keyCount++;
+         indexHeader.putLong(KEY_COUNT, keyCount);
+      }
+      indexHeader.putLong(INDEXED_RECORDS, recordCount);
+      if (keyCount * 2 > capacity) {
+         rebuildIndex(capacity * 2);
+      }
+   }
+
+   /**
+    * Gets the number of records, including older results of the same matchup.
+    *
+    * @return the record count
+    */
+   public synchronized long getRecordCount() {
+      return recordCount;
+   }
+
+   /**
+    * Gets the number of distinct matchups stored.
+    *
+    * @return the key count
+    */
+   public synchronized long getKeyCount() {
+      return keyCount;
+   }
+
+   /**
+    * Gets the data file of this store.
+    *
+    * @return the data file path
+    */
+   public Path getPath() {
+      return path;
+   }
+
+   /**
+    * Writes every mapped page to disk and closes the files.
+    *
+    * @throws IOException if the files cannot be closed
+    */
+   @Override
+   public synchronized void close() throws IOException {
+      records.force();
+      slots.force();
+      dataHeader.force();
+      indexHeader.force();
+      try (dataChannel; indexChannel) {
+         lock.release();
+      }
+   }
+
+   /**
+    * Locks a store's data file for this process.
+    *
+    * @param channel the data file
+    * @param path    the data file path, for error messages
+    * @return the lock
+    * @throws IOException if the store is already open in this or another
+    *                     process
+    */
+   private static FileLock acquireLock(FileChannel channel, Path path) throws IOException {
+      FileLock acquired;
+      try {
+         acquired = channel.tryLock();
+      } catch (OverlappingFileLockException e) {
+         throw new IOException("Result store is already open: " + path, e);
+      }
+      if (acquired == null) {
+         throw new IOException("Result store is in use by another process: " + path);
+      }
+      return acquired;
+   }
+
+   /************* Index methods *************/
+   /**
+    * Finds the slot of a key, or the empty slot where it would go.
+    *
+    * @param key the key
+    * @return the slot number
+    */
+   private long findSlot(MatchResultCache.Key key) {
+      long mask = capacity - 1;
+      long slot = hash(key.team1Comp(), key.team2Comp(), key.map(), key.startingAttacker(), key.catalogVersion())
+            & mask;
+      while (true) {
+         long record = slots.getLong(slot * Long.BYTES) - 1;
+         if (record < 0 || hasKey(record, key)) {
+            return slot;
+         }
+         slot = (slot + 1) & mask;
+      }
+   }
+
+   /**
+    * Points the index at a record.
+    *
+    * @param record the record number
+    * @return true if the record's key was not indexed before
+    */
+   private boolean index(long record) {
+      long slot = findSlot(readKey(record));
+      boolean added = slots.getLong(slot * Long.BYTES) == 0;
+      slots.putLong(slot * Long.BYTES, record + 1);
+      return added;
+   }
+
+   /**
+    * Clears the index, resizes it and indexes every record again in order, so
+    * each key ends up pointing at its newest record.
+    *
+    * @param newCapacity the new number of slots, a power of two
+    * @throws UncheckedIOException if the index file cannot grow
+    */
+   private void rebuildIndex(long newCapacity) {
+      indexHeader.putInt(0, INDEX_MAGIC).putInt(4, VERSION).putLong(INDEXED_RECORDS, -1);
+      slots = mapSlots(newCapacity);
+      for (long slot = 0; slot < newCapacity; slot++) {
+         slots.putLong(slot * Long.BYTES, 0);
+      }
+      capacity = newCapacity;
+      keyCount = 0;
+      for (long record = 0; record < recordCount; record++) {
+         if (index(record)) {
+            keyCount++;
+         }
+      }
+      indexHeader.putLong(CAPACITY, capacity).putLong(KEY_COUNT, keyCount).putLong(INDEXED_RECORDS, recordCount);
+   }
+
+   /**
+    * Maps the slots of an index with the given capacity.
+    *
+    * @param slotCount the number of slots
+    * @return the mapped slots
+    */
+   private MappedRegions mapSlots(long slotCount) {
+      return new MappedRegions(indexChannel, HEADER_BYTES,
+            (int) (Math.min(slotCount, MAX_SLOTS_PER_REGION) * Long.BYTES));
+   }
+
+   /**
+    * Hashes a key's fields.
+    *
+    * @param team1Comp        team 1's comp mask
+    * @param team2Comp        team 2's comp mask
+    * @param map              the map index
+    * @param startingAttacker the team that attacks first
+    * @param catalogVersion   the catalog fingerprint
+    * @return the hash
+    */
+   private static long hash(int team1Comp, int team2Comp, int map, int startingAttacker, long catalogVersion) {
+      long z = catalogVersion;
+      z = (z ^ (((long) team1Comp << 32) | (team2Comp & 0xFFFFFFFFL))) * 0x9E3779B97F4A7C15L;
+      z = (z ^ (z >>> 29) ^ ((long) map << 8) ^ startingAttacker) * 0xBF58476D1CE4E5B9L;
+      return z ^ (z >>> 32);
+   }
+
+   /************* Record methods *************/
+   /**
+    * Checks whether a record belongs to a key.
+    *
+    * @param record the record number
+    * @param key    the key
+    * @return true if the record's key fields equal the key
+    */
+   private boolean hasKey(long record, MatchResultCache.Key key) {
+      long offset = record * RECORD_BYTES;
+      return records.getInt(offset + TEAM1_COMP) == key.team1Comp()
+            && records.getInt(offset + TEAM2_COMP) == key.team2Comp()
+            && records.getInt(offset + MAP) == key.map()
+            && records.getInt(offset + STARTING_ATTACKER) == key.startingAttacker()
+            && records.getLong(offset + CATALOG_VERSION) == key.catalogVersion();
+   }
+
+   /**
+    * Reads a record's key.
+    *
+    * @param record the record number
+    * @return the key
+    */
+   private MatchResultCache.Key readKey(long record) {
+      long offset = record * RECORD_BYTES;
+      return new MatchResultCache.Key(records.getInt(offset + TEAM1_COMP), records.getInt(offset + TEAM2_COMP),
+            records.getInt(offset + MAP), records.getInt(offset + STARTING_ATTACKER),
+            records.getLong(offset + CATALOG_VERSION));
+   }
+
+   /**
+    * Reads a record's seed and statistics.
+    *
+    * @param record the record number
+    * @return the stored result
+    */
+   private StoredResult readRecord(long record) {
+      long offset = record * RECORD_BYTES;
+      SimulationStatisticsCollector statistics = new SimulationStatisticsCollector();
+      statistics.increaseTeam1MatchWins(records.getLong(offset + TEAM1_MATCH_WINS));
+      statistics.increaseTeam2MatchWins(records.getLong(offset + TEAM2_MATCH_WINS));
+      statistics.increaseTeam1RoundWins(records.getLong(offset + TEAM1_ROUND_WINS));
+      statistics.increaseTeam2RoundWins(records.getLong(offset + TEAM2_ROUND_WINS));
+      statistics.increaseTeam1FiftyFiftyWins(records.getLong(offset + TEAM1_FIFTY_FIFTY_WINS));
+      statistics.increaseTeam2FiftyFiftyWins(records.getLong(offset + TEAM2_FIFTY_FIFTY_WINS));
+      for (int i = 0; i < Scoreline.BUCKETS; i++) {
+         statistics.increaseScorelineCount(i, records.getLong(offset + SCORELINES + (long) i * Long.BYTES));
+      }
+      for (int i = 0; i < Scoreline.HALFTIME_BUCKETS; i++) {
+         statistics.increaseHalftimeCount(i, records.getLong(offset + HALFTIMES + (long) i * Long.BYTES));
+      }
+      return new StoredResult(records.getLong(offset + JOB_SEED), statistics);
+   }
+
+   /**
+    * Writes a record.
+    *
+    * @param record     the record number
+    * @param key        the matchup's key
+    * @param jobSeed    the job seed
+    * @param statistics the statistics
+    */
+   private void writeRecord(long record, MatchResultCache.Key key, long jobSeed,
+         SimulationStatisticsCollector statistics) {
+      long offset = record * RECORD_BYTES;
+      records.putInt(offset + TEAM1_COMP, key.team1Comp());
+      records.putInt(offset + TEAM2_COMP, key.team2Comp());
+      records.putInt(offset + MAP, key.map());
+      records.putInt(offset + STARTING_ATTACKER, key.startingAttacker());
+      records.putLong(offset + CATALOG_VERSION, key.catalogVersion());
+      records.putLong(offset + JOB_SEED, jobSeed);
+      records.putLong(offset + TEAM1_MATCH_WINS, statistics.getTeam1MatchWins());
+      records.putLong(offset + TEAM2_MATCH_WINS, statistics.getTeam2MatchWins());
+      records.putLong(offset + TEAM1_ROUND_WINS, statistics.getTeam1RoundWins());
+      records.putLong(offset + TEAM2_ROUND_WINS, statistics.getTeam2RoundWins());
+      records.putLong(offset + TEAM1_FIFTY_FIFTY_WINS, statistics.getTeam1FiftyFiftyWins());
+      records.putLong(offset + TEAM2_FIFTY_FIFTY_WINS, statistics.getTeam2FiftyFiftyWins());
+      for (int i = 0; i < Scoreline.BUCKETS; i++) {
+         records.putLong(offset + SCORELINES + (long) i * Long.BYTES, statistics.getScorelineCount(i));
+      }
+      for (int i = 0; i < Scoreline.HALFTIME_BUCKETS; i++) {
+         records.putLong(offset + HALFTIMES + (long) i * Long.BYTES, statistics.getHalftimeCount(i));
+      }
+   }
+
+   /**
+    * A file mapped in equal regions after a header, mapping each region the
+    * first time it is used. Mapping a region past the end of the file grows
+    * the file. Values never straddle two regions, since the region size is a
+    * multiple of every record and slot size.
+    */
+   private static final class MappedRegions {
+      private final FileChannel channel;
+      private final long base;
+      private final int regionBytes;
+      private final List<MappedByteBuffer> regions = new ArrayList<>();
+
+      /**
+       * Constructs a new mapping of a file.
+       *
+       * @param channel     the file
+       * @param base        the offset of the first region
+       * @param regionBytes the size of each region
+       */
+      MappedRegions(FileChannel channel, long base, int regionBytes) {
+         this.channel = channel;
+         this.base = base;
+         this.regionBytes = regionBytes;
+      }
+
+      int getInt(long offset) {
+         return region(offset).getInt((int) (offset % regionBytes));
+      }
+
+      long getLong(long offset) {
+         return region(offset).getLong((int) (offset % regionBytes));
+      }
+
+      void putInt(long offset, int value) {
+         region(offset).putInt((int) (offset % regionBytes), value);
+      }
+
+      void putLong(long offset, long value) {
+         region(offset).putLong((int) (offset % regionBytes), value);
+      }
+
+      /**
+       * Writes every mapped region to disk.
+       */
+      void force() {
+         for (MappedByteBuffer region : regions) {
+            region.force();
+         }
+      }
+
+      /**
+       * Gets the region that holds an offset, mapping it if needed.
+       *
+       * @param offset the offset after the header
+       * @return the region
+       */
+      private MappedByteBuffer region(long offset) {
+         int number = (int) (offset / regionBytes);
+         while (regions.size() <= number) {
+            try {
+               regions.add(channel.map(FileChannel.MapMode.READ_WRITE,
+                     base + (long) regions.size() * regionBytes, regionBytes));
+            } catch (IOException e) {
+               throw new UncheckedIOException(e);
+            }
+         }
+         return regions.get(number);
+      }
+   }
+}
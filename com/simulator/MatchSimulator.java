@@ -1,7 +1,7 @@
 package com.simulator;
 
 import java.util.Scanner;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -59,16 +59,24 @@ public class MatchSimulator {
    private int team1Rounds;
    private int team2Rounds;
    private int attackingTeam;
+   private int startingAttackingTeam;
    private int currentRoundWinner;
+   private int team1Style;
+   private int team2Style;
    private double team1Chance;
-   private double cachedMapAdvantage;
-   private double cachedRelativePowerAdvantage;
    private boolean team1HasBetterOdds;
-   private boolean mapAdvantageCalculated;
-   private boolean relativePowerAdvantageCalculated;
    private String map;
    private final TeamComp teamOne;
    private final TeamComp teamTwo;
+   // Compiled view of the matchup read by the round kernel. Rebuilt lazily
+   // from the team compositions whenever the setup changes.
+   private MatchupPlan plan;
+   // Source of every random draw. Defaults to ThreadLocalRandom; a seeded
+   // stream makes runs reproducible.
+   private RandomGenerator random;
+   // Statistics of every match this simulator plays. Owned by one worker, so
+   // updates need no synchronization.
+   private SimulationStatisticsCollector statistics;
    // Stores the last completed match's winner (1 or 2). Useful after
    // simulateMatch* resets state.
    private int lastMatchWinner;
@@ -81,8 +89,8 @@ public class MatchSimulator {
     * - Both teams start with 0 rounds
     * - Team 1 starts attacking
     * - Default map is "ascent"
-    * - Team 1 advantage calculations are not cached because they are calculated
-    * round-by-round
+    * - The matchup is compiled into a {@link MatchupPlan} on the first
+    * simulation, after agents have been added to both teams
     *
     * @param first  The first team composition (Team 1)
     * @param second The second team composition (Team 2)
@@ -93,11 +101,57 @@ public class MatchSimulator {
       team1Rounds = 0;
       team2Rounds = 0;
       attackingTeam = 1;
-      mapAdvantageCalculated = false;
-      relativePowerAdvantageCalculated = false;
+      startingAttackingTeam = 1;
       map = "ascent";
       teamOne = first;
       teamTwo = second;
+      random = SimulationRandom.unseeded();
+      statistics = new SimulationStatisticsCollector();
+   }
+
+   /**
+    * Constructs a new MatchSimulator that reads a shared, compiled matchup.
+    *
+    * No team compositions are built or copied, so this is the cheap way to give
+    * each worker thread its own simulator. The map and starting attacker are
+    * taken from the plan.
+    *
+    * @param matchupPlan the compiled matchup to simulate
+    * @throws IllegalArgumentException if the plan is null
+    */
+   public MatchSimulator(MatchupPlan matchupPlan) {
+      this(matchupPlan, null);
+   }
+
+   /**
+    * Constructs a new MatchSimulator that reads a shared, compiled matchup and
+    * draws from its own random stream.
+    *
+    * Giving each worker a stream split from the same job seed makes the whole
+    * job reproducible.
+    *
+    * @param matchupPlan the compiled matchup to simulate
+    * @param stream      the random stream for this simulator, or null for
+    *                    {@link java.util.concurrent.ThreadLocalRandom}
+    * @throws IllegalArgumentException if the plan is null
+    */
+   public MatchSimulator(MatchupPlan matchupPlan, RandomGenerator stream) {
+      if (matchupPlan == null) {
+         throw new IllegalArgumentException("Invalid input in MatchSimulator. Matchup plan cannot be null.");
+      }
+      currentRound = 1;
+      team1Rounds = 0;
+      team2Rounds = 0;
+      attackingTeam = matchupPlan.getStartingAttacker();
+      startingAttackingTeam = attackingTeam;
+      map = matchupPlan.getMap();
+      teamOne = null;
+      teamTwo = null;
+      plan = matchupPlan;
+      // Assigned directly rather than through setRandom(), which subclasses
+      // could override
+      random = (stream != null) ? stream : SimulationRandom.unseeded();
+      statistics = new SimulationStatisticsCollector();
    }
 
    /************* Match simulation methods *************/
@@ -119,11 +173,12 @@ public class MatchSimulator {
     * but provides comprehensive round-by-round information.
     */
    public void simulateMatch() {
-      setAttackerMapAdvantage();
+      getPlan();
 
       for (int i = 0; i < ROUNDS_PER_HALF; i++) {
          simulateRound();
       }
+      statistics.recordHalftime(team1Rounds);
 
       switchSides();
 
@@ -154,7 +209,7 @@ public class MatchSimulator {
     * where thousands of matches need to be processed quickly.
     *
     * Match flow:
-    * 1. Calculate initial map advantages
+    * 1. Compile the matchup plan if the setup changed
     * 2. Simulate first half (12 rounds)
     * 3. Switch sides at halftime
     * 4. Continue second half until victory condition
@@ -165,11 +220,12 @@ public class MatchSimulator {
     * on system configuration due to eliminated I/O operations.
     */
    public void simulateMatchFast() {
-      setAttackerMapAdvantage();
+      getPlan();
 
       for (int i = 0; i < ROUNDS_PER_HALF; i++) {
          simulateRoundFast();
       }
+      statistics.recordHalftime(team1Rounds);
 
       switchSides();
 
@@ -191,6 +247,195 @@ public class MatchSimulator {
       resetMatch();
    }
 
+   /**
+    * Simulates a complete Valorant match with the table-driven round kernel.
+    *
+    * Follows the same match rules as simulateMatchFast(), but each round costs a
+    * single random draw compared against team 1's precomputed round win
+    * probability for the attacking side (see
+    * {@link MatchupPlan#getTeam1RoundWinProbability(int)}). Style rolls and the
+    * stylistic swing are already integrated into that probability, so the
+    * outcome distribution is the same as simulateMatchFast(), which remains the
+    * reference implementation. 50/50 rounds are still tracked.
+    */
+   public void simulateMatchTable() {
+      getPlan();
+
+      for (int i = 0; i < ROUNDS_PER_HALF; i++) {
+         simulateRoundTable();
+      }
+      statistics.recordHalftime(team1Rounds);
+
+      switchSides();
+
+      while (nobodyHas13Rounds() && !overtimeIsReached()) {
+         simulateRoundTable();
+      }
+
+      if (overtimeIsReached()) {
+         while (roundDeltaIsNot2()) {
+            switchSides();
+            simulateRoundTable();
+         }
+      }
+
+      // Record winner before resetting internal state
+      lastMatchWinner = (team1Rounds > team2Rounds) ? 1 : 2;
+      incrementMatchWins();
+      addTotalRounds();
+      resetMatch();
+   }
+
+   /**
+    * Simulates a complete Valorant match by sampling whole halves instead of
+    * single rounds.
+    *
+    * Within a half the attacker is fixed, so its rounds are independent and
+    * identically distributed. The match is drawn in a handful of steps from the
+    * tables in {@link MatchupPlan}:
+    * 1. First half: one binomial draw for team 1's halftime rounds
+    * 2. Second half: one draw for the final regulation score or 12-12
+    * 3. Overtime: one geometric draw for the number of tied round pairs and one
+    * draw for who wins the deciding pair
+    *
+    * The outcome distribution is identical to simulateMatchTable(). Matchups
+    * with true 50/50 rounds fall back to simulateMatchTable() so those rounds are
+    * still counted one by one.
+    */
+   public void simulateMatchHalves() {
+      getPlan();
+      if (plan.hasFiftyFiftyRounds()) {
+         simulateMatchTable();
+         return;
+      }
+
+      int halftimeTeam1Rounds = plan.sampleHalftime(random.nextDouble());
+      statistics.recordHalftime(halftimeTeam1Rounds);
+      int score = plan.sampleSecondHalf(halftimeTeam1Rounds, random.nextDouble());
+      team1Rounds = score / MatchupPlan.SCORE_RADIX;
+      team2Rounds = score % MatchupPlan.SCORE_RADIX;
+
+      if (overtimeIsReached()) {
+         int tiedPairs = plan.sampleOvertimeLength(1.0 - random.nextDouble());
+         boolean team1WinsPair = random.nextDouble() < plan.getOvertimeTeam1Share();
+         team1Rounds += tiedPairs + (team1WinsPair ? 2 : 0);
+         team2Rounds += tiedPairs + (team1WinsPair ? 0 : 2);
+      }
+
+      // Record winner before resetting internal state
+      lastMatchWinner = (team1Rounds > team2Rounds) ? 1 : 2;
+      incrementMatchWins();
+      addTotalRounds();
+      resetMatch();
+   }
+
+   /**
+    * Simulates matches firstMatch through firstMatch + n - 1 of a job and
+    * writes their final scores into caller-supplied arrays instead of the
+    * statistics collector.
+    *
+    * See {@link #simulateBatch(long, int, int[], int[], int[])}.
+    *
+    * @param firstMatch     the job index of the first match
+    * @param n              the number of matches to simulate
+    * @param team1RoundsOut receives team 1's final rounds, one entry per match
+    * @param team2RoundsOut receives team 2's final rounds, one entry per match
+    * @throws IllegalArgumentException if firstMatch or n is negative, or an
+    *                                  array is null or shorter than n
+    * @throws IllegalStateException    if the simulator does not draw from a
+    *                                  {@link CounterRandom}
+    */
+   public void simulateBatch(long firstMatch, int n, int[] team1RoundsOut, int[] team2RoundsOut) {
+      simulateBatch(firstMatch, n, team1RoundsOut, team2RoundsOut, null);
+   }
+
+   /**
+    * Simulates matches firstMatch through firstMatch + n - 1 of a job and
+    * writes their final and halftime scores into caller-supplied arrays
+    * instead of the statistics collector.
+    *
+    * Before each match the {@link CounterRandom} stream is moved to the
+    * match's index, the same as a scheduler does before every call to
+    * simulateMatchHalves(), and the match makes the same draws in the same
+    * order. Match i of a job therefore has the same score however the job is
+    * split into batches. Nothing else is touched: no statistics, no last match
+    * winner and no match state to reset, so the results can be aggregated
+    * afterwards in one loop with
+    * {@link SimulationStatisticsCollector#recordBatch(int, int[], int[], int[])}.
+    *
+    * 50/50 rounds are not reported, so matchups with 50/50 rounds are sampled
+    * by halves as well. Their scores have the same distribution as
+    * simulateMatchHalves(), but not the same draws.
+    *
+    * @param firstMatch             the job index of the first match
+    * @param n                      the number of matches to simulate
+    * @param team1RoundsOut         receives team 1's final rounds, one entry
+    *                               per match
+    * @param team2RoundsOut         receives team 2's final rounds, one entry
+    *                               per match
+    * @param halftimeTeam1RoundsOut receives team 1's first half rounds, one
+    *                               entry per match; may be null
+    * @throws IllegalArgumentException if firstMatch or n is negative, or an
+    *                                  array is null or shorter than n
+    * @throws IllegalStateException    if the simulator does not draw from a
+    *                                  {@link CounterRandom}
+    */
+   public void simulateBatch(long firstMatch, int n, int[] team1RoundsOut, int[] team2RoundsOut,
+         int[] halftimeTeam1RoundsOut) {
+      if (firstMatch < 0 || n < 0) {
+         throw new IllegalArgumentException("Match index and batch size cannot be negative, got: " + firstMatch
+               + " and " + n);
+      }
+      if (team1RoundsOut == null || team2RoundsOut == null) {
+         throw new IllegalArgumentException("Invalid input in simulateBatch. Output arrays cannot be null.");
+      }
+      if (team1RoundsOut.length < n || team2RoundsOut.length < n
+            || (halftimeTeam1RoundsOut != null && halftimeTeam1RoundsOut.length < n)) {
+         throw new IllegalArgumentException("Output arrays must hold at least " + n + " matches.");
+      }
+      if (!(random instanceof CounterRandom stream)) {
+         throw new IllegalStateException("simulateBatch needs a CounterRandom stream to seek each match.");
+      }
+      MatchupPlan matchupPlan = getPlan();
+
+      for (int i = 0; i < n; i++) {
+         stream.seekMatch(firstMatch + i);
+         int halftimeTeam1Rounds = matchupPlan.sampleHalftime(stream.nextDouble());
+         int score = matchupPlan.sampleSecondHalf(halftimeTeam1Rounds, stream.nextDouble());
+         int t1 = score / MatchupPlan.SCORE_RADIX;
+         int t2 = score % MatchupPlan.SCORE_RADIX;
+
+         if (t1 == ROUNDS_PER_HALF && t2 == ROUNDS_PER_HALF) {
+            int tiedPairs = matchupPlan.sampleOvertimeLength(1.0 - stream.nextDouble());
+            boolean team1WinsPair = stream.nextDouble() < matchupPlan.getOvertimeTeam1Share();
+            t1 += tiedPairs + (team1WinsPair ? 2 : 0);
+            t2 += tiedPairs + (team1WinsPair ? 0 : 2);
+         }
+         team1RoundsOut[i] = t1;
+         team2RoundsOut[i] = t2;
+         if (halftimeTeam1RoundsOut != null) {
+            halftimeTeam1RoundsOut[i] = halftimeTeam1Rounds;
+         }
+      }
+   }
+
+   /**
+    * Computes the exact match outcome probabilities for the current setup
+    * instead of estimating them by simulation.
+    *
+    * The per-side round win probabilities are derived from the same compiled
+    * plan the round kernel reads (relative power, map advantage, and both teams'
+    * style distributions) and passed to {@link MatchProbabilitySolver}. The
+    * result is what repeated calls to simulateMatchFast() converge to, including
+    * the full final scoreline distribution.
+    *
+    * @return the exact match probabilities for the configured teams, map and
+    *         starting attacker
+    */
+   public MatchProbabilityResult solveMatchExact() {
+      return MatchProbabilitySolver.solve(getPlan());
+   }
+
    /**
     * Handles interactive agent selection for both teams.
     *
@@ -210,6 +455,7 @@ public class MatchSimulator {
          teamInputLoop(input, teamOne);
          System.out.println("Enter your agents for Team 2:");
          teamInputLoop(input, teamTwo);
+         invalidatePlan();
       } catch (Exception e) {
          logger.log(Level.SEVERE, "An error occurred while reading agent input", e);
       }
@@ -219,19 +465,30 @@ public class MatchSimulator {
     * Sets the map for the current match and resets map advantage calculations.
     *
     * The map name affects attacker/defender advantage calculations which vary
-    * between different Valorant maps. Setting a new map invalidates any
-    * previously cached map advantage values, forcing recalculation on the
-    * next simulation.
+    * between different Valorant maps. Setting a new map invalidates the
+    * compiled matchup plan, forcing recompilation on the next simulation.
+    * A simulator built from a plan has no team compositions to recompile
+    * from, so its map cannot be changed.
     *
     * @param mapOfMatch The name of the map to set (case-insensitive)
     * @throws IllegalArgumentException if mapOfMatch is null
+    * @throws IllegalStateException    if this simulator was built from a plan
+    *                                  for a different map
     */
    public void setMap(String mapOfMatch) {
       if (mapOfMatch == null) {
          throw new IllegalArgumentException("Invalid input in setMap. Map name cannot be null.");
       }
-      map = mapOfMatch.toLowerCase();
-      setAttackerMapAdvantage();
+      String newMap = mapOfMatch.toLowerCase();
+      if (attackerMapAdvantage(newMap) == 0.0) {
+         newMap = "N/A";
+      }
+      if (teamOne == null && !newMap.equals(map)) {
+         throw new IllegalStateException("Cannot change the map of a simulator built from a plan for " + map
+               + ", got: " + newMap);
+      }
+      map = newMap;
+      invalidatePlan();
    }
 
    /**
@@ -267,7 +524,7 @@ public class MatchSimulator {
     * Simulates a single round with detailed output and statistics.
     *
     * Round simulation process:
-    * 1. Set team playing styles based on current agents
+    * 1. Roll team playing styles from the compiled matchup plan
     * 2. Calculate Team 1's win probability including all advantages
     * 3. Generate random outcome based on calculated probabilities
     * 4. Determine and record round winner
@@ -281,7 +538,7 @@ public class MatchSimulator {
    private void simulateRound() {
       setTeamStyles();
       team1Chance = FIFTY_FIFTY_CHANCE + calculateTeam1Advantage();
-      team1HasBetterOdds = ThreadLocalRandom.current().nextDouble() < (team1Chance / 100.0);
+      team1HasBetterOdds = random.nextDouble() < (team1Chance / 100.0);
       findAndSetRoundWinner();
       printRoundStats();
       currentRound++;
@@ -305,11 +562,39 @@ public class MatchSimulator {
    private void simulateRoundFast() {
       setTeamStyles();
       team1Chance = FIFTY_FIFTY_CHANCE + calculateTeam1Advantage();
-      team1HasBetterOdds = ThreadLocalRandom.current().nextDouble() < (team1Chance / 100.0);
+      team1HasBetterOdds = random.nextDouble() < (team1Chance / 100.0);
       findAndSetRoundWinner();
       currentRound++;
    }
 
+   /**
+    * Simulates a single round from the precomputed round tables.
+    *
+    * One uniform roll below team 1's round win probability gives the round to
+    * team 1, otherwise to team 2. The 50/50 mass sits at the start of each
+    * team's interval, so the same roll also tells whether the round was a
+    * 50/50.
+    */
+   private void simulateRoundTable() {
+      double roll = random.nextDouble();
+      double team1WinProbability = plan.getTeam1RoundWinProbability(attackingTeam);
+      double halfFiftyFifty = plan.getFiftyFiftyProbability(attackingTeam) * 0.5;
+      if (roll < team1WinProbability) {
+         team1Rounds++;
+         currentRoundWinner = 1;
+         if (roll < halfFiftyFifty) {
+            statistics.incrementTeam1FiftyFiftyWins();
+         }
+      } else {
+         team2Rounds++;
+         currentRoundWinner = 2;
+         if (roll < team1WinProbability + halfFiftyFifty) {
+            statistics.incrementTeam2FiftyFiftyWins();
+         }
+      }
+      currentRound++;
+   }
+
    /**
     * Updates the playing style for both teams based on their current agent
     * compositions.
@@ -318,10 +603,16 @@ public class MatchSimulator {
     * and calculating the dominant tactical approach (Aggressive, Control, or
     * Midrange).
     * This affects tactical advantages in subsequent round calculations.
+    *
+    * The rolls use the thresholds stored in the matchup plan, which are the
+    * same ones {@link TeamComp#setStyle()} uses, so the team compositions are
+    * not touched while simulating.
     */
    private void setTeamStyles() {
-      teamOne.setStyle();
-      teamTwo.setStyle();
+      team1Style = plan.hasStyleRoll(1) ? plan.styleForRoll(1, random.nextDouble())
+            : MatchupPlan.MIDRANGE;
+      team2Style = plan.hasStyleRoll(2) ? plan.styleForRoll(2, random.nextDouble())
+            : MatchupPlan.MIDRANGE;
    }
 
    /************* Round logic methods *************/
@@ -339,14 +630,14 @@ public class MatchSimulator {
     */
    private void findAndSetRoundWinner() {
       if (team1Chance == FIFTY_FIFTY_CHANCE) {
-         if (ThreadLocalRandom.current().nextBoolean()) { // True 50/50 scenario
+         if (random.nextBoolean()) { // True 50/50 scenario
             team1Rounds++;
             currentRoundWinner = 1;
-            SimulationStatisticsCollector.incrementTeam1FiftyFiftyWins();
+            statistics.incrementTeam1FiftyFiftyWins();
          } else {
             team2Rounds++;
             currentRoundWinner = 2;
-            SimulationStatisticsCollector.incrementTeam2FiftyFiftyWins();
+            statistics.incrementTeam2FiftyFiftyWins();
          }
       } else if (team1HasBetterOdds) { // Team 1 has better odds
          team1Rounds++;
@@ -377,12 +668,12 @@ public class MatchSimulator {
     *         range)
     */
    private double calculateTeam1Advantage() {
-      double stylisticAdvantage = ThreadLocalRandom.current().nextDouble() * 4 + 1;
-      boolean team1CanCounter = teamOne.canCounter(teamTwo);
-      boolean team2CanCounter = teamTwo.canCounter(teamOne);
+      double stylisticAdvantage = random.nextDouble() * 4 + 1;
+      boolean team1CanCounter = MatchupPlan.counters(team1Style, team2Style);
+      boolean team2CanCounter = MatchupPlan.counters(team2Style, team1Style);
 
       if (attackingTeam == 1) { // Team 1 is attacking
-         double attackingAdvantage = getRelativePowerAdvantage() + cachedMapAdvantage;
+         double attackingAdvantage = plan.baseTeam1Advantage(1);
          if (team1CanCounter && !team2CanCounter) {
             return attackingAdvantage + stylisticAdvantage; // Team 1 has stylistic advantage
          } else if (!team1CanCounter && team2CanCounter) {
@@ -390,12 +681,12 @@ public class MatchSimulator {
          }
          return attackingAdvantage;
       } else if (attackingTeam == 2) { // Team 2 is attacking
-         double attackingAdvantage = getRelativePowerAdvantage() - cachedMapAdvantage; /*
-                                                                                        * Subtract map advantage because
-                                                                                        * we are calculating Team 1's
-                                                                                        * advantage
-                                                                                        * when Team 2 is attacking
-                                                                                        */
+         double attackingAdvantage = plan.baseTeam1Advantage(2); /*
+                                                                  * Subtracts map advantage because
+                                                                  * we are calculating Team 1's
+                                                                  * advantage
+                                                                  * when Team 2 is attacking
+                                                                  */
          if (!team1CanCounter && team2CanCounter) {
             return attackingAdvantage + stylisticAdvantage; // Team 2 has stylistic advantage
          } else if (team1CanCounter && !team2CanCounter) {
@@ -410,66 +701,74 @@ public class MatchSimulator {
    }
 
    /**
-    * Calculates and caches the relative power advantage between teams.
+    * Calculates the relative power advantage between two teams.
     *
     * The advantage is based on the total relative power difference between
-    * the two team compositions. Each point of power difference translates
-    * to a 0.2% advantage for the stronger team.
+    * the two team compositions. Each started point of power difference
+    * translates to a 0.2% advantage for the stronger team.
     *
     * Calculation:
     * 1. Find absolute difference in total relative power
-    * 2. Multiply by 0.2 to get percentage advantage
+    * 2. Add 0.2 for every started point of difference
     * 3. Negative value indicates Team 2 advantage
     * 4. Positive value indicates Team 1 advantage
     *
-    * The result is cached to avoid recalculation during the match unless
-    * team compositions change.
+    * @param team1RelativePower team 1's total relative power
+    * @param team2RelativePower team 2's total relative power
+    * @return team 1's relative power advantage in percent
     */
-   private void setRelativePowerAdvantage() {
-      cachedRelativePowerAdvantage = 0;
-      double totalRelativePowerDelta = Math.abs(teamOne.getTotalRelativePower() - teamTwo.getTotalRelativePower());
+   public static double relativePowerAdvantage(double team1RelativePower, double team2RelativePower) {
+      double advantage = 0;
+      double totalRelativePowerDelta = Math.abs(team1RelativePower - team2RelativePower);
       for (int i = 0; i < totalRelativePowerDelta; i++) {
-         cachedRelativePowerAdvantage += 0.2;
+         advantage += 0.2;
       }
-      if (teamTwo.getTotalRelativePower() > teamOne.getTotalRelativePower()) { // Team 2 has more relative power
-         cachedRelativePowerAdvantage = -cachedRelativePowerAdvantage;
+      if (team2RelativePower > team1RelativePower) { // Team 2 has more relative power
+         advantage = -advantage;
       }
-      relativePowerAdvantageCalculated = true;
+      return advantage;
    }
 
    /**
-    * Calculates and caches the map advantage based on the current map.
+    * Returns the attacker advantage for a map from the active
+    * {@link AgentCatalog}.
     *
-    * This method sets the cached map advantage value based on statistical data
-    * for each Valorant map. Negative values favor defenders, positive values
-    * favor attackers. The advantage represents the expected round differential
-    * for the attacking team.
+    * The values are based on statistical data for each Valorant map. Negative
+    * values favor defenders, positive values favor attackers. The advantage
+    * represents the expected round differential for the attacking team.
     *
-    * If no recognized map is set, the advantage is set to 0.0 and the map
-    * name is reset to "N/A".
+    * @param mapName the map name (case-insensitive)
+    * @return the attacker advantage, or 0.0 if the map is not recognized
+    */
+   public static double attackerMapAdvantage(String mapName) {
+      return AgentCatalog.getActive().getAttackerMapAdvantage(mapName);
+   }
+
+   /**
+    * Returns the compiled matchup plan, compiling it from the team compositions
+    * if the setup has changed since the last compile.
     *
-    * The result is cached to avoid recalculation during the match.
+    * @return the plan the round kernel reads
     */
-   private void setAttackerMapAdvantage() {
-      cachedMapAdvantage = switch (map) {
-         case "abyss" -> -0.1;
-         case "ascent" -> -5.05;
-         case "bind" -> -3.81;
-         case "breeze" -> 1.11;
-         case "corrode" -> -0.96;
-         case "fracture" -> 1;
-         case "haven" -> -1.68;
-         case "icebox" -> -1.35;
-         case "lotus" -> 0.57;
-         case "pearl" -> -1.6;
-         case "split" -> -3.3;
-         case "sunset" -> -1.39;
-         default -> 0.0;
-      };
-      if (cachedMapAdvantage == 0.0) {
-         map = "N/A";
+   public MatchupPlan getPlan() {
+      if (plan == null) {
+         plan = MatchupPlan.compile(teamOne, teamTwo, map, startingAttackingTeam);
+      }
+      return plan;
+   }
+
+   /**
+    * Discards or updates the compiled plan after the setup changed.
+    * Simulators built from team compositions recompile lazily; simulators
+    * built from a plan keep its map and derive a copy for a new starting
+    * attacker.
+    */
+   private void invalidatePlan() {
+      if (teamOne != null && teamTwo != null) {
+         plan = null;
+      } else if (plan != null) {
+         plan = plan.withStartingAttacker(startingAttackingTeam);
       }
-      mapAdvantageCalculated = true;
    }
 
    /************* Game state check methods *************/
@@ -508,6 +807,9 @@ public class MatchSimulator {
    /**
     * Sets which team is currently attacking.
     *
+    * The team is also remembered as the starting attacker, so every following
+    * match starts with this team attacking.
+    *
     * @param team the attacking team number (1 or 2)
     * @throws IllegalArgumentException if team is not 1 or 2
     */
@@ -516,6 +818,45 @@ public class MatchSimulator {
          case 1, 2 -> team;
          default -> throw new IllegalArgumentException("Team must be 1 or 2, got: " + team);
       };
+      startingAttackingTeam = attackingTeam;
+      invalidatePlan();
+   }
+
+   /**
+    * Sets the random stream every following match draws from.
+    *
+    * A stream is not thread-safe, so it must only be used by this simulator.
+    *
+    * @param stream the random stream, or null to go back to
+    *               {@link java.util.concurrent.ThreadLocalRandom}
+    */
+   public void setRandom(RandomGenerator stream) {
+      random = (stream != null) ? stream : SimulationRandom.unseeded();
+   }
+
+   /**
+    * Sets the collector every following match records its statistics in.
+    *
+    * The collector is updated without synchronization, so it must not be
+    * shared with simulators running on other threads.
+    *
+    * @param collector the statistics collector
+    * @throws IllegalArgumentException if the collector is null
+    */
+   public void setStatistics(SimulationStatisticsCollector collector) {
+      if (collector == null) {
+         throw new IllegalArgumentException("Invalid input in MatchSimulator. Statistics collector cannot be null.");
+      }
+      statistics = collector;
+   }
+
+   /**
+    * Gets the collector this simulator records its statistics in.
+    *
+    * @return the statistics collector
+    */
+   public SimulationStatisticsCollector getStatistics() {
+      return statistics;
    }
 
    /**
@@ -526,21 +867,23 @@ public class MatchSimulator {
     */
    public void incrementMatchWins() {
       if (team1Rounds > team2Rounds) {
-         SimulationStatisticsCollector.incrementTeam1MatchWins();
+         statistics.incrementTeam1MatchWins();
       } else {
-         SimulationStatisticsCollector.incrementTeam2MatchWins();
+         statistics.incrementTeam2MatchWins();
       }
    }
 
    /**
     * Adds the total rounds won by each team to the statistics collector.
     *
-    * This method records the individual round wins for both teams in the
-    * simulation statistics for aggregate analysis across multiple matches.
+    * This method records the individual round wins for both teams and the
+    * final scoreline in the simulation statistics for aggregate analysis
+    * across multiple matches.
     */
    public void addTotalRounds() {
-      SimulationStatisticsCollector.increaseTeam1RoundWins(team1Rounds);
-      SimulationStatisticsCollector.increaseTeam2RoundWins(team2Rounds);
+      statistics.increaseTeam1RoundWins(team1Rounds);
+      statistics.increaseTeam2RoundWins(team2Rounds);
+      statistics.recordScoreline(team1Rounds, team2Rounds);
    }
 
    /**
@@ -549,13 +892,13 @@ public class MatchSimulator {
     * This method prepares the simulator for a new match by:
     * - Setting both team round counts to 0
     * - Resetting the current round to 1
-    * - Setting team 1 as the initial attacking team
+    * - Restoring the starting attacking team
     */
    private void resetMatch() {
       team1Rounds = 0;
       team2Rounds = 0;
       currentRound = 1;
-      attackingTeam = 1;
+      attackingTeam = startingAttackingTeam;
    }
 
    /**
@@ -599,7 +942,7 @@ public class MatchSimulator {
       System.out.printf(
             "Current Round: %d%nAttackers: Team %d%nTeam 1's odds: %.2f%%%nTeam 2's odds: %.2f%%%nRound Winner: Team %d%nTeam 1 rounds: %d%nTeam 2 rounds: %d%nStyles: %s vs %s%n%n",
             currentRound, attackingTeam, team1RoundedChance, 100 - team1RoundedChance, currentRoundWinner, team1Rounds,
-            team2Rounds, teamOne.getStyle().toString(), teamTwo.getStyle().toString());
+            team2Rounds, TeamComp.Style.values()[team1Style], TeamComp.Style.values()[team2Style]);
    }
 
    /************* Getter methods *************/
@@ -679,20 +1022,26 @@ public class MatchSimulator {
       return attackingTeam;
    }
 
+   /**
+    * Gets which team attacks first in each match.
+    *
+    * @return 1 if team 1 starts attacking, 2 if team 2 starts attacking
+    */
+   public int getStartingAttackingTeam() {
+      return startingAttackingTeam;
+   }
+
    /**
     * Gets the relative power advantage between teams.
     *
     * The advantage is calculated based on the difference in total relative
     * power between the two teams. Positive values favor team 1, negative
-    * values favor team 2. The calculation is cached after the first call.
+    * values favor team 2. The value comes from the compiled matchup plan.
     *
     * @return the relative power advantage as a decimal value
     */
    public double getRelativePowerAdvantage() {
-      if (!relativePowerAdvantageCalculated) {
-         setRelativePowerAdvantage();
-      }
-      return cachedRelativePowerAdvantage;
+      return getPlan().getRelativePowerAdvantage();
    }
 
    /**
@@ -700,15 +1049,11 @@ public class MatchSimulator {
     *
     * The advantage is based on statistical data for each Valorant map.
     * Negative values favor defenders, positive values favor attackers.
-    * The calculation is cached after the first call.
     *
     * @return the map advantage as a decimal value, or 0.0 if no valid map is set
     */
    public double getAttackerMapAdvantage() {
-      if (!mapAdvantageCalculated) {
-         setAttackerMapAdvantage();
-      }
-      return cachedMapAdvantage;
+      return attackerMapAdvantage(map);
    }
 
    /**
@@ -722,6 +1067,7 @@ public class MatchSimulator {
     * @return the win chance for team 1 as a percentage between 0 and 100
     */
    public double getTeamOneWinChance() {
+      getPlan();
       return FIFTY_FIFTY_CHANCE + calculateTeam1Advantage();
    }
-}
\ No newline at end of file
+}
\ No newline at end of file
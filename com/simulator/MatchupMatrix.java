@@ -0,0 +1,412 @@
+package com.simulator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * Round-robin win probability matrix for a pool of comps on a pool of maps.
+ * </p>
+ *
+ * <p>
+ * For every map and every ordered pair of comps (including a comp against
+ * itself), the matrix holds the row comp's exact match win probability as
+ * team 1 against the column comp as team 2, once with team 1 attacking first
+ * and once with team 2 attacking first. Values are stored as floats, which is
+ * far more precise than any balance change and halves the memory of a
+ * 500-comp, 12-map matrix.
+ * </p>
+ *
+ * <p>
+ * The job is split into one piece per map and row on a
+ * {@link SimulationScheduler}, so idle threads steal the remaining rows. Each
+ * piece handles the pairs (i, j) with j &gt;= i and fills both cells (i, j)
+ * and (j, i): the style, counter and relative power terms are shared by both
+ * directions and are only computed once. The round odds themselves are not
+ * mirror images, because the stylistic swing changes sign while team 2
+ * attacks (see
+ * {@link MatchProbabilitySolver#roundWinProbability(double, double, double, double, int)}),
+ * so each direction is still solved on its own.
+ * </p>
+ *
+ * <p>
+ * A matrix can be written to a compact binary file, read back, and exported
+ * as CSV.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see CompTables
+ * @see MatchProbabilitySolver
+ * @see SimulationScheduler
+ */
+
+public final class MatchupMatrix {
+   private static final int MAGIC = 0x564D4D58; // "VMMX"
+   private static final int FORMAT_VERSION = 2;
+   private final String[] agentNames;
+   private final int[] comps;
+   private final int[] maps;
+   private final String[] mapNames;
+   // Win probability of comp i vs comp j on map position m when team s
+   // attacks first, at ((m * 2 + s - 1) * n + i) * n + j
+   private final float[] winProbabilities;
+
+   /**
+    * Constructs a matrix from already computed values.
+    *
+    * @param agentNames       the agent names the comp masks refer to
+    * @param comps            the comp masks, in row order
+    * @param maps             the map indices (see {@link CompTables})
+    * @param mapNames         the names of those maps
+    * @param winProbabilities the values, in the layout described above
+    */
+   private MatchupMatrix(String[] agentNames, int[] comps, int[] maps, String[] mapNames, float[] winProbabilities) {
+      this.agentNames = agentNames;
+      this.comps = comps;
+      this.maps = maps;
+      this.mapNames = mapNames;
+      this.winProbabilities = winProbabilities;
+   }
+
+   /**
+    * Computes the matrix for a pool of comps and maps.
+    *
+    * @param tables    the agent tables the comps refer to
+    * @param comps     the comp masks
+    * @param maps      the map indices (see {@link CompTables#getMapIndex(String)})
+    * @param scheduler the scheduler whose threads solve the matchups
+    * @return the filled matrix
+    * @throws IllegalArgumentException if an argument is null, a comp is not
+    *                                  valid for the tables or a map index is
+    *                                  out of range
+    */
+   public static MatchupMatrix compute(CompTables tables, int[] comps, int[] maps, SimulationScheduler scheduler) {
+      if (tables == null || comps == null || maps == null || scheduler == null) {
+         throw new IllegalArgumentException("Invalid input in MatchupMatrix. Arguments cannot be null.");
+      }
+      for (int comp : comps) {
+         if (!tables.isValidComp(comp)) {
+            throw new IllegalArgumentException("Invalid comp mask: " + Integer.toBinaryString(comp));
+         }
+      }
+      for (int map : maps) {
+         if (map < 0 || map >= tables.getMapCount()) {
+            throw new IllegalArgumentException("Map index must be between 0 and " + (tables.getMapCount() - 1)
+                  + ", got: " + map);
+         }
+      }
+      String[] agentNames = new String[tables.getAgentCount()];
+      for (int i = 0; i < agentNames.length; i++) {
+         agentNames[i] = tables.getAgentName(i);
+      }
+      String[] mapNames = new String[maps.length];
+      for (int m = 0; m < maps.length; m++) {
+         mapNames[m] = tables.getMapName(maps[m]);
+      }
+      int n = comps.length;
+      MatchupMatrix matrix = new MatchupMatrix(agentNames, comps.clone(), maps.clone(), mapNames,
+            new float[maps.length * 2 * n * n]);
+
+      // Style probabilities only depend on the comp
+      double[][] styles = new double[n][];
+      for (int i = 0; i < n; i++) {
+         double aggro = tables.compTrueAggro(comps[i]);
+         double control = tables.compTrueControl(comps[i]);
+         double midrange = tables.compTrueMidrange(comps[i]);
+         styles[i] = MatchupPlan.styleProbabilities(aggro, control, midrange, aggro + control + midrange);
+      }
+      scheduler.invoke(matrix.new RowTask(tables, styles, 0, maps.length * n));
+      return matrix;
+   }
+
+   /**
+    * Gets the win probability of one comp against another.
+    *
+    * @param mapPosition      the map's position in this matrix's map list
+    * @param team1            the row comp's position, playing as team 1
+    * @param team2            the column comp's position, playing as team 2
+    * @param startingAttacker the team that attacks first (1 or 2)
+    * @return team 1's match win probability (0-1)
+    * @throws IllegalArgumentException if the starting attacker is not 1 or 2
+    */
+   public double getWinProbability(int mapPosition, int team1, int team2, int startingAttacker) {
+      if (startingAttacker != 1 && startingAttacker != 2) {
+         throw new IllegalArgumentException("Team must be 1 or 2, got: " + startingAttacker);
+      }
+      return winProbabilities[cell(mapPosition, startingAttacker, team1, team2)];
+   }
+
+   /**
+    * Gets the win probability of one comp against another, averaged over both
+    * starting sides.
+    *
+    * @param mapPosition the map's position in this matrix's map list
+    * @param team1       the row comp's position, playing as team 1
+    * @param team2       the column comp's position, playing as team 2
+    * @return team 1's match win probability (0-1)
+    */
+   public double getWinProbability(int mapPosition, int team1, int team2) {
+      return (winProbabilities[cell(mapPosition, 1, team1, team2)]
+            + winProbabilities[cell(mapPosition, 2, team1, team2)]) / 2.0;
+   }
+
+   /**
+    * Gets the number of comps.
+    *
+    * @return the comp count
+    */
+   public int getCompCount() {
+      return comps.length;
+   }
+
+   /**
+    * Gets a comp's mask.
+    *
+    * @param position the comp's position
+    * @return the comp mask
+    */
+   public int getComp(int position) {
+      return comps[position];
+   }
+
+   /**
+    * Gets the number of maps.
+    *
+    * @return the map count
+    */
+   public int getMapCount() {
+      return maps.length;
+   }
+
+   /**
+    * Gets a map's index in {@link CompTables}.
+    *
+    * @param position the map's position in this matrix
+    * @return the map index
+    */
+   public int getMap(int position) {
+      return maps[position];
+   }
+
+   /**
+    * Gets a map's name.
+    *
+    * @param position the map's position in this matrix
+    * @return the lowercase map name
+    */
+   public String getMapName(int position) {
+      return mapNames[position];
+   }
+
+   /************* File methods *************/
+   /**
+    * Writes the matrix to a compact binary file.
+    *
+    * The file is big-endian: a magic number and version, the agent names, the
+    * comp masks, the map indices and names, and then every value as a float
+    * in the in-memory order (map, starting attacker, row, column).
+    *
+    * @param file the file to write
+    * @throws IOException if the file cannot be written
+    */
+   public void writeBinary(Path file) throws IOException {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+         out.writeInt(MAGIC);
+         out.writeInt(FORMAT_VERSION);
+         out.writeInt(agentNames.length);
+         for (String name : agentNames) {
+            out.writeUTF(name);
+         }
+         out.writeInt(comps.length);
+         for (int comp : comps) {
+            out.writeInt(comp);
+         }
+         out.writeInt(maps.length);
+         for (int m = 0; m < maps.length; m++) {
+            out.writeInt(maps[m]);
+            out.writeUTF(mapNames[m]);
+         }
+         for (float value : winProbabilities) {
+            out.writeFloat(value);
+         }
+      }
+   }
+
+   /**
+    * Reads a matrix written by {@link #writeBinary(Path)}.
+    *
+    * @param file the file to read
+    * @return the matrix
+    * @throws IOException if the file cannot be read or is not a matrix file
+    */
+   public static MatchupMatrix readBinary(Path file) throws IOException {
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+         if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Not a matchup matrix file: " + file);
+         }
+         String[] agentNames = new String[in.readInt()];
+         for (int i = 0; i < agentNames.length; i++) {
+            agentNames[i] = in.readUTF();
+         }
+         int[] comps = new int[in.readInt()];
+         for (int i = 0; i < comps.length; i++) {
+            comps[i] = in.readInt();
+         }
+         int[] maps = new int[in.readInt()];
+         String[] mapNames = new String[maps.length];
+         for (int i = 0; i < maps.length; i++) {
+            maps[i] = in.readInt();
+            mapNames[i] = in.readUTF();
+         }
+         float[] values = new float[maps.length * 2 * comps.length * comps.length];
+         for (int i = 0; i < values.length; i++) {
+            values[i] = in.readFloat();
+         }
+         return new MatchupMatrix(agentNames, comps, maps, mapNames, values);
+      }
+   }
+
+   /**
+    * Writes the matrix as CSV, one row per map and ordered pair of comps.
+    *
+    * Comps are written as their agent names joined with "+".
+    *
+    * @param file the file to write
+    * @throws IOException if the file cannot be written
+    */
+   public void writeCsv(Path file) throws IOException {
+      String[] compNames = new String[comps.length];
+      for (int i = 0; i < comps.length; i++) {
+         StringBuilder name = new StringBuilder();
+         for (int rest = comps[i]; rest != 0; rest &= rest - 1) {
+            if (name.length() > 0) {
+               name.append('+');
+            }
+            name.append(agentNames[Integer.numberOfTrailingZeros(rest)]);
+         }
+         compNames[i] = name.toString();
+      }
+      try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+         out.write("map,team1,team2,team1_win_attacking_first,team1_win_defending_first,team1_win_average");
+         out.newLine();
+         for (int m = 0; m < maps.length; m++) {
+            String map = mapNames[m];
+            for (int i = 0; i < comps.length; i++) {
+               for (int j = 0; j < comps.length; j++) {
+                  out.write(String.format(Locale.ROOT, "%s,%s,%s,%.6f,%.6f,%.6f", map, compNames[i], compNames[j],
+                        getWinProbability(m, i, j, 1), getWinProbability(m, i, j, 2), getWinProbability(m, i, j)));
+                  out.newLine();
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Returns the array index of a value.
+    *
+    * @param mapPosition      the map's position
+    * @param startingAttacker the team that attacks first (1 or 2)
+    * @param team1            the row comp's position
+    * @param team2            the column comp's position
+    * @return the index into the value array
+    */
+   private int cell(int mapPosition, int startingAttacker, int team1, int team2) {
+      int n = comps.length;
+      return ((mapPosition * 2 + startingAttacker - 1) * n + team1) * n + team2;
+   }
+
+   /**
+    * Fills the rows [from, to) of the job, where row r is comp r % n on map
+    * position r / n, splitting the range down to single rows.
+    */
+   private final class RowTask extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+      private final transient CompTables tables;
+      private final transient double[][] styles;
+      private final int from;
+      private final int to;
+
+      /**
+       * Constructs a new task for a range of rows.
+       *
+       * @param tables the agent tables
+       * @param styles each comp's style probabilities
+       * @param from   the first row (inclusive)
+       * @param to     the last row (exclusive)
+       */
+      RowTask(CompTables tables, double[][] styles, int from, int to) {
+         this.tables = tables;
+         this.styles = styles;
+         this.from = from;
+         this.to = to;
+      }
+
+      @Override
+      protected void compute() {
+         if (to - from <= 1) {
+            for (int row = from; row < to; row++) {
+               fillRow(row / comps.length, row % comps.length);
+            }
+            return;
+         }
+         int middle = from + (to - from) / 2;
+         invokeAll(new RowTask(tables, styles, from, middle), new RowTask(tables, styles, middle, to));
+      }
+
+      /**
+       * Solves comp i against every comp j &gt;= i in both directions.
+       *
+       * @param m the map position
+       * @param i the row comp's position
+       */
+      private void fillRow(int m, int i) {
+         int map = maps[m];
+         double mapAdvantage = tables.getAttackerMapAdvantage(map);
+         double rowPower = tables.compRelativePower(comps[i], map);
+         for (int j = i; j < comps.length; j++) {
+            double counters = MatchupPlan.counterProbability(styles[i], styles[j]);
+            double countered = MatchupPlan.counterProbability(styles[j], styles[i]);
+            double powerAdvantage = MatchSimulator.relativePowerAdvantage(rowPower,
+                  tables.compRelativePower(comps[j], map));
+            solveCells(m, i, j, counters, countered, powerAdvantage, mapAdvantage);
+            if (j != i) {
+               solveCells(m, j, i, countered, counters, -powerAdvantage, mapAdvantage);
+            }
+         }
+      }
+
+      /**
+       * Solves one ordered pair for both starting attackers.
+       *
+       * @param m              the map position
+       * @param team1          team 1's position
+       * @param team2          team 2's position
+       * @param counters       probability that team 1 counters team 2
+       * @param countered      probability that team 2 counters team 1
+       * @param powerAdvantage team 1's relative power advantage
+       * @param mapAdvantage   the map's attacker advantage
+       */
+      private void solveCells(int m, int team1, int team2, double counters, double countered, double powerAdvantage,
+            double mapAdvantage) {
+         double attack = MatchProbabilitySolver.roundWinProbability(counters, countered, powerAdvantage, mapAdvantage,
+               1);
+         double defense = MatchProbabilitySolver.roundWinProbability(counters, countered, powerAdvantage, mapAdvantage,
+               2);
+         winProbabilities[cell(m, 1, team1, team2)] = (float) MatchProbabilitySolver.matchWinProbability(attack,
+               defense, 1);
+         winProbabilities[cell(m, 2, team1, team2)] = (float) MatchProbabilitySolver.matchWinProbability(attack,
+               defense, 2);
+      }
+   }
+}
@@ -0,0 +1,626 @@
+package com.simulator;
+
+/**
+ * <p>
+ * Compiled, immutable description of a matchup that simulation workers can
+ * share without copying.
+ * </p>
+ *
+ * <p>
+ * A plan is built once from two complete {@link TeamComp}s, a map and the
+ * starting attacker. It keeps only the primitive values the round kernel
+ * needs:
+ * </p>
+ * <ul>
+ * <li>Per-team true style sums, total relative power and style roll
+ * thresholds</li>
+ * <li>The relative power advantage and the map's attacker advantage</li>
+ * <li>The probability of each team countering the other in a round</li>
+ * <li>Team 1's marginal round win probability per attacking side, with the
+ * style rolls and stylistic swing integrated out, for the table-driven
+ * kernel</li>
+ * <li>Cumulative distributions of the halftime score and of each second half
+ * result, plus the overtime pair odds, for half-level sampling</li>
+ * </ul>
+ *
+ * <p>
+ * Because a plan never changes after construction, any number of
+ * {@link MatchSimulator}s on any number of threads can read it at the same
+ * time. Changing the map or starting attacker produces a new plan.
+ * </p>
+ *
+ * <p>
+ * Styles are encoded as their {@link TeamComp.Style} ordinal (AGGRO = 0,
+ * CONTROL = 1, MIDRANGE = 2), so a style counters exactly the style whose
+ * ordinal is one higher (wrapping around).
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see MatchSimulator
+ * @see TeamComp
+ */
+
+public final class MatchupPlan {
+   public static final int AGGRO = 0;
+   public static final int CONTROL = 1;
+   public static final int MIDRANGE = 2;
+   private static final int STYLE_COUNT = 3;
+   private static final double FIFTY_FIFTY_CHANCE = 50.0;
+   private static final int ROUNDS_PER_HALF = 12;
+   private static final int ROUNDS_TO_WIN = 13;
+   /** Radix used to pack a (team 1 rounds, team 2 rounds) score into an int. */
+   public static final int SCORE_RADIX = 32;
+
+   private final String map;
+   private final int startingAttacker;
+   private final double attackerMapAdvantage;
+   private final double relativePowerAdvantage;
+   private final double team1TrueAggro;
+   private final double team1TrueControl;
+   private final double team1TrueMidrange;
+   private final double team1TotalRelativePower;
+   private final double team1ControlThreshold;
+   private final double team1MaxPoints;
+   private final double team2TrueAggro;
+   private final double team2TrueControl;
+   private final double team2TrueMidrange;
+   private final double team2TotalRelativePower;
+   private final double team2ControlThreshold;
+   private final double team2MaxPoints;
+   private final double team1CounterProbability;
+   private final double team2CounterProbability;
+   // Round tables indexed by attacking team - 1
+   private final double[] team1RoundWinProbability = new double[2];
+   private final double[] fiftyFiftyProbability = new double[2];
+   // Half-level sampling tables
+   private final double[] halftimeCdf;
+   private final double[][] secondHalfCdf = new double[ROUNDS_PER_HALF + 1][];
+   private final int[][] secondHalfScores = new int[ROUNDS_PER_HALF + 1][];
+   private final double overtimeTiedLog;
+   private final double overtimeTeam1Share;
+
+   /**
+    * Constructs a plan from already summed team statistics.
+    *
+    * @param map                     the map name (used for the attacker
+    *                                advantage; unknown names have none)
+    * @param startingAttacker        the team that attacks first (1 or 2)
+    * @param team1TrueAggro          team 1's total true aggro
+    * @param team1TrueControl        team 1's total true control
+    * @param team1TrueMidrange       team 1's total true midrange
+    * @param team1TotalRelativePower team 1's total relative power
+    * @param team2TrueAggro          team 2's total true aggro
+    * @param team2TrueControl        team 2's total true control
+    * @param team2TrueMidrange       team 2's total true midrange
+    * @param team2TotalRelativePower team 2's total relative power
+    * @throws IllegalArgumentException if the starting attacker is not 1 or 2 or
+    *                                  the map is null
+    */
+   public MatchupPlan(String map, int startingAttacker, double team1TrueAggro, double team1TrueControl,
+         double team1TrueMidrange, double team1TotalRelativePower, double team2TrueAggro, double team2TrueControl,
+         double team2TrueMidrange, double team2TotalRelativePower) {
+      this(map, MatchSimulator.attackerMapAdvantage(requireMap(map)), startingAttacker, team1TrueAggro,
+            team1TrueControl, team1TrueMidrange, team1TotalRelativePower, team2TrueAggro, team2TrueControl,
+            team2TrueMidrange, team2TotalRelativePower);
+   }
+
+   /**
+    * Constructs a plan from already summed team statistics and a map's
+    * attacker advantage taken from a specific catalog rather than the active
+    * one.
+    *
+    * @param map                     the map name
+    * @param attackerMapAdvantage    the map's attacker advantage (0 for none)
+    * @param startingAttacker        the team that attacks first (1 or 2)
+    * @param team1TrueAggro          team 1's total true aggro
+    * @param team1TrueControl        team 1's total true control
+    * @param team1TrueMidrange       team 1's total true midrange
+    * @param team1TotalRelativePower team 1's total relative power
+    * @param team2TrueAggro          team 2's total true aggro
+    * @param team2TrueControl        team 2's total true control
+    * @param team2TrueMidrange       team 2's total true midrange
+    * @param team2TotalRelativePower team 2's total relative power
+    * @throws IllegalArgumentException if the starting attacker is not 1 or 2 or
+    *                                  the map is null
+    */
+   public MatchupPlan(String map, double attackerMapAdvantage, int startingAttacker, double team1TrueAggro,
+         double team1TrueControl, double team1TrueMidrange, double team1TotalRelativePower, double team2TrueAggro,
+         double team2TrueControl, double team2TrueMidrange, double team2TotalRelativePower) {
+      requireMap(map);
+      if (startingAttacker != 1 && startingAttacker != 2) {
+         throw new IllegalArgumentException("Team must be 1 or 2, got: " + startingAttacker);
+      }
+      this.attackerMapAdvantage = attackerMapAdvantage;
+      this.map = (attackerMapAdvantage == 0.0) ? "N/A" : map.toLowerCase();
+      this.startingAttacker = startingAttacker;
+      this.team1TrueAggro = team1TrueAggro;
+      this.team1TrueControl = team1TrueControl;
+      this.team1TrueMidrange = team1TrueMidrange;
+      this.team1TotalRelativePower = team1TotalRelativePower;
+      this.team1MaxPoints = team1TrueAggro + team1TrueControl + team1TrueMidrange;
+      this.team1ControlThreshold = team1MaxPoints - team1TrueMidrange;
+      this.team2TrueAggro = team2TrueAggro;
+      this.team2TrueControl = team2TrueControl;
+      this.team2TrueMidrange = team2TrueMidrange;
+      this.team2TotalRelativePower = team2TotalRelativePower;
+      this.team2MaxPoints = team2TrueAggro + team2TrueControl + team2TrueMidrange;
+      this.team2ControlThreshold = team2MaxPoints - team2TrueMidrange;
+      this.relativePowerAdvantage = MatchSimulator.relativePowerAdvantage(team1TotalRelativePower,
+            team2TotalRelativePower);
+
+      double[] team1Styles = styleProbabilities(team1TrueAggro, team1TrueControl, team1TrueMidrange, team1MaxPoints);
+      double[] team2Styles = styleProbabilities(team2TrueAggro, team2TrueControl, team2TrueMidrange, team2MaxPoints);
+      double team1Counters = counterProbability(team1Styles, team2Styles);
+      double team2Counters = counterProbability(team2Styles, team1Styles);
+      this.team1CounterProbability = team1Counters;
+      this.team2CounterProbability = team2Counters;
+
+      for (int side = 1; side <= 2; side++) {
+         team1RoundWinProbability[side - 1] = MatchProbabilitySolver.roundWinProbability(this, side);
+         // A round is a true 50/50 only without a counter and with no base
+         // advantage, exactly as findAndSetRoundWinner() detects it
+         boolean evenOdds = FIFTY_FIFTY_CHANCE + baseTeam1Advantage(side) == FIFTY_FIFTY_CHANCE;
+         fiftyFiftyProbability[side - 1] = evenOdds ? 1.0 - team1Counters - team2Counters : 0.0;
+      }
+
+      double firstHalf = getTeam1RoundWinProbability(startingAttacker);
+      double secondHalf = getTeam1RoundWinProbability(3 - startingAttacker);
+      halftimeCdf = cumulative(MatchProbabilitySolver.binomial(ROUNDS_PER_HALF, firstHalf));
+      for (int h = 0; h <= ROUNDS_PER_HALF; h++) {
+         buildSecondHalfTable(h, secondHalf);
+      }
+      double pairWin = firstHalf * secondHalf;
+      double pairLoss = (1.0 - firstHalf) * (1.0 - secondHalf);
+      double tied = 1.0 - pairWin - pairLoss;
+      overtimeTiedLog = (tied > 0) ? Math.log(tied) : Double.NEGATIVE_INFINITY;
+      overtimeTeam1Share = (pairWin + pairLoss > 0) ? pairWin / (pairWin + pairLoss) : Double.NaN;
+   }
+
+   /**
+    * Compiles a plan from two complete team compositions.
+    *
+    * The teams' current totals are copied, so the plan is unaffected by later
+    * changes to either {@link TeamComp}. Agent relative power is taken as the
+    * teams were balanced; {@code map} only selects the attacker advantage,
+    * which comes from team 1's catalog so the whole plan reflects one catalog
+    * version.
+    *
+    * @param teamOne          team 1's composition
+    * @param teamTwo          team 2's composition
+    * @param map              the map name
+    * @param startingAttacker the team that attacks first (1 or 2)
+    * @return the compiled plan
+    * @throws IllegalArgumentException if a team is null, the map is null or the
+    *                                  starting attacker is invalid
+    */
+   public static MatchupPlan compile(TeamComp teamOne, TeamComp teamTwo, String map, int startingAttacker) {
+      if (teamOne == null || teamTwo == null) {
+         throw new IllegalArgumentException("Invalid input in MatchupPlan. Team compositions cannot be null.");
+      }
+      return new MatchupPlan(map, teamOne.getCatalog().getAttackerMapAdvantage(requireMap(map)), startingAttacker,
+            teamOne.getTotalTrueAggro(), teamOne.getTotalTrueControl(), teamOne.getTotalTrueMidrange(),
+            teamOne.getTotalRelativePower(),
+            teamTwo.getTotalTrueAggro(), teamTwo.getTotalTrueControl(), teamTwo.getTotalTrueMidrange(),
+            teamTwo.getTotalRelativePower());
+   }
+
+   /**
+    * Returns a copy of this plan with a different starting attacker.
+    *
+    * @param team the team that attacks first (1 or 2)
+    * @return a plan with the same teams and map starting with {@code team}
+    *         attacking
+    */
+   public MatchupPlan withStartingAttacker(int team) {
+      if (team == startingAttacker) {
+         return this;
+      }
+      return new MatchupPlan(map, attackerMapAdvantage, team, team1TrueAggro, team1TrueControl, team1TrueMidrange,
+            team1TotalRelativePower, team2TrueAggro, team2TrueControl, team2TrueMidrange, team2TotalRelativePower);
+   }
+
+   /************* Round kernel methods *************/
+   /**
+    * Maps a style roll to a style for one team.
+    *
+    * Same thresholds as {@code TeamComp.calculateStyle()}: the roll is scaled
+    * to the team's total true points and compared against the aggro and control
+    * ranges. A team without stats always plays MIDRANGE.
+    *
+    * @param team the team (1 or 2)
+    * @param roll a uniform value in [0, 1)
+    * @return the style ordinal
+    */
+   public int styleForRoll(int team, double roll) {
+      double maxPoints = (team == 1) ? team1MaxPoints : team2MaxPoints;
+      double aggroThreshold = (team == 1) ? team1TrueAggro : team2TrueAggro;
+      double controlThreshold = (team == 1) ? team1ControlThreshold : team2ControlThreshold;
+      double styleRoll = roll * maxPoints;
+      if (styleRoll < aggroThreshold) {
+         return AGGRO;
+      } else if (styleRoll < controlThreshold) {
+         return CONTROL;
+      }
+      return MIDRANGE;
+   }
+
+   /**
+    * Checks if a team has style stats to roll against. Teams without stats
+    * always play MIDRANGE and do not consume a style roll.
+    *
+    * @param team the team (1 or 2)
+    * @return true if the team's style is rolled each round
+    */
+   public boolean hasStyleRoll(int team) {
+      return ((team == 1) ? team1MaxPoints : team2MaxPoints) > 0;
+   }
+
+   /**
+    * Checks if one style counters another.
+    *
+    * @param style      the style ordinal of the team that may counter
+    * @param otherStyle the opponent's style ordinal
+    * @return true if {@code style} counters {@code otherStyle}
+    */
+   public static boolean counters(int style, int otherStyle) {
+      return otherStyle == (style + 1) % STYLE_COUNT;
+   }
+
+   /**
+    * Returns team 1's advantage before stylistic effects for an attacking side.
+    *
+    * @param attackingTeam the attacking team (1 or 2)
+    * @return the relative power advantage plus or minus the map advantage
+    */
+   public double baseTeam1Advantage(int attackingTeam) {
+      return (attackingTeam == 1) ? relativePowerAdvantage + attackerMapAdvantage
+            : relativePowerAdvantage - attackerMapAdvantage;
+   }
+
+   /**
+    * Returns team 1's advantage in a round once both styles and the stylistic
+    * swing are known. The attacking team gains the swing when its style
+    * counters the defender's without being countered, and loses it the other
+    * way around.
+    *
+    * @param attackingTeam      the attacking team (1 or 2)
+    * @param team1Style         team 1's style ordinal
+    * @param team2Style         team 2's style ordinal
+    * @param stylisticAdvantage the stylistic swing (1-5)
+    * @return team 1's advantage in percent
+    */
+   public double team1Advantage(int attackingTeam, int team1Style, int team2Style, double stylisticAdvantage) {
+      boolean team1CanCounter = counters(team1Style, team2Style);
+      boolean team2CanCounter = counters(team2Style, team1Style);
+      boolean attackerCounters = (attackingTeam == 1) ? team1CanCounter && !team2CanCounter
+            : team2CanCounter && !team1CanCounter;
+      boolean defenderCounters = (attackingTeam == 1) ? team2CanCounter && !team1CanCounter
+            : team1CanCounter && !team2CanCounter;
+      double advantage = baseTeam1Advantage(attackingTeam);
+      if (attackerCounters) {
+         return advantage + stylisticAdvantage;
+      } else if (defenderCounters) {
+         return advantage - stylisticAdvantage;
+      }
+      return advantage;
+   }
+
+   /**
+    * Gets team 1's round win probability for an attacking side, with the
+    * style rolls and the stylistic swing integrated out.
+    *
+    * @param attackingTeam the attacking team (1 or 2)
+    * @return team 1's round win probability (0-1)
+    */
+   public double getTeam1RoundWinProbability(int attackingTeam) {
+      return team1RoundWinProbability[attackingTeam - 1];
+   }
+
+   /**
+    * Gets the probability that a round on an attacking side is a true 50/50
+    * (no counter and no base advantage). Half of this mass lies at the start of
+    * team 1's winning interval [0, p) and half at the start of team 2's
+    * interval [p, 1), so one uniform roll decides both the winner and whether
+    * the round was a 50/50.
+    *
+    * @param attackingTeam the attacking team (1 or 2)
+    * @return the 50/50 probability (0-1)
+    */
+   public double getFiftyFiftyProbability(int attackingTeam) {
+      return fiftyFiftyProbability[attackingTeam - 1];
+   }
+
+   /**
+    * Checks if any round of this matchup can be a true 50/50.
+    *
+    * @return true if either side has 50/50 mass
+    */
+   public boolean hasFiftyFiftyRounds() {
+      return fiftyFiftyProbability[0] > 0 || fiftyFiftyProbability[1] > 0;
+   }
+
+   /************* Half-level sampling methods *************/
+   /**
+    * Samples the number of first half rounds won by team 1, which is binomial
+    * with 12 rounds on the starting side.
+    *
+    * @param roll a uniform value in [0, 1)
+    * @return team 1's halftime rounds (0-12)
+    */
+   public int sampleHalftime(double roll) {
+      return sampleIndex(halftimeCdf, roll);
+   }
+
+   /**
+    * Samples how the second half ends from a halftime score. The result is
+    * either a regulation final score or 12-12.
+    *
+    * @param halftimeTeam1Rounds team 1's halftime rounds (0-12)
+    * @param roll                a uniform value in [0, 1)
+    * @return the score packed as {@code team1Rounds * SCORE_RADIX + team2Rounds}
+    */
+   public int sampleSecondHalf(int halftimeTeam1Rounds, double roll) {
+      return secondHalfScores[halftimeTeam1Rounds][sampleIndex(secondHalfCdf[halftimeTeam1Rounds], roll)];
+   }
+
+   /**
+    * Samples the number of tied round pairs played in overtime before one team
+    * wins both rounds of a pair. This is geometric in the tie probability.
+    *
+    * @param roll a uniform value in (0, 1]
+    * @return the number of tied pairs (0 or more)
+    */
+   public int sampleOvertimeLength(double roll) {
+      if (overtimeTiedLog == Double.NEGATIVE_INFINITY) {
+         return 0;
+      }
+      return (int) Math.min(Integer.MAX_VALUE / 4, Math.floor(Math.log(roll) / overtimeTiedLog));
+   }
+
+   /**
+    * Gets team 1's probability of winning the deciding overtime pair, given
+    * that it is decided.
+    *
+    * @return team 1's share of decided pairs (0-1)
+    * @throws IllegalStateException if overtime can never be decided
+    */
+   public double getOvertimeTeam1Share() {
+      if (Double.isNaN(overtimeTeam1Share)) {
+         throw new IllegalStateException("Overtime can be reached but never decided with these round odds.");
+      }
+      return overtimeTeam1Share;
+   }
+
+   /**
+    * Builds the cumulative distribution of second half results from one
+    * halftime score by walking the score grid in order of rounds played.
+    *
+    * @param halftimeTeam1Rounds team 1's halftime rounds
+    * @param secondHalf          team 1's round win probability in the second
+    *                            half
+    */
+   private void buildSecondHalfTable(int halftimeTeam1Rounds, double secondHalf) {
+      double[][] state = new double[ROUNDS_TO_WIN][ROUNDS_TO_WIN];
+      double[] terminal = new double[ROUNDS_TO_WIN * SCORE_RADIX + ROUNDS_TO_WIN + 1];
+      state[halftimeTeam1Rounds][ROUNDS_PER_HALF - halftimeTeam1Rounds] = 1.0;
+      for (int played = ROUNDS_PER_HALF; played < 2 * ROUNDS_PER_HALF; played++) {
+         for (int t1 = Math.max(0, played - ROUNDS_PER_HALF); t1 <= Math.min(ROUNDS_PER_HALF, played); t1++) {
+            int t2 = played - t1;
+            double p = state[t1][t2];
+            if (p == 0) {
+               continue;
+            }
+            double win = p * secondHalf;
+            if (t1 + 1 == ROUNDS_TO_WIN) {
+               terminal[ROUNDS_TO_WIN * SCORE_RADIX + t2] += win;
+            } else {
+               state[t1 + 1][t2] += win;
+            }
+            if (t2 + 1 == ROUNDS_TO_WIN) {
+               terminal[t1 * SCORE_RADIX + ROUNDS_TO_WIN] += p - win;
+            } else {
+               state[t1][t2 + 1] += p - win;
+            }
+         }
+      }
+      terminal[ROUNDS_PER_HALF * SCORE_RADIX + ROUNDS_PER_HALF] = state[ROUNDS_PER_HALF][ROUNDS_PER_HALF];
+
+      int count = 0;
+      for (double p : terminal) {
+         if (p > 0) {
+            count++;
+         }
+      }
+      double[] probabilities = new double[count];
+      int[] scores = new int[count];
+      int next = 0;
+      for (int score = 0; score < terminal.length; score++) {
+         if (terminal[score] > 0) {
+            probabilities[next] = terminal[score];
+            scores[next] = score;
+            next++;
+         }
+      }
+      secondHalfCdf[halftimeTeam1Rounds] = cumulative(probabilities);
+      secondHalfScores[halftimeTeam1Rounds] = scores;
+   }
+
+   /************* Static helpers *************/
+   /**
+    * Checks that a map name was given.
+    *
+    * @param map the map name
+    * @return the map name
+    * @throws IllegalArgumentException if the map is null
+    */
+   private static String requireMap(String map) {
+      if (map == null) {
+         throw new IllegalArgumentException("Invalid input in MatchupPlan. Map name cannot be null.");
+      }
+      return map;
+   }
+
+   /**
+    * Converts a probability distribution into a cumulative distribution.
+    *
+    * @param probabilities the probabilities
+    * @return running sums of the probabilities
+    */
+   private static double[] cumulative(double[] probabilities) {
+      double[] cdf = new double[probabilities.length];
+      double sum = 0;
+      for (int i = 0; i < probabilities.length; i++) {
+         sum += probabilities[i];
+         cdf[i] = sum;
+      }
+      return cdf;
+   }
+
+   /**
+    * Returns the first index whose cumulative probability exceeds the roll.
+    * Rolls beyond the last entry (from rounding) select the last index.
+    *
+    * @param cdf  the cumulative distribution
+    * @param roll a uniform value in [0, 1)
+    * @return the sampled index
+    */
+   private static int sampleIndex(double[] cdf, double roll) {
+      int last = cdf.length - 1;
+      for (int i = 0; i < last; i++) {
+         if (roll < cdf[i]) {
+            return i;
+         }
+      }
+      return last;
+   }
+
+   /**
+    * Returns the probability of each style for the given true style sums.
+    *
+    * @param aggro     total true aggro
+    * @param control   total true control
+    * @param midrange  total true midrange
+    * @param maxPoints the sum of all three
+    * @return style probabilities indexed by style ordinal
+    */
+   static double[] styleProbabilities(double aggro, double control, double midrange, double maxPoints) {
+      if (maxPoints <= 0) {
+         return new double[] { 0, 0, 1 };
+      }
+      return new double[] { aggro / maxPoints, control / maxPoints, midrange / maxPoints };
+   }
+
+   /**
+    * Returns the probability that one team's style roll counters another's.
+    *
+    * @param styles      the countering team's style probabilities
+    * @param otherStyles the other team's style probabilities
+    * @return the probability of a counter (0-1)
+    */
+   static double counterProbability(double[] styles, double[] otherStyles) {
+      double counters = 0;
+      for (int style = 0; style < STYLE_COUNT; style++) {
+         counters += styles[style] * otherStyles[(style + 1) % STYLE_COUNT];
+      }
+      return counters;
+   }
+
+   /************* Getter methods *************/
+   /**
+    * Gets the map name.
+    *
+    * @return the lowercase map name, or "N/A" if the map has no attacker
+    *         advantage
+    */
+   public String getMap() {
+      return map;
+   }
+
+   /**
+    * Gets which team attacks first in each match.
+    *
+    * @return 1 or 2
+    */
+   public int getStartingAttacker() {
+      return startingAttacker;
+   }
+
+   /**
+    * Gets the map's attacker advantage.
+    *
+    * @return the attacker advantage in percent (negative favors defenders)
+    */
+   public double getAttackerMapAdvantage() {
+      return attackerMapAdvantage;
+   }
+
+   /**
+    * Gets team 1's relative power advantage.
+    *
+    * @return the advantage in percent (negative favors team 2)
+    */
+   public double getRelativePowerAdvantage() {
+      return relativePowerAdvantage;
+   }
+
+   /**
+    * Gets the probability that team 1's style counters team 2's style in a
+    * round.
+    *
+    * @return the counter probability (0-1)
+    */
+   public double getTeam1CounterProbability() {
+      return team1CounterProbability;
+   }
+
+   /**
+    * Gets the probability that team 2's style counters team 1's style in a
+    * round.
+    *
+    * @return the counter probability (0-1)
+    */
+   public double getTeam2CounterProbability() {
+      return team2CounterProbability;
+   }
+
+   /**
+    * Gets a team's total true aggro.
+    *
+    * @param team the team (1 or 2)
+    * @return the total true aggro
+    */
+   public double getTrueAggro(int team) {
+      return (team == 1) ? team1TrueAggro : team2TrueAggro;
+   }
+
+   /**
+    * Gets a team's total true control.
+    *
+    * @param team the team (1 or 2)
+    * @return the total true control
+    */
+   public double getTrueControl(int team) {
+      return (team == 1) ? team1TrueControl : team2TrueControl;
+   }
+
+   /**
+    * Gets a team's total true midrange.
+    *
+    * @param team the team (1 or 2)
+    * @return the total true midrange
+    */
+   public double getTrueMidrange(int team) {
+      return (team == 1) ? team1TrueMidrange : team2TrueMidrange;
+   }
+
+   /**
+    * Gets a team's total relative power.
+    *
+    * @param team the team (1 or 2)
+    * @return the total relative power
+    */
+   public double getTotalRelativePower(int team) {
+      return (team == 1) ? team1TotalRelativePower : team2TotalRelativePower;
+   }
+}
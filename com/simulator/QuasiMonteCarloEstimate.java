@@ -0,0 +1,342 @@
+package com.simulator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongConsumer;
+
+/**
+ * <p>
+ * Estimates a matchup with randomized quasi-Monte Carlo: several independently
+ * scrambled Sobol point sets in place of random streams.
+ * </p>
+ *
+ * <p>
+ * Each replicate plays its matches with
+ * {@link MatchSimulator#simulateMatchHalves()} on a {@link SobolRandom}, one
+ * point per match. The kernel needs at most four draws per match (halftime,
+ * second half, overtime length and overtime winner), so every match is a
+ * point in a low-dimensional unit cube and the outcome is a step function of
+ * it. A scrambled Sobol set covers that cube far more evenly than random
+ * points, so the error shrinks faster than the 1 / sqrt(n) of plain Monte
+ * Carlo and the same precision needs fewer matches.
+ * </p>
+ *
+ * <p>
+ * Every replicate's win rate is an unbiased estimate, and the replicates are
+ * independent, so the estimate is their mean and its error comes from their
+ * spread, with a Student t interval; see
+ * {@link ConfidenceInterval#replicateMean(double[], double)}. The effective
+ * sample size is the number of plain Monte Carlo matches with the same
+ * standard error. Each replicate uses a power of two points, where Sobol sets
+ * are best balanced.
+ * </p>
+ *
+ * <p>
+ * Matchups with true 50/50 rounds fall back to one draw per round inside the
+ * kernel. The leading {@value SobolRandom#DIMENSIONS} draws still come from
+ * the Sobol points and the rest from random streams, so the estimate stays
+ * unbiased, with a smaller gain.
+ * </p>
+ *
+ * <p>
+ * The replicates are split into point ranges on a {@link SimulationScheduler}.
+ * The results only depend on the plan, the seed, the match count and the
+ * number of replicates.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see SobolRandom
+ * @see SimulationScheduler
+ * @see ConfidenceInterval
+ */
+
+public final class QuasiMonteCarloEstimate {
+   /** The number of replicates when none is given. */
+   public static final int DEFAULT_REPLICATES = 16;
+   /** The fewest replicates whose spread gives a usable interval. */
+   public static final int MIN_REPLICATES = 4;
+   private static final long MIN_LEAF_MATCHES = 1_024;
+   private static final long MAX_LEAF_MATCHES = 65_536;
+   private static final int LEAVES_PER_THREAD = 8;
+   private final long jobSeed;
+   private final long pointsPerReplicate;
+   private final SimulationStatisticsCollector[] statistics;
+   private final double[] winRates;
+
+   /**
+    * Constructs the result of a finished job.
+    *
+    * @param jobSeed            the job seed
+    * @param pointsPerReplicate the matches of every replicate
+    * @param statistics         the statistics of every replicate
+    */
+   private QuasiMonteCarloEstimate(long jobSeed, long pointsPerReplicate, SimulationStatisticsCollector[] statistics) {
+      this.jobSeed = jobSeed;
+      this.pointsPerReplicate = pointsPerReplicate;
+      this.statistics = statistics;
+      winRates = new double[statistics.length];
+      for (int r = 0; r < statistics.length; r++) {
+         winRates[r] = statistics[r].getTeam1MatchWins() / (double) pointsPerReplicate;
+      }
+   }
+
+   /**
+    * Simulates about a number of matches, split evenly over the replicates,
+    * and blocks until the estimate is done.
+    *
+    * @param plan       the compiled matchup
+    * @param jobSeed    the job seed the replicates' scrambles are drawn from
+    * @param matchCount the approximate number of matches; every replicate
+    *                   plays the power of two closest to its share
+    * @param replicates the number of independent scrambles (at least
+    *                   {@value #MIN_REPLICATES})
+    * @param scheduler  the scheduler to simulate on
+    * @param progress   receives the number of matches each finished piece
+    *                   simulated, called from worker threads; may be null
+    * @return the estimate
+    * @throws IllegalArgumentException if the plan or scheduler is null, there
+    *                                  are fewer than {@value #MIN_REPLICATES}
+    *                                  replicates, or the match count is less
+    *                                  than the replicates
+    */
+   public static QuasiMonteCarloEstimate run(MatchupPlan plan, long jobSeed, long matchCount, int replicates,
+         SimulationScheduler scheduler, LongConsumer progress) {
+      if (plan == null || scheduler == null) {
+         throw new IllegalArgumentException(
+               "Invalid input in QuasiMonteCarloEstimate. Plan and scheduler cannot be null.");
+      }
+      if (replicates < MIN_REPLICATES) {
+         throw new IllegalArgumentException("Replicates must be at least " + MIN_REPLICATES + ", got: " + replicates);
+      }
+      if (matchCount < replicates) {
+         throw new IllegalArgumentException("Match count must be at least " + replicates + ", got: " + matchCount);
+      }
+      long points = nearestPowerOfTwo(Math.min(matchCount / replicates, SobolRandom.MAX_POINTS));
+      long leafMatches = Math.clamp(points * replicates / ((long) scheduler.getParallelism() * LEAVES_PER_THREAD),
+            MIN_LEAF_MATCHES, MAX_LEAF_MATCHES);
+      CounterRandom seeds = new CounterRandom(jobSeed);
+      List<PointRangeTask> tasks = new ArrayList<>(replicates);
+      for (int r = 0; r < replicates; r++) {
+         seeds.seekMatch(r);
+         Job job = new Job(plan, seeds.nextLong(), progress, leafMatches);
+         tasks.add(new PointRangeTask(job, 0, points));
+      }
+      SimulationStatisticsCollector[] statistics = scheduler.invoke(new ReplicatesTask(tasks));
+      return new QuasiMonteCarloEstimate(jobSeed, points, statistics);
+   }
+
+   /************* Getter methods *************/
+   /**
+    * Gets the job seed the replicates' scrambles were drawn from.
+    *
+    * @return the job seed
+    */
+   public long getJobSeed() {
+      return jobSeed;
+   }
+
+   /**
+    * Gets the number of replicates.
+    *
+    * @return the replicate count
+    */
+   public int getReplicates() {
+      return statistics.length;
+   }
+
+   /**
+    * Gets the number of matches every replicate played.
+    *
+    * @return the points per replicate, a power of two
+    */
+   public long getPointsPerReplicate() {
+      return pointsPerReplicate;
+   }
+
+   /**
+    * Gets the number of matches played by all replicates together.
+    *
+    * @return the match count
+    */
+   public long getMatchCount() {
+      return pointsPerReplicate * statistics.length;
+   }
+
+   /**
+    * Gets a replicate's team 1 match win rate.
+    *
+    * @param replicate the replicate
+    * @return the win rate (0-1)
+    */
+   public double getReplicateWinRate(int replicate) {
+      return winRates[replicate];
+   }
+
+   /**
+    * Gets the statistics of every match of every replicate, merged.
+    *
+    * @return the merged statistics
+    */
+   public SimulationStatisticsCollector getStatistics() {
+      SimulationStatisticsCollector merged = new SimulationStatisticsCollector();
+      for (SimulationStatisticsCollector replicate : statistics) {
+         merged.merge(replicate);
+      }
+      return merged;
+   }
+
+   /**
+    * Gets team 1's match win probability, the mean of the replicates.
+    *
+    * @return the estimate (0-1)
+    */
+   public double getEstimate() {
+      double sum = 0;
+      for (double winRate : winRates) {
+         sum += winRate;
+      }
+      return sum / winRates.length;
+   }
+
+   /**
+    * Gets the standard error of the estimate, from the spread of the
+    * replicates.
+    *
+    * @return the standard error
+    */
+   public double getStandardError() {
+      double mean = getEstimate();
+      double squares = 0;
+      for (double winRate : winRates) {
+         squares += (winRate - mean) * (winRate - mean);
+      }
+      return Math.sqrt(squares / (winRates.length - 1.0) / winRates.length);
+   }
+
+   /**
+    * Gets the Student t confidence interval of the estimate.
+    *
+    * @param confidence the confidence level (0-1 exclusive)
+    * @return the interval
+    */
+   public ConfidenceInterval getInterval(double confidence) {
+      return ConfidenceInterval.replicateMean(winRates, confidence);
+   }
+
+   /**
+    * Gets the number of plain Monte Carlo matches that would give the same
+    * standard error, p(1 - p) / SE^2.
+    *
+    * @return the effective sample size, or positive infinity if every
+    *         replicate had the same win rate
+    */
+   public double getEffectiveSampleSize() {
+      double p = getEstimate();
+      double standardError = getStandardError();
+      return (standardError > 0) ? p * (1.0 - p) / (standardError * standardError) : Double.POSITIVE_INFINITY;
+   }
+
+   /************* Helper methods *************/
+   /**
+    * Returns the power of two closest to a count on a log scale.
+    *
+    * @param count the count (at least 1)
+    * @return the power of two
+    */
+   private static long nearestPowerOfTwo(long count) {
+      long lower = Long.highestOneBit(count);
+      // Round up when count / lower is above sqrt(2)
+      return (lower < SobolRandom.MAX_POINTS && (double) count * count > 2.0 * lower * lower) ? lower * 2 : lower;
+   }
+
+   /**
+    * Settings shared by every piece of one replicate.
+    */
+   private record Job(MatchupPlan plan, long scrambleSeed, LongConsumer progress, long leafMatches) {
+   }
+
+   /**
+    * Runs every replicate and collects their statistics in replicate order.
+    */
+   private static final class ReplicatesTask extends RecursiveTask<SimulationStatisticsCollector[]> {
+      private static final long serialVersionUID = 1L;
+      private final transient List<PointRangeTask> replicates;
+
+      /**
+       * Constructs a new task for the replicates.
+       *
+       * @param replicates the root task of every replicate
+       */
+      ReplicatesTask(List<PointRangeTask> replicates) {
+         this.replicates = replicates;
+      }
+
+      @Override
+      protected SimulationStatisticsCollector[] compute() {
+         invokeAll(replicates);
+         SimulationStatisticsCollector[] statistics = new SimulationStatisticsCollector[replicates.size()];
+         for (int r = 0; r < statistics.length; r++) {
+            statistics[r] = replicates.get(r).join();
+         }
+         return statistics;
+      }
+   }
+
+   /**
+    * Simulates the points [from, to) of one replicate, splitting the range
+    * while it is larger than the job's leaf size.
+    */
+   private static final class PointRangeTask extends RecursiveTask<SimulationStatisticsCollector> {
+      private static final long serialVersionUID = 1L;
+      private final transient Job job;
+      private final long from;
+      private final long to;
+
+      /**
+       * Constructs a new task for a range of points.
+       *
+       * @param job  the replicate's settings
+       * @param from the first point index (inclusive)
+       * @param to   the last point index (exclusive)
+       */
+      PointRangeTask(Job job, long from, long to) {
+         this.job = job;
+         this.from = from;
+         this.to = to;
+      }
+
+      @Override
+      protected SimulationStatisticsCollector compute() {
+         if (to - from <= job.leafMatches()) {
+            return simulateRange();
+         }
+         long middle = from + (to - from) / 2;
+         PointRangeTask left = new PointRangeTask(job, from, middle);
+         left.fork();
+         SimulationStatisticsCollector right = new PointRangeTask(job, middle, to).compute();
+         SimulationStatisticsCollector statistics = left.join();
+         statistics.merge(right);
+         return statistics;
+      }
+
+      /**
+       * Plays one match per point of this range on a fresh simulator.
+       *
+       * @return the statistics of the range
+       */
+      private SimulationStatisticsCollector simulateRange() {
+         SobolRandom random = new SobolRandom(job.scrambleSeed());
+         MatchSimulator match = new MatchSimulator(job.plan(), random);
+         for (long i = from; i < to; i++) {
+            random.seekPoint(i);
+            match.simulateMatchHalves();
+         }
+         if (job.progress() != null) {
+            job.progress().accept(to - from);
+         }
+         return match.getStatistics();
+      }
+   }
+}
@@ -0,0 +1,158 @@
+package com.simulator;
+
+/**
+ * <p>
+ * Utility class that maps final match scorelines to compact array indices so
+ * scoreline distributions can be stored in flat primitive arrays.
+ * </p>
+ *
+ * <p>
+ * The index layout is:
+ * </p>
+ * <ul>
+ * <li>0-11: Team 1 wins in regulation, 13-0 through 13-11</li>
+ * <li>12-23: Team 2 wins in regulation, 0-13 through 11-13</li>
+ * <li>24 and up: overtime results in pairs (Team 1 win, Team 2 win), one pair
+ * per overtime length. The first pair is 14-12 / 12-14, the second pair is
+ * 15-13 / 13-15, and so on. The last pair also collects every longer
+ * overtime.</li>
+ * </ul>
+ *
+ * <p>
+ * This class cannot be instantiated and only provides static methods.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see MatchProbabilitySolver
+ */
+
+public final class Scoreline {
+   /** Number of distinct overtime lengths tracked before results are pooled. */
+   public static final int OVERTIME_LENGTHS = 16;
+   /** Total number of scoreline buckets. */
+   public static final int BUCKETS = 24 + 2 * OVERTIME_LENGTHS;
+   /** Number of distinct halftime scores (Team 1 won 0 through 12 rounds). */
+   public static final int HALFTIME_BUCKETS = 13;
+   private static final int ROUNDS_PER_HALF = 12;
+   private static final int ROUNDS_TO_WIN = 13;
+   private static final int REGULATION_BUCKETS = 24;
+
+   /**
+    * Private constructor to prevent instantiation of this utility class.
+    */
+   private Scoreline() {
+      // Private constructor to prevent instantiation
+   }
+
+   /**
+    * Returns the bucket index of a final scoreline.
+    *
+    * @param team1Rounds the rounds won by team 1
+    * @param team2Rounds the rounds won by team 2
+    * @return the bucket index in the range [0, {@link #BUCKETS})
+    * @throws IllegalArgumentException if the score is not a valid final score
+    */
+   public static int index(int team1Rounds, int team2Rounds) {
+      if (team1Rounds == ROUNDS_TO_WIN && team2Rounds >= 0 && team2Rounds < ROUNDS_PER_HALF) {
+         return team2Rounds;
+      }
+      if (team2Rounds == ROUNDS_TO_WIN && team1Rounds >= 0 && team1Rounds < ROUNDS_PER_HALF) {
+         return ROUNDS_PER_HALF + team1Rounds;
+      }
+      if (team1Rounds >= ROUNDS_PER_HALF && team2Rounds >= ROUNDS_PER_HALF
+            && Math.abs(team1Rounds - team2Rounds) == 2) {
+         int overtimeLength = Math.min(Math.min(team1Rounds, team2Rounds) - ROUNDS_PER_HALF, OVERTIME_LENGTHS - 1);
+         return overtimeIndex(overtimeLength, team1Rounds > team2Rounds);
+      }
+      throw new IllegalArgumentException("Not a final scoreline: " + team1Rounds + "-" + team2Rounds);
+   }
+
+   /**
+    * Returns the bucket index of an overtime result.
+    *
+    * @param overtimeLength the number of tied round pairs played before the
+    *                       deciding pair (0 for a 14-12 result), pooled into the
+    *                       last bucket when it is too long
+    * @param team1Won       true if team 1 won the match
+    * @return the bucket index
+    */
+   public static int overtimeIndex(int overtimeLength, boolean team1Won) {
+      int length = Math.min(overtimeLength, OVERTIME_LENGTHS - 1);
+      return REGULATION_BUCKETS + 2 * length + (team1Won ? 0 : 1);
+   }
+
+   /**
+    * Checks if the bucket represents a Team 1 match win.
+    *
+    * @param index the bucket index
+    * @return true if team 1 won every match in this bucket
+    */
+   public static boolean isTeam1Win(int index) {
+      if (index < REGULATION_BUCKETS) {
+         return index < ROUNDS_PER_HALF;
+      }
+      return (index - REGULATION_BUCKETS) % 2 == 0;
+   }
+
+   /**
+    * Checks if the bucket represents a match decided in overtime.
+    *
+    * @param index the bucket index
+    * @return true if the bucket holds overtime results
+    */
+   public static boolean isOvertime(int index) {
+      return index >= REGULATION_BUCKETS;
+   }
+
+   /**
+    * Gets the rounds won by team 1 for a bucket. For the pooled overtime bucket
+    * this is the shortest score it contains.
+    *
+    * @param index the bucket index
+    * @return the rounds won by team 1
+    */
+   public static int team1Rounds(int index) {
+      if (index < ROUNDS_PER_HALF) {
+         return ROUNDS_TO_WIN;
+      }
+      if (index < REGULATION_BUCKETS) {
+         return index - ROUNDS_PER_HALF;
+      }
+      int length = (index - REGULATION_BUCKETS) / 2;
+      return isTeam1Win(index) ? ROUNDS_PER_HALF + length + 2 : ROUNDS_PER_HALF + length;
+   }
+
+   /**
+    * Gets the rounds won by team 2 for a bucket. For the pooled overtime bucket
+    * this is the shortest score it contains.
+    *
+    * @param index the bucket index
+    * @return the rounds won by team 2
+    */
+   public static int team2Rounds(int index) {
+      if (index < ROUNDS_PER_HALF) {
+         return index;
+      }
+      if (index < REGULATION_BUCKETS) {
+         return ROUNDS_TO_WIN;
+      }
+      int length = (index - REGULATION_BUCKETS) / 2;
+      return isTeam1Win(index) ? ROUNDS_PER_HALF + length : ROUNDS_PER_HALF + length + 2;
+   }
+
+   /**
+    * Returns a display label for a bucket, such as "13-7" or "14-12". The
+    * pooled overtime bucket is suffixed with "+".
+    *
+    * @param index the bucket index
+    * @return the scoreline label
+    */
+   public static String label(int index) {
+      String label = team1Rounds(index) + "-" + team2Rounds(index);
+      if (index >= BUCKETS - 2) {
+         return label + "+";
+      }
+      return label;
+   }
+}
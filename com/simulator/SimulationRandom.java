@@ -0,0 +1,75 @@
+package com.simulator;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * <p>
+ * Utility class for the random number streams used by simulations.
+ * </p>
+ *
+ * <p>
+ * Every simulation job is driven by a single 64-bit job seed. Jobs give each
+ * match its own {@link CounterRandom} stream, keyed by the seed and the match
+ * index, so rerunning a job with the same seed reproduces every match bit for
+ * bit regardless of thread count or scheduling.
+ * </p>
+ *
+ * <p>
+ * Simulators that are not given a stream fall back to
+ * {@link ThreadLocalRandom}, which is fast but cannot be reproduced.
+ * </p>
+ *
+ * <p>
+ * This class cannot be instantiated and only provides static methods.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see MatchSimulator
+ * @see CounterRandom
+ * @see SimulationScheduler
+ */
+
+public final class SimulationRandom {
+
+   /**
+    * Private constructor to prevent instantiation of this utility class.
+    */
+   private SimulationRandom() {
+      // Private constructor to prevent instantiation
+   }
+
+   /**
+    * Returns the generator used when no stream is supplied.
+    *
+    * @return the current thread's {@link ThreadLocalRandom}
+    */
+   public static RandomGenerator unseeded() {
+      return ThreadLocalRandom.current();
+   }
+
+   /**
+    * Picks a fresh job seed for runs where the user did not supply one. The seed
+    * is reported with the results so the run can be repeated.
+    *
+    * @return a random job seed
+    */
+   public static long newJobSeed() {
+      return ThreadLocalRandom.current().nextLong();
+   }
+
+   /**
+    * Parses a job seed typed by the user.
+    *
+    * @param text the seed text, or null or blank for no seed
+    * @return the seed, or null if none was given
+    * @throws NumberFormatException if the text is not a 64-bit integer
+    */
+   public static Long parseJobSeed(String text) {
+      if (text == null || text.isBlank()) {
+         return null;
+      }
+      return Long.parseLong(text.trim());
+   }
+}
@@ -0,0 +1,356 @@
+package com.simulator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongConsumer;
+
+/**
+ * <p>
+ * Runs simulation jobs on a work-stealing {@link ForkJoinPool}.
+ * </p>
+ *
+ * <p>
+ * A job is a range of match indices. The range is split in half recursively
+ * until the pieces are small enough to simulate directly, so a thread that
+ * finishes early steals the unstarted halves of slower threads instead of
+ * sitting idle at the end of the job. Each piece runs on its own
+ * {@link MatchSimulator}, {@link CounterRandom} and
+ * {@link SimulationStatisticsCollector}; the collectors are merged as the
+ * pieces are joined.
+ * </p>
+ *
+ * <p>
+ * Because every match draws from the stream of its own index, the results of
+ * a job only depend on the plan, the seed and the range of match indices, not
+ * on the parallelism or on which thread ran which piece.
+ * </p>
+ *
+ * <p>
+ * Fast jobs play matchups with true 50/50 rounds round by round. When the JVM
+ * runs with {@code --add-modules jdk.incubator.vector}, those rounds run in
+ * SIMD lanes on a {@link VectorMatchSimulator}, which gives the same results
+ * as the scalar table kernel.
+ * </p>
+ *
+ * <p>
+ * Jobs can also run until a target precision is reached instead of for a
+ * fixed number of matches; see
+ * {@link #runToPrecision(MatchupPlan, long, long, double, double, long, LongConsumer)}.
+ * </p>
+ *
+ * <p>
+ * The same scheduler serves the console, the GUI and library callers. A
+ * scheduler can run many jobs, including several at once, and should be closed
+ * when it is no longer needed.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see MatchSimulator
+ * @see CounterRandom
+ * @see SimulationStatisticsCollector
+ * @see ConfidenceInterval
+ */
+
+public final class SimulationScheduler implements AutoCloseable {
+   private static final long MIN_LEAF_MATCHES = 1_024;
+   private static final long MAX_LEAF_MATCHES = 65_536;
+   private static final int LEAVES_PER_THREAD = 8;
+   private static final long MIN_BATCH_MATCHES = 65_536;
+   private static final int SCORE_BUFFER_MATCHES = 1_024;
+   // Checked before VectorMatchSimulator is loaded, since its class cannot be
+   // linked without the incubator module
+   private static final boolean VECTOR_KERNEL = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+   private final ForkJoinPool pool;
+
+   /**
+    * Constructs a new scheduler using every available processor.
+    */
+   public SimulationScheduler() {
+      this(getOptimalParallelism());
+   }
+
+   /**
+    * Constructs a new scheduler with a fixed number of worker threads.
+    *
+    * @param parallelism the number of worker threads
+    * @throws IllegalArgumentException if parallelism is less than 1
+    */
+   public SimulationScheduler(int parallelism) {
+      if (parallelism < 1) {
+         throw new IllegalArgumentException("Parallelism must be at least 1, got: " + parallelism);
+      }
+      pool = new ForkJoinPool(parallelism);
+   }
+
+   /**
+    * Gets the optimal number of threads for CPU-bound simulation, which is the
+    * number of available processors.
+    *
+    * @return the number of available processors
+    */
+   public static int getOptimalParallelism() {
+      return Runtime.getRuntime().availableProcessors();
+   }
+
+   /**
+    * Gets the number of worker threads of this scheduler.
+    *
+    * @return the parallelism
+    */
+   public int getParallelism() {
+      return pool.getParallelism();
+   }
+
+   /**
+    * Checks whether fast jobs with 50/50 rounds run on the SIMD lanes of
+    * {@link VectorMatchSimulator}, which needs the JVM to run with
+    * {@code --add-modules jdk.incubator.vector}.
+    *
+    * @return true if the Vector API module is available
+    */
+   public static boolean isVectorKernelAvailable() {
+      return VECTOR_KERNEL;
+   }
+
+   /**
+    * Simulates matches 0 through matchCount - 1 of a job with the half-level
+    * kernel.
+    *
+    * @param plan       the compiled matchup
+    * @param jobSeed    the job seed
+    * @param matchCount the number of matches to simulate
+    * @return the statistics of every simulated match
+    * @throws IllegalArgumentException if the plan is null or the match count is
+    *                                  negative
+    */
+   public SimulationStatisticsCollector run(MatchupPlan plan, long jobSeed, long matchCount) {
+      return run(plan, jobSeed, 0, matchCount, true, null);
+   }
+
+   /**
+    * Simulates a range of match indices of a job and blocks until it is done.
+    *
+    * @param plan            the compiled matchup
+    * @param jobSeed         the job seed
+    * @param firstMatchIndex the index of the first match to simulate
+    * @param matchCount      the number of matches to simulate
+    * @param fastSimulation  true for the half-level kernel, false for detailed
+    *                        round-by-round output
+    * @param progress        receives the number of matches each finished piece
+    *                        simulated, called from worker threads; may be null
+    * @return the statistics of every simulated match
+    * @throws IllegalArgumentException if the plan is null or the match count is
+    *                                  negative
+    */
+   public SimulationStatisticsCollector run(MatchupPlan plan, long jobSeed, long firstMatchIndex, long matchCount,
+         boolean fastSimulation, LongConsumer progress) {
+      if (plan == null) {
+         throw new IllegalArgumentException("Invalid input in SimulationScheduler. Matchup plan cannot be null.");
+      }
+      if (matchCount < 0) {
+         throw new IllegalArgumentException("Match count cannot be negative, got: " + matchCount);
+      }
+      long leafMatches = Math.clamp(matchCount / ((long) getParallelism() * LEAVES_PER_THREAD), MIN_LEAF_MATCHES,
+            MAX_LEAF_MATCHES);
+      Job job = new Job(plan, jobSeed, fastSimulation, progress, leafMatches);
+      return pool.invoke(new MatchRangeTask(job, firstMatchIndex, firstMatchIndex + matchCount));
+   }
+
+   /**
+    * Simulates consecutive batches of a job until the Wilson interval of team
+    * 1's match win rate is narrow enough, or the match budget runs out.
+    *
+    * <p>
+    * After each batch the interval is recomputed from the merged statistics. If
+    * it is still too wide, the next batch is sized from the current win rate
+    * estimate to reach the target in one more step, but is at least the minimum
+    * batch and at most doubles the matches simulated so far. Lopsided matchups
+    * therefore stop after far fewer matches than even ones. The batch sizes only
+    * depend on results, not on the parallelism, so a seeded run is still
+    * reproducible.
+    * </p>
+    *
+    * @param plan            the compiled matchup
+    * @param jobSeed         the job seed
+    * @param firstMatchIndex the index of the first match to simulate
+    * @param targetHalfWidth the largest acceptable margin of error (0-1), for
+    *                        example 0.0005 for plus or minus 0.05%
+    * @param confidence      the confidence level (0-1 exclusive), for example
+    *                        0.99
+    * @param maxMatches      the most matches to simulate
+    * @param progress        receives the number of matches each finished piece
+    *                        simulated, called from worker threads; may be null
+    * @return the statistics of every simulated match
+    * @throws IllegalArgumentException if the target is not positive, the
+    *                                  confidence level is outside (0, 1) or the
+    *                                  budget is less than 1
+    */
+   public SimulationStatisticsCollector runToPrecision(MatchupPlan plan, long jobSeed, long firstMatchIndex,
+         double targetHalfWidth, double confidence, long maxMatches, LongConsumer progress) {
+      if (!(targetHalfWidth > 0)) {
+         throw new IllegalArgumentException("Target margin of error must be positive, got: " + targetHalfWidth);
+      }
+      if (maxMatches < 1) {
+         throw new IllegalArgumentException("Match budget must be at least 1, got: " + maxMatches);
+      }
+      double z = ConfidenceInterval.zScore(confidence);
+      SimulationStatisticsCollector statistics = new SimulationStatisticsCollector();
+      long simulated = 0;
+      long batch = Math.min(MIN_BATCH_MATCHES, maxMatches);
+      while (batch > 0) {
+         statistics.merge(run(plan, jobSeed, firstMatchIndex + simulated, batch, true, progress));
+         simulated += batch;
+         long wins = statistics.getTeam1MatchWins();
+         if (ConfidenceInterval.wilson(wins, simulated, confidence).getHalfWidth() <= targetHalfWidth) {
+            break;
+         }
+         // Matches needed for the target at the current estimate (smoothed away
+         // from 0 and 1)
+         double p = (wins + 0.5) / (simulated + 1.0);
+         double required = z * z * p * (1.0 - p) / (targetHalfWidth * targetHalfWidth);
+         long shortfall = (long) Math.min(Math.ceil(required - simulated), Long.MAX_VALUE / 2);
+         batch = Math.min(maxMatches - simulated, Math.max(MIN_BATCH_MATCHES, Math.min(shortfall, simulated)));
+      }
+      return statistics;
+   }
+
+   /**
+    * Runs another kind of job, such as a comp search, on this scheduler's worker
+    * threads and blocks until it is done.
+    *
+    * @param <T>  the result type
+    * @param task the root task of the job
+    * @return the task's result
+    */
+   <T> T invoke(ForkJoinTask<T> task) {
+      return pool.invoke(task);
+   }
+
+   /**
+    * Shuts the worker threads down once running jobs have finished.
+    */
+   @Override
+   public void close() {
+      pool.shutdown();
+   }
+
+   /**
+    * Settings shared by every piece of one job.
+    */
+   private record Job(MatchupPlan plan, long jobSeed, boolean fastSimulation, LongConsumer progress,
+         long leafMatches) {
+   }
+
+   /**
+    * Simulates the match indices [from, to), splitting the range while it is
+    * larger than the job's leaf size.
+    */
+   private static final class MatchRangeTask extends RecursiveTask<SimulationStatisticsCollector> {
+      private static final long serialVersionUID = 1L;
+      private final transient Job job;
+      private final long from;
+      private final long to;
+
+      /**
+       * Constructs a new task for a range of match indices.
+       *
+       * @param job  the job settings
+       * @param from the first match index (inclusive)
+       * @param to   the last match index (exclusive)
+       */
+      MatchRangeTask(Job job, long from, long to) {
+         this.job = job;
+         this.from = from;
+         this.to = to;
+      }
+
+      @Override
+      protected SimulationStatisticsCollector compute() {
+         if (to - from <= job.leafMatches()) {
+            return simulateRange();
+         }
+         long middle = from + (to - from) / 2;
+         MatchRangeTask left = new MatchRangeTask(job, from, middle);
+         left.fork();
+         SimulationStatisticsCollector right = new MatchRangeTask(job, middle, to).compute();
+         SimulationStatisticsCollector statistics = left.join();
+         statistics.merge(right);
+         return statistics;
+      }
+
+      /**
+       * Simulates every match of this range on a fresh simulator.
+       *
+       * <p>
+       * Fast jobs use the half-level kernel. Their scores are written into
+       * buffers with {@link MatchSimulator#simulateBatch(long, int, int[], int[], int[])}
+       * and recorded a buffer at a time, which gives the same statistics as one
+       * call to simulateMatchHalves() per match. Matchups with true 50/50
+       * rounds are played round by round on the table kernel, so those rounds
+       * are still counted, in SIMD lanes when the Vector API is available.
+       * </p>
+       *
+       * @return the statistics of the range
+       */
+      private SimulationStatisticsCollector simulateRange() {
+         if (job.fastSimulation() && job.plan().hasFiftyFiftyRounds() && VECTOR_KERNEL) {
+            return simulateLanes();
+         }
+         CounterRandom random = new CounterRandom(job.jobSeed());
+         MatchSimulator match = new MatchSimulator(job.plan(), random);
+         if (job.fastSimulation() && !job.plan().hasFiftyFiftyRounds()) {
+            simulateBatches(match);
+            return match.getStatistics();
+         }
+         for (long i = from; i < to; i++) {
+            random.seekMatch(i);
+            if (job.fastSimulation()) {
+               match.simulateMatchHalves();
+            } else {
+               match.simulateMatch();
+            }
+         }
+         if (job.progress() != null) {
+            job.progress().accept(to - from);
+         }
+         return match.getStatistics();
+      }
+
+      /**
+       * Simulates every match of this range in SIMD lanes.
+       *
+       * @return the statistics of the range
+       */
+      private SimulationStatisticsCollector simulateLanes() {
+         SimulationStatisticsCollector statistics = new SimulationStatisticsCollector();
+         new VectorMatchSimulator(job.plan(), job.jobSeed()).simulateRange(from, to, statistics);
+         if (job.progress() != null) {
+            job.progress().accept(to - from);
+         }
+         return statistics;
+      }
+
+      /**
+       * Simulates every match of this range in score buffers and records each
+       * buffer in the simulator's collector.
+       *
+       * @param match the simulator, drawing from a {@link CounterRandom}
+       */
+      private void simulateBatches(MatchSimulator match) {
+         int[] team1Rounds = new int[SCORE_BUFFER_MATCHES];
+         int[] team2Rounds = new int[SCORE_BUFFER_MATCHES];
+         int[] halftimeTeam1Rounds = new int[SCORE_BUFFER_MATCHES];
+         SimulationStatisticsCollector statistics = match.getStatistics();
+         for (long first = from; first < to; first += SCORE_BUFFER_MATCHES) {
+            int n = (int) Math.min(SCORE_BUFFER_MATCHES, to - first);
+            match.simulateBatch(first, n, team1Rounds, team2Rounds, halftimeTeam1Rounds);
+            statistics.recordBatch(n, team1Rounds, team2Rounds, halftimeTeam1Rounds);
+         }
+         if (job.progress() != null) {
+            job.progress().accept(to - from);
+         }
+      }
+   }
+}
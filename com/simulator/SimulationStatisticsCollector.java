@@ -1,13 +1,12 @@
 package com.simulator;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Arrays;
 
 /**
  * <p>
- * A utility class for collecting and tracking statistics during Valorant match
- * simulations. This class uses static fields and methods to maintain global
- * counters for
- * various match outcomes.
+ * Collects and tracks statistics during Valorant match simulations. Each
+ * instance holds the counters of one worker or one job, so independent
+ * simulations can run in the same JVM at the same time.
  * </p>
  *
  * <p>
@@ -19,79 +18,112 @@ import java.util.concurrent.atomic.AtomicLong;
  * <li>Fifty-fifty wins - total number of rounds won by each team where both
  * sides
  * had a 50% chance of winning.</li>
+ * <li>Final scorelines - a histogram over the {@link Scoreline} buckets,
+ * including each overtime length.</li>
+ * <li>Halftime scores - a histogram of the rounds team 1 won in the first
+ * half.</li>
  * </ul>
  *
  * <p>
- * This class cannot be instantiated and only provides static methods for
- * accessing and modifying statistics.
+ * Counters are plain fields and are not thread-safe. Every worker updates its
+ * own collector without contention, and the job merges the worker collectors
+ * with {@link #merge(SimulationStatisticsCollector)} once the workers have
+ * finished.
  * </p>
  *
  * @author exicutioner161
  * @version 1.0
  * @see MatchSimulator
+ * @see Scoreline
  */
 
 public class SimulationStatisticsCollector {
-	private static final AtomicLong team1MatchWins;
-	private static final AtomicLong team2MatchWins;
-	private static final AtomicLong team1RoundWins;
-	private static final AtomicLong team2RoundWins;
-	private static final AtomicLong team1FiftyFiftyWins;
-	private static final AtomicLong team2FiftyFiftyWins;
-
-	static {
-		team1MatchWins = new AtomicLong(0);
-		team2MatchWins = new AtomicLong(0);
-		team1RoundWins = new AtomicLong(0);
-		team2RoundWins = new AtomicLong(0);
-		team1FiftyFiftyWins = new AtomicLong(0);
-		team2FiftyFiftyWins = new AtomicLong(0);
-	}
+	private long team1MatchWins;
+	private long team2MatchWins;
+	private long team1RoundWins;
+	private long team2RoundWins;
+	private long team1FiftyFiftyWins;
+	private long team2FiftyFiftyWins;
+	private final long[] scorelineCounts = new long[Scoreline.BUCKETS];
+	private final long[] halftimeCounts = new long[Scoreline.HALFTIME_BUCKETS];
 
 	/**
-	 * Private constructor to prevent instantiation of this utility class.
-	 *
-	 * This class is designed to be used only through its static methods
-	 * and should not be instantiated.
+	 * Constructs a new collector with every counter at zero.
 	 */
-	private SimulationStatisticsCollector() {
-		// Private constructor to prevent instantiation
+	public SimulationStatisticsCollector() {
+		// Counters start at zero; resetStats() is only for reuse
 	}
 
 	/**
 	 * Resets all statistics counters to zero.
 	 * <p>
-	 * Useful for ensuring isolated unit tests and reusing the statistics
-	 * collector between simulation runs.
+	 * Useful for reusing the statistics collector between simulation runs.
 	 * </p>
 	 */
-	public static void resetStats() {
-		team1MatchWins.set(0);
-		team2MatchWins.set(0);
-		team1RoundWins.set(0);
-		team2RoundWins.set(0);
-		team1FiftyFiftyWins.set(0);
-		team2FiftyFiftyWins.set(0);
+	public void resetStats() {
+		team1MatchWins = 0;
+		team2MatchWins = 0;
+		team1RoundWins = 0;
+		team2RoundWins = 0;
+		team1FiftyFiftyWins = 0;
+		team2FiftyFiftyWins = 0;
+		Arrays.fill(scorelineCounts, 0);
+		Arrays.fill(halftimeCounts, 0);
 	}
 
 	/**
-	 * Increments the match win counter for team 1.
+	 * Adds every counter of another collector to this one.
+	 *
+	 * Used to combine per-worker collectors into the job's totals after the
+	 * workers have finished.
 	 *
-	 * This method is thread-safe and can be called concurrently from
-	 * multiple simulation threads.
+	 * @param other the collector to add
+	 */
+	public void merge(SimulationStatisticsCollector other) {
+		team1MatchWins += other.team1MatchWins;
+		team2MatchWins += other.team2MatchWins;
+		team1RoundWins += other.team1RoundWins;
+		team2RoundWins += other.team2RoundWins;
+		team1FiftyFiftyWins += other.team1FiftyFiftyWins;
+		team2FiftyFiftyWins += other.team2FiftyFiftyWins;
+		for (int i = 0; i < Scoreline.BUCKETS; i++) {
+			scorelineCounts[i] += other.scorelineCounts[i];
+		}
+		for (int i = 0; i < Scoreline.HALFTIME_BUCKETS; i++) {
+			halftimeCounts[i] += other.halftimeCounts[i];
+		}
+	}
+
+	/**
+	 * Increments the match win counter for team 1.
 	 */
-	public static void incrementTeam1MatchWins() {
-		team1MatchWins.incrementAndGet();
+	public void incrementTeam1MatchWins() {
+		team1MatchWins++;
 	}
 
 	/**
 	 * Increments the match win counter for team 2.
+	 */
+	public void incrementTeam2MatchWins() {
+		team2MatchWins++;
+	}
+
+	/**
+	 * Adds the specified number of match wins to team 1's total.
+	 *
+	 * @param matches the number of matches won by team 1
+	 */
+	public void increaseTeam1MatchWins(long matches) {
+		team1MatchWins += matches;
+	}
+
+	/**
+	 * Adds the specified number of match wins to team 2's total.
 	 *
-	 * This method is thread-safe and can be called concurrently from
-	 * multiple simulation threads.
+	 * @param matches the number of matches won by team 2
 	 */
-	public static void incrementTeam2MatchWins() {
-		team2MatchWins.incrementAndGet();
+	public void increaseTeam2MatchWins(long matches) {
+		team2MatchWins += matches;
 	}
 
 	/**
@@ -102,8 +134,8 @@ public class SimulationStatisticsCollector {
 	 *
 	 * @param rounds the number of rounds won by team 1 in a match
 	 */
-	public static void increaseTeam1RoundWins(long rounds) {
-		team1RoundWins.addAndGet(rounds);
+	public void increaseTeam1RoundWins(long rounds) {
+		team1RoundWins += rounds;
 	}
 
 	/**
@@ -114,8 +146,8 @@ public class SimulationStatisticsCollector {
 	 *
 	 * @param rounds the number of rounds won by team 2 in a match
 	 */
-	public static void increaseTeam2RoundWins(long rounds) {
-		team2RoundWins.addAndGet(rounds);
+	public void increaseTeam2RoundWins(long rounds) {
+		team2RoundWins += rounds;
 	}
 
 	/**
@@ -125,8 +157,8 @@ public class SimulationStatisticsCollector {
 	 * but team 1 ultimately prevailed. This statistic helps analyze the
 	 * impact of random chance in simulation outcomes.
 	 */
-	public static void incrementTeam1FiftyFiftyWins() {
-		team1FiftyFiftyWins.incrementAndGet();
+	public void incrementTeam1FiftyFiftyWins() {
+		team1FiftyFiftyWins++;
 	}
 
 	/**
@@ -136,8 +168,125 @@ public class SimulationStatisticsCollector {
 	 * but team 2 ultimately prevailed. This statistic helps analyze the
 	 * impact of random chance in simulation outcomes.
 	 */
-	public static void incrementTeam2FiftyFiftyWins() {
-		team2FiftyFiftyWins.incrementAndGet();
+	public void incrementTeam2FiftyFiftyWins() {
+		team2FiftyFiftyWins++;
+	}
+
+	/**
+	 * Adds the specified number of fifty-fifty round wins to team 1's total.
+	 *
+	 * @param rounds the number of fifty-fifty rounds won by team 1
+	 */
+	public void increaseTeam1FiftyFiftyWins(long rounds) {
+		team1FiftyFiftyWins += rounds;
+	}
+
+	/**
+	 * Adds the specified number of fifty-fifty round wins to team 2's total.
+	 *
+	 * @param rounds the number of fifty-fifty rounds won by team 2
+	 */
+	public void increaseTeam2FiftyFiftyWins(long rounds) {
+		team2FiftyFiftyWins += rounds;
+	}
+
+	/**
+	 * Records the final scoreline of a match.
+	 *
+	 * @param team1Rounds the rounds won by team 1
+	 * @param team2Rounds the rounds won by team 2
+	 * @throws IllegalArgumentException if the score is not a valid final score
+	 */
+	public void recordScoreline(int team1Rounds, int team2Rounds) {
+		scorelineCounts[Scoreline.index(team1Rounds, team2Rounds)]++;
+	}
+
+	/**
+	 * Adds matches to a scoreline bucket, for example when restoring stored
+	 * statistics.
+	 *
+	 * @param index   the bucket index, see {@link Scoreline}
+	 * @param matches the number of matches that ended in that bucket
+	 */
+	public void increaseScorelineCount(int index, long matches) {
+		scorelineCounts[index] += matches;
+	}
+
+	/**
+	 * Records the final and halftime scores of a batch of matches, such as the
+	 * output of
+	 * {@link MatchSimulator#simulateBatch(long, int, int[], int[], int[])}.
+	 *
+	 * Adds the match wins, round wins, scorelines and halftime scores of all n
+	 * matches in one pass, so the collector ends up the same as if every match
+	 * had been recorded on its own. 50/50 rounds are not part of a batch and are
+	 * left unchanged.
+	 *
+	 * @param n                   the number of matches in the batch
+	 * @param team1Rounds         team 1's final rounds, one entry per match
+	 * @param team2Rounds         team 2's final rounds, one entry per match
+	 * @param halftimeTeam1Rounds team 1's first half rounds, one entry per match
+	 * @throws IllegalArgumentException if an array is null or shorter than n, or
+	 *                                  a score is not a valid final or halftime
+	 *                                  score
+	 */
+	public void recordBatch(int n, int[] team1Rounds, int[] team2Rounds, int[] halftimeTeam1Rounds) {
+		if (team1Rounds == null || team2Rounds == null || halftimeTeam1Rounds == null) {
+			throw new IllegalArgumentException("Invalid input in recordBatch. Score arrays cannot be null.");
+		}
+		if (n < 0 || team1Rounds.length < n || team2Rounds.length < n || halftimeTeam1Rounds.length < n) {
+			throw new IllegalArgumentException("Score arrays must hold at least " + n + " matches.");
+		}
+		long team1Wins = 0;
+		long team1Total = 0;
+		long team2Total = 0;
+		for (int i = 0; i < n; i++) {
+			int t1 = team1Rounds[i];
+			int t2 = team2Rounds[i];
+			int halftime = halftimeTeam1Rounds[i];
+			if (halftime < 0 || halftime >= halftimeCounts.length) {
+				throw new IllegalArgumentException("Halftime rounds must be between 0 and "
+						+ (halftimeCounts.length - 1) + ", got: " + halftime);
+			}
+			scorelineCounts[Scoreline.index(t1, t2)]++;
+			halftimeCounts[halftime]++;
+			team1Wins += (t1 > t2) ? 1 : 0;
+			team1Total += t1;
+			team2Total += t2;
+		}
+		team1MatchWins += team1Wins;
+		team2MatchWins += n - team1Wins;
+		team1RoundWins += team1Total;
+		team2RoundWins += team2Total;
+	}
+
+	/**
+	 * Records the halftime score of a match.
+	 *
+	 * @param team1Rounds the rounds team 1 won in the first half (0-12)
+	 */
+	public void recordHalftime(int team1Rounds) {
+		halftimeCounts[team1Rounds]++;
+	}
+
+	/**
+	 * Adds matches to a halftime score, for example when restoring stored
+	 * statistics.
+	 *
+	 * @param team1Rounds the rounds team 1 won in the first half (0-12)
+	 * @param matches     the number of matches with that halftime score
+	 */
+	public void increaseHalftimeCount(int team1Rounds, long matches) {
+		halftimeCounts[team1Rounds] += matches;
+	}
+
+	/**
+	 * Gets the total number of matches recorded by this collector.
+	 *
+	 * @return the match wins of both teams combined
+	 */
+	public long getTotalMatches() {
+		return team1MatchWins + team2MatchWins;
 	}
 
 	/**
@@ -145,8 +294,8 @@ public class SimulationStatisticsCollector {
 	 *
 	 * @return the cumulative match wins for team 1 across all simulations
 	 */
-	public static long getTeam1MatchWins() {
-		return team1MatchWins.get();
+	public long getTeam1MatchWins() {
+		return team1MatchWins;
 	}
 
 	/**
@@ -154,8 +303,8 @@ public class SimulationStatisticsCollector {
 	 *
 	 * @return the cumulative match wins for team 2 across all simulations
 	 */
-	public static long getTeam2MatchWins() {
-		return team2MatchWins.get();
+	public long getTeam2MatchWins() {
+		return team2MatchWins;
 	}
 
 	/**
@@ -163,8 +312,8 @@ public class SimulationStatisticsCollector {
 	 *
 	 * @return the cumulative round wins for team 1 across all simulations
 	 */
-	public static long getTeam1RoundWins() {
-		return team1RoundWins.get();
+	public long getTeam1RoundWins() {
+		return team1RoundWins;
 	}
 
 	/**
@@ -172,8 +321,8 @@ public class SimulationStatisticsCollector {
 	 *
 	 * @return the cumulative round wins for team 2 across all simulations
 	 */
-	public static long getTeam2RoundWins() {
-		return team2RoundWins.get();
+	public long getTeam2RoundWins() {
+		return team2RoundWins;
 	}
 
 	/**
@@ -185,8 +334,8 @@ public class SimulationStatisticsCollector {
 	 *
 	 * @return the cumulative fifty-fifty round wins for team 1
 	 */
-	public static long getTeam1FiftyFiftyWins() {
-		return team1FiftyFiftyWins.get();
+	public long getTeam1FiftyFiftyWins() {
+		return team1FiftyFiftyWins;
 	}
 
 	/**
@@ -198,7 +347,42 @@ public class SimulationStatisticsCollector {
 	 *
 	 * @return the cumulative fifty-fifty round wins for team 2
 	 */
-	public static long getTeam2FiftyFiftyWins() {
-		return team2FiftyFiftyWins.get();
+	public long getTeam2FiftyFiftyWins() {
+		return team2FiftyFiftyWins;
+	}
+
+	/**
+	 * Gets the number of matches that ended with a scoreline bucket.
+	 *
+	 * @param index the bucket index, see {@link Scoreline}
+	 * @return the number of matches in that bucket
+	 */
+	public long getScorelineCount(int index) {
+		return scorelineCounts[index];
+	}
+
+	/**
+	 * Gets the number of matches with a halftime score.
+	 *
+	 * @param team1Rounds the rounds team 1 won in the first half (0-12)
+	 * @return the number of matches with that halftime score
+	 */
+	public long getHalftimeCount(int team1Rounds) {
+		return halftimeCounts[team1Rounds];
+	}
+
+	/**
+	 * Gets the number of matches that went to overtime.
+	 *
+	 * @return the number of matches decided after 12-12
+	 */
+	public long getOvertimeMatches() {
+		long overtime = 0;
+		for (int i = 0; i < Scoreline.BUCKETS; i++) {
+			if (Scoreline.isOvertime(i)) {
+				overtime += scorelineCounts[i];
+			}
+		}
+		return overtime;
 	}
 }
\ No newline at end of file
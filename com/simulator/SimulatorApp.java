@@ -1,5 +1,8 @@
 package com.simulator;
 
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -7,10 +10,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -96,30 +97,46 @@ public class SimulatorApp extends Application {
 
     // UI Components
     private ComboBox<String> mapSelector;
+    private ComboBox<String> modeSelector;
     private final List<ComboBox<String>> team1Agents = new ArrayList<>();
     private final List<ComboBox<String>> team2Agents = new ArrayList<>();
     private TextField simulationCountField;
+    private TextField seedField;
+    private TextField marginField;
+    private TextField confidenceField;
     private ProgressBar progressBar;
     private Button simulateButton;
     private Label statusLabel;
     private TextArea resultsArea; // footer results text area shown in UI
     private static final String ARIAL_FONT = "Arial";
+    private static final String MODE_MONTE_CARLO = "Monte Carlo Simulation";
+    private static final String MODE_EXACT = "Exact Calculation";
+    private static final String MODE_PRECISION = "Target Precision";
+    private static final long MAX_SIMULATIONS = 1_000_000_000L;
+    private static final long PRECISION_PROGRESS_STEP = 1_000_000L;
+    private static final int RESULT_CACHE_CAPACITY = 1_024;
     private static final Logger logger = Logger.getLogger(SimulatorApp.class.getName());
     private static final NumberFormat numberFormat = NumberFormat.getInstance();
 
     // Simulation components
     private ExecutorService executorService;
+    private SimulationScheduler scheduler;
+
+    // Results of earlier Monte Carlo runs, reused or extended by repeat queries
+    // and saved to the result store so they survive restarts
+    private MatchResultCache resultCache;
+    private MatchResultStore resultStore;
+    private CompTables compTables;
+    private AgentCatalog compTablesCatalog;
+
+    // Reloads the catalog file given with --catalog=<file> when it changes
+    private AgentCatalogWatcher catalogWatcher;
 
     // Normalization map for agent names (sanitized -> canonical display name)
     private Map<String, String> agentCanonicalMap;
 
-    // Available agents (matching your AgentList)
-    private final String[] agents = {
-            "Astra", "Breach", "Brimstone", "Chamber", "Clove", "Cypher",
-            "Deadlock", "Fade", "Gekko", "Harbor", "Iso", "Jett",
-            "KAY/O", "Killjoy", "Neon", "Omen", "Phoenix", "Raze",
-            "Reyna", "Sage", "Skye", "Sova", "Tejo", "Viper", "Vyse", "Waylay", "Yoru"
-    };
+    // Available agents (matching the active agent catalog)
+    private final String[] agents = AgentCatalog.getActive().getAgentNames();
 
     // Available maps
     private final String[] maps = {
@@ -202,6 +219,7 @@ public class SimulatorApp extends Application {
             });
 
             primaryStage.show();
+            startCatalogWatcher();
         } catch (Throwable t) {
             // Signal to the launcher that GUI failed so it can fallback to console
             System.setProperty("simulator.guiFailed", "true");
@@ -216,9 +234,22 @@ public class SimulatorApp extends Application {
 
     @Override
     public void stop() {
+        if (catalogWatcher != null) {
+            catalogWatcher.close();
+        }
         if (executorService != null) {
             executorService.shutdownNow();
         }
+        if (scheduler != null) {
+            scheduler.close();
+        }
+        if (resultStore != null) {
+            try {
+                resultStore.close();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Could not close the result store", e);
+            }
+        }
     }
 
     /**
@@ -394,6 +425,17 @@ public class SimulatorApp extends Application {
         mapSelector.setMaxWidth(Double.MAX_VALUE);
         mapSelector.getStyleClass().add("map-selector");
 
+        // Simulation mode
+        Label modeLabel = new Label("Mode:");
+        modeLabel.setFont(Font.font(ARIAL_FONT, FontWeight.NORMAL, 12));
+
+        modeSelector = new ComboBox<>();
+        modeSelector.getItems().addAll(MODE_MONTE_CARLO, MODE_PRECISION, MODE_EXACT);
+        modeSelector.setValue(MODE_MONTE_CARLO);
+        modeSelector.setPrefWidth(200);
+        modeSelector.setMaxWidth(Double.MAX_VALUE);
+        modeSelector.getStyleClass().add("mode-selector");
+
         // Simulation count
         Label countLabel = new Label("Number of Simulations:");
         countLabel.setFont(Font.font(ARIAL_FONT, FontWeight.NORMAL, 12));
@@ -403,6 +445,33 @@ public class SimulatorApp extends Application {
         simulationCountField.setMaxWidth(Double.MAX_VALUE);
         simulationCountField.getStyleClass().add("simulation-count");
 
+        // Target precision (used by the target precision mode)
+        Label marginLabel = new Label("Margin of Error % (precision mode):");
+        marginLabel.setFont(Font.font(ARIAL_FONT, FontWeight.NORMAL, 12));
+
+        marginField = new TextField("0.05");
+        marginField.setPrefWidth(200);
+        marginField.setMaxWidth(Double.MAX_VALUE);
+        marginField.getStyleClass().add("simulation-count");
+
+        Label confidenceLabel = new Label("Confidence % (precision mode):");
+        confidenceLabel.setFont(Font.font(ARIAL_FONT, FontWeight.NORMAL, 12));
+
+        confidenceField = new TextField("99");
+        confidenceField.setPrefWidth(200);
+        confidenceField.setMaxWidth(Double.MAX_VALUE);
+        confidenceField.getStyleClass().add("simulation-count");
+
+        // Job seed (blank picks a fresh one)
+        Label seedLabel = new Label("Seed (optional):");
+        seedLabel.setFont(Font.font(ARIAL_FONT, FontWeight.NORMAL, 12));
+
+        seedField = new TextField();
+        seedField.setPromptText("Random");
+        seedField.setPrefWidth(200);
+        seedField.setMaxWidth(Double.MAX_VALUE);
+        seedField.getStyleClass().add("simulation-count");
+
         // Simulate button
         simulateButton = new Button("RUN SIMULATION");
         simulateButton.setPrefWidth(200);
@@ -428,7 +497,11 @@ public class SimulatorApp extends Application {
                 controlLabel,
                 new Separator(),
                 mapLabel, mapSelector,
+                modeLabel, modeSelector,
                 countLabel, simulationCountField,
+                marginLabel, marginField,
+                confidenceLabel, confidenceField,
+                seedLabel, seedField,
                 new Separator(),
                 simulateButton,
                 progressBar,
@@ -509,19 +582,88 @@ public class SimulatorApp extends Application {
             }
         }
 
-        // Validate simulation count
-        try {
-            long count = Long.parseLong(simulationCountField.getText());
-            if (count <= 0 || count > 1000000000) {
-                errors.add("Simulation count must be between 1 and 1,000,000,000");
+        // Validate simulation count (not needed for the exact calculation)
+        if (isExactMode()) {
+            return errors;
+        }
+        if (isPrecisionMode()) {
+            validatePercent(marginField, "Margin of error", errors);
+            validatePercent(confidenceField, "Confidence", errors);
+        } else {
+            try {
+                long count = Long.parseLong(simulationCountField.getText());
+                if (count <= 0 || count > MAX_SIMULATIONS) {
+                    errors.add("Simulation count must be between 1 and 1,000,000,000");
+                }
+            } catch (NumberFormatException _) {
+                errors.add("Invalid simulation count - please enter a number");
             }
+        }
+        try {
+            SimulationRandom.parseJobSeed(seedField.getText());
         } catch (NumberFormatException _) {
-            errors.add("Invalid simulation count - please enter a number");
+            errors.add("Invalid seed - please enter a whole number or leave it blank");
         }
 
         return errors;
     }
 
+    /**
+     * <p>
+     * Checks if the exact calculation mode is selected.
+     * </p>
+     *
+     * @return true if the exact calculation is selected instead of Monte Carlo
+     */
+    private boolean isExactMode() {
+        return MODE_EXACT.equals(modeSelector.getValue());
+    }
+
+    /**
+     * <p>
+     * Checks if the target precision mode is selected.
+     * </p>
+     *
+     * @return true if the simulation runs until a target precision is reached
+     */
+    private boolean isPrecisionMode() {
+        return MODE_PRECISION.equals(modeSelector.getValue());
+    }
+
+    /**
+     * <p>
+     * Adds a validation error unless the field holds a percentage strictly
+     * between 0 and 100.
+     * </p>
+     *
+     * @param field  the field to check
+     * @param name   the field name used in the error message
+     * @param errors the list of validation errors to add to
+     */
+    private void validatePercent(TextField field, String name, List<String> errors) {
+        try {
+            double percent = parsePercent(field);
+            if (!(percent > 0 && percent < 1)) {
+                errors.add(name + " must be between 0 and 100 percent");
+            }
+        } catch (NumberFormatException _) {
+            errors.add("Invalid " + name.toLowerCase() + " - please enter a number");
+        }
+    }
+
+    /**
+     * <p>
+     * Parses a percentage field such as "0.05" or "99%" into a fraction.
+     * </p>
+     *
+     * @param field the field to parse
+     * @return the percentage as a fraction
+     * @throws NumberFormatException if the field is not a number
+     */
+    private double parsePercent(TextField field) {
+        return Double.parseDouble(field.getText().trim().replace("%", "")) / 100.0;
+    }
+
     /**
      * <p>
      * Appends the selected agents for a given team to the provided results
@@ -708,47 +850,63 @@ public class SimulatorApp extends Application {
             logger.log(Level.INFO, "Simulation started...");
             // Get selected values
             String map = mapSelector.getValue();
-            long simCount = Long.parseLong(simulationCountField.getText());
+            if (isExactMode()) {
+                return runExactCalculation(map, startMs);
+            }
+            boolean precisionMode = isPrecisionMode();
+
+            // Build the whole job from one catalog version, even if a reload
+            // swaps in a new one while it runs
+            AgentCatalog catalog = AgentCatalog.getActive();
 
             // Create team compositions
-            TeamComp teamOne = new TeamComp(map);
-            TeamComp teamTwo = new TeamComp(map);
+            TeamComp teamOne = new TeamComp(catalog, map);
+            TeamComp teamTwo = new TeamComp(catalog, map);
 
             // Add agents to teams
             addAgentsToTeams(teamOne, teamTwo);
 
-            // Capture selected agent names for cloning per worker
-            List<String> team1Names = new ArrayList<>(5);
-            List<String> team2Names = new ArrayList<>(5);
-            captureSelectedAgentNames(team1Names, team2Names);
+            // Compile the matchup once; every worker reads the same plan
+            MatchupPlan plan = MatchupPlan.compile(teamOne, teamTwo, map, 1);
 
-            // Capture results
-            StringBuilder results = new StringBuilder();
-            appendHeaderAndCompositions(results, map, simCount);
+            // Every match's random stream comes from the job seed and its index,
+            // so the run can be repeated on any machine
+            Long requestedSeed = SimulationRandom.parseJobSeed(seedField.getText());
+            long seed = (requestedSeed != null) ? requestedSeed : SimulationRandom.newJobSeed();
 
-            // Multithreaded simulation: split work across a fixed thread pool
-            int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
-            int workers = computeWorkers(simCount, threads);
-            long simulationsPerWorker = simCount / workers;
-            long remainder = simCount % workers;
+            // Multithreaded simulation: the work-stealing scheduler splits the
+            // match range across its threads
             AtomicLong completed = new AtomicLong(0);
-            final int progressChunk = (int) Math.max(150, simCount / 100);
-
-            long totalTeam1Wins = 0;
-            long totalTeam2Wins = 0;
-            try (ExecutorService simPool = Executors.newVirtualThreadPerTaskExecutor()) {
-                List<Callable<long[]>> tasks = new ArrayList<>();
-                for (int w = 0; w < workers; w++) {
-                    long runs = returnDistributedRuns(w, simulationsPerWorker, remainder);
-                    if (runs <= 0) {
-                        continue;
-                    }
-                    tasks.add(createWorkerTask(map, simCount, progressChunk, completed, runs));
+            SimulationStatisticsCollector statistics;
+            double confidence;
+            long reusedMatches = 0;
+            if (precisionMode) {
+                confidence = parsePercent(confidenceField);
+                statistics = getScheduler().runToPrecision(plan, seed, 0, parsePercent(marginField), confidence,
+                        MAX_SIMULATIONS, finished -> reportMatchesSimulated(completed, finished));
+            } else {
+                long requested = Long.parseLong(simulationCountField.getText());
+                confidence = 0.95;
+                // Repeat queries only simulate the matches the cache does not hold
+                MatchResultCache.Key key = MatchResultCache.key(getCompTables(catalog), teamOne, teamTwo, map, 1);
+                if (key != null) {
+                    MatchResultCache.Result cached = getResultCache().run(key, plan, requestedSeed, requested,
+                            getScheduler(), finished -> throttleProgress(completed, finished, requested));
+                    seed = cached.jobSeed();
+                    statistics = cached.statistics();
+                    reusedMatches = cached.reusedMatches();
+                } else {
+                    statistics = getScheduler().run(plan, seed, 0, requested, true,
+                            finished -> throttleProgress(completed, finished, requested));
                 }
-                long[] totals = aggregateWins(simPool.invokeAll(tasks));
-                totalTeam1Wins += totals[0];
-                totalTeam2Wins += totals[1];
             }
+            long simCount = statistics.getTotalMatches();
+
+            // Capture results
+            StringBuilder results = new StringBuilder();
+            appendHeaderAndCompositions(results, map, simCount, seed);
+            long totalTeam1Wins = statistics.getTeam1MatchWins();
+            long totalTeam2Wins = statistics.getTeam2MatchWins();
             // Calculate statistics
             String team1WinRate = NumberFormat.getPercentInstance().format((double) totalTeam1Wins / (double) simCount);
             String team2WinRate = NumberFormat.getPercentInstance().format((double) totalTeam2Wins / (double) simCount);
@@ -758,6 +916,10 @@ public class SimulatorApp extends Application {
             results.append(String.format("Team 1 Wins: %s (%s)%n", numberFormat.format(totalTeam1Wins), team1WinRate));
             results.append(String.format("Team 2 Wins: %s (%s)%n", numberFormat.format(totalTeam2Wins), team2WinRate));
             results.append(String.format("Win Probability: %s vs %s%n", team1WinRate, team2WinRate));
+            ConfidenceInterval interval = ConfidenceInterval.wilson(totalTeam1Wins, simCount, confidence);
+            results.append(String.format("Team 1 Win Rate: %.4f%% +/- %.4f%% (%s%% confidence)%n",
+                    interval.getEstimate() * 100, interval.getHalfWidth() * 100, confidence * 100));
+            appendScorelineDistributions(results, statistics);
 
             // Add team statistics
             results.append("\nTEAM STATISTICS:\n");
@@ -784,6 +946,15 @@ public class SimulatorApp extends Application {
             results.append("\nPERFORMANCE:\n");
             results.append("-".repeat(40)).append("\n");
             results.append(String.format("Time elapsed: %d ms (%.3f seconds)%n", elapsedMs, elapsedSeconds));
+            if (!precisionMode) {
+                MatchResultCache cache = getResultCache();
+                results.append(String.format("Reused from cache: %s matches%n", numberFormat.format(reusedMatches)));
+                results.append(String.format(
+                        "Result cache: %d hits | %d refinements | %d misses | %d evictions | %d loaded from disk"
+                                + " | %d invalidated%n",
+                        cache.getHits(), cache.getRefinements(), cache.getMisses(), cache.getEvictions(),
+                        cache.getLoads(), cache.getInvalidations()));
+            }
 
             return results.toString();
 
@@ -798,31 +969,71 @@ public class SimulatorApp extends Application {
 
     /**
      * <p>
-     * Computes the number of worker tasks to launch, clamped to [1, simCount]
-     * and based on approximately 80% of available cores.
+     * Appends the final scoreline and halftime score distributions of a
+     * simulation. Scores that never occurred are omitted.
      * </p>
+     *
+     * @param results    the report being built
+     * @param statistics the merged statistics of the simulation
      */
-    private int computeWorkers(long simCount, int threads) {
-        long desiredWorkers = (long) Math.ceil(threads * 0.8);
-        if (desiredWorkers < 1)
-            desiredWorkers = 1;
-        if (desiredWorkers > simCount)
-            desiredWorkers = simCount;
-        return (int) desiredWorkers;
+    private void appendScorelineDistributions(StringBuilder results, SimulationStatisticsCollector statistics) {
+        long total = statistics.getTotalMatches();
+        results.append(String.format("Overtime: %s (%.4f%%)%n", numberFormat.format(statistics.getOvertimeMatches()),
+                statistics.getOvertimeMatches() * 100.0 / total));
+
+        results.append("\nFINAL SCORELINES (Team 1 - Team 2):\n");
+        results.append("-".repeat(40)).append("\n");
+        for (int i = 0; i < Scoreline.BUCKETS; i++) {
+            long count = statistics.getScorelineCount(i);
+            if (count > 0) {
+                results.append(String.format("  %-7s %15s %9.4f%%%n", Scoreline.label(i), numberFormat.format(count),
+                        count * 100.0 / total));
+            }
+        }
+
+        results.append("\nHALFTIME SCORES (Team 1 - Team 2):\n");
+        results.append("-".repeat(40)).append("\n");
+        for (int team1Rounds = Scoreline.HALFTIME_BUCKETS - 1; team1Rounds >= 0; team1Rounds--) {
+            long count = statistics.getHalftimeCount(team1Rounds);
+            if (count > 0) {
+                String label = team1Rounds + "-" + (Scoreline.HALFTIME_BUCKETS - 1 - team1Rounds);
+                results.append(String.format("  %-7s %15s %9.4f%%%n", label, numberFormat.format(count),
+                        count * 100.0 / total));
+            }
+        }
     }
 
     /**
      * <p>
-     * Appends the standard report header and team compositions section.
+     * Computes the exact match probabilities for the current GUI selections.
      * </p>
+     *
+     * <p>
+     * Solves the match as a Markov chain via
+     * {@link MatchSimulator#solveMatchExact()} instead of simulating, and reports
+     * the win probabilities, overtime chance and final scoreline distribution.
+     * </p>
+     *
+     * @param map     the selected map
+     * @param startMs the time the request started, for the performance section
+     * @return a formatted report string
      */
-    private void appendHeaderAndCompositions(StringBuilder results, String map, long simCount) {
+    private String runExactCalculation(String map, long startMs) {
+        AgentCatalog catalog = AgentCatalog.getActive();
+        TeamComp teamOne = new TeamComp(catalog, map);
+        TeamComp teamTwo = new TeamComp(catalog, map);
+        addAgentsToTeams(teamOne, teamTwo);
+
+        MatchSimulator sim = new MatchSimulator(teamOne, teamTwo);
+        sim.setMap(map);
+        sim.setAttackingTeam(1);
+        MatchProbabilityResult result = sim.solveMatchExact();
+
+        StringBuilder results = new StringBuilder();
         results.append("=".repeat(60)).append("\n");
-        results.append("VALORANT MATCH SIMULATION RESULTS\n");
+        results.append("VALORANT MATCH EXACT PROBABILITIES\n");
         results.append("=".repeat(60)).append("\n\n");
-        results.append("Map: ").append(map).append("\n");
-        results.append("Simulations: ").append(numberFormat.format(simCount)).append("\n\n");
-
+        results.append("Map: ").append(map).append("\n\n");
         results.append("TEAM COMPOSITIONS:\n");
         results.append("-".repeat(40)).append("\n");
         results.append("Team 1: ");
@@ -830,84 +1041,152 @@ public class SimulatorApp extends Application {
         results.append("\nTeam 2: ");
         outputAgents(results, 2);
         results.append("\n\n");
+
+        results.append("MATCH PROBABILITIES:\n");
+        results.append("-".repeat(40)).append("\n");
+        results.append(String.format("Team 1 Round Win Chance (attack/defense): %.4f%% / %.4f%%%n",
+                result.getTeam1AttackRoundWinProbability() * 100, result.getTeam1DefenseRoundWinProbability() * 100));
+        results.append(String.format("Win Probability: %.4f%% vs %.4f%%%n",
+                result.getTeam1MatchWinProbability() * 100, result.getTeam2MatchWinProbability() * 100));
+        results.append(String.format("Overtime Probability: %.4f%%%n", result.getOvertimeProbability() * 100));
+        results.append(String.format("Expected Rounds: %.3f - %.3f%n", result.getExpectedTeam1Rounds(),
+                result.getExpectedTeam2Rounds()));
+
+        results.append("\nFINAL SCORELINES (Team 1 - Team 2):\n");
+        results.append("-".repeat(40)).append("\n");
+        for (int i = 0; i < Scoreline.BUCKETS; i++) {
+            double probability = result.getScorelineProbability(i);
+            if (probability >= 0.00005) {
+                results.append(String.format("  %-7s %9.4f%%%n", Scoreline.label(i), probability * 100));
+            }
+        }
+
+        long elapsedMs = System.currentTimeMillis() - startMs;
+        logger.log(Level.INFO, "{0} ms elapsed", elapsedMs);
+        results.append("\nPERFORMANCE:\n");
+        results.append("-".repeat(40)).append("\n");
+        results.append(String.format("Time elapsed: %d ms%n", elapsedMs));
+        return results.toString();
     }
 
     /**
      * <p>
-     * Creates a worker task that runs a subset of simulations and returns
-     * local win totals as a long[2] array {team1Wins, team2Wins}.
+     * Returns the simulation scheduler, creating it on first use with
+     * approximately 80% of available cores. The scheduler is kept warm between
+     * runs and closed when the application stops.
      * </p>
+     *
+     * @return the shared simulation scheduler
      */
-    private Callable<long[]> createWorkerTask(String map, long simCount, int progressChunk,
-            AtomicLong completed, long runs) {
-        return () -> {
-            // Clone team compositions for this worker
-            TeamComp tOne = new TeamComp(map);
-            TeamComp tTwo = new TeamComp(map);
-            addAgentsToTeams(tOne, tTwo);
-
-            MatchSimulator sim = new MatchSimulator(tOne, tTwo);
-            sim.setMap(map);
-            sim.setAttackingTeam(1);
-
-            long localMatchesPlayed = 0;
-            long localTeam1Wins = 0;
-            long localTeam2Wins = 0;
-            for (long i = 0; i < runs; i++) {
-                sim.simulateMatchFast();
-                if (sim.getLastMatchWinner() == 1) {
-                    localTeam1Wins++;
-                } else {
-                    localTeam2Wins++;
-                }
+    private synchronized SimulationScheduler getScheduler() {
+        if (scheduler == null) {
+            int threads = (int) Math.ceil(SimulationScheduler.getOptimalParallelism() * 0.8);
+            scheduler = new SimulationScheduler(Math.max(1, threads));
+        }
+        return scheduler;
+    }
 
-                // progress throttling
-                localMatchesPlayed++;
-                throttleProgress(completed, localMatchesPlayed, simCount, progressChunk);
+    /**
+     * <p>
+     * Gets the result cache, creating it on first use. The cache is backed by
+     * the result store in the user's home directory; if the store cannot be
+     * opened, for example because the console has it open, results are only
+     * cached in memory.
+     * </p>
+     *
+     * @return the shared result cache
+     */
+    private synchronized MatchResultCache getResultCache() {
+        if (resultCache == null) {
+            try {
+                resultStore = MatchResultStore.open(MatchResultStore.defaultPath());
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Result store unavailable, caching results in memory only", e);
             }
-            // flush remaining progress for this worker
-            flushRemainingProgress(completed, localMatchesPlayed, simCount, progressChunk);
-            return new long[] { localTeam1Wins, localTeam2Wins };
-        };
+            resultCache = new MatchResultCache(RESULT_CACHE_CAPACITY, resultStore);
+        }
+        return resultCache;
     }
 
     /**
      * <p>
-     * Aggregates totals from worker futures.
+     * Gets the agent tables used to key the result cache, building them on
+     * first use and again whenever another catalog is asked for.
      * </p>
      *
-     * @return total number of team 1 wins and team 2 wins as a long[2] array
-     *         {team1Wins, team2Wins}.
-     *         <br>
-     *         </br>
-     * @throws Exception if any worker task failed
+     * <p>
+     * When the tables are rebuilt for a new catalog, cached results of the old
+     * one are invalidated selectively: only matchups the new catalog changed
+     * are dropped.
+     * </p>
+     *
+     * @param catalog the catalog the tables must match
+     * @return the agent tables of the catalog
      */
-    private long[] aggregateWins(List<Future<long[]>> futures) throws Exception {
-        long totalTeam1Wins = 0;
-        long totalTeam2Wins = 0;
-        for (Future<long[]> f : futures) {
-            long[] aggregatedWins = f.get();
-            totalTeam1Wins += aggregatedWins[0];
-            totalTeam2Wins += aggregatedWins[1];
+    private synchronized CompTables getCompTables(AgentCatalog catalog) {
+        if (compTables != null && compTablesCatalog == catalog) {
+            return compTables;
+        }
+        if (compTables != null && catalog != AgentCatalog.getActive()) {
+            // A job that started before a reload keeps its old catalog
+            return CompTables.fromCatalog(catalog);
         }
-        return new long[] { totalTeam1Wins, totalTeam2Wins };
+        CompTables previous = compTables;
+        compTables = CompTables.fromCatalog(catalog);
+        compTablesCatalog = catalog;
+        if (previous != null) {
+            int removed = getResultCache().invalidate(previous, compTables);
+            logger.log(Level.INFO, "Agent catalog changed, invalidated {0} cached results", removed);
+        }
+        return compTables;
     }
 
     /**
      * <p>
-     * Returns the number of simulations assigned to a given worker index using
-     * near-equal distribution with the remainder spread to the earliest
-     * workers.
+     * Watches the catalog file given on the command line with
+     * {@code --catalog=<file>}, so balance changes saved to it apply to the
+     * next simulation without restarting. The agent selectors keep the agents
+     * the application started with; agents added to the file need a restart
+     * to be selectable.
+     * </p>
+     */
+    private void startCatalogWatcher() {
+        Parameters parameters = getParameters();
+        String catalogFile = (parameters != null) ? parameters.getNamed().get("catalog") : null;
+        if (catalogFile == null) {
+            return;
+        }
+        try {
+            catalogWatcher = AgentCatalogWatcher.start(Path.of(catalogFile.trim()), catalog -> {
+                getCompTables(catalog);
+                Platform.runLater(() -> statusLabel.setText("Agent catalog reloaded"));
+            });
+        } catch (IOException | InvalidPathException e) {
+            logger.log(Level.WARNING, "Could not watch agent catalog " + catalogFile, e);
+        }
+    }
+
+    /**
+     * <p>
+     * Appends the standard report header and team compositions section. The
+     * seed is reported so the run can be repeated.
      * </p>
-     *
-     * @param w                    worker index (0-based)
-     * @param simulationsPerWorker base simulations per worker
-     * @param remainder            extra simulations to distribute among first
-     *                             workers
-     * @return number of simulations to run for this worker
      */
-    private long returnDistributedRuns(int w, long simulationsPerWorker, long remainder) {
-        return simulationsPerWorker + (w < remainder ? 1 : 0);
+    private void appendHeaderAndCompositions(StringBuilder results, String map, long simCount, long seed) {
+        results.append("=".repeat(60)).append("\n");
+        results.append("VALORANT MATCH SIMULATION RESULTS\n");
+        results.append("=".repeat(60)).append("\n\n");
+        results.append("Map: ").append(map).append("\n");
+        results.append("Simulations: ").append(numberFormat.format(simCount)).append("\n");
+        results.append("Seed: ").append(seed).append("\n\n");
+
+        results.append("TEAM COMPOSITIONS:\n");
+        results.append("-".repeat(40)).append("\n");
+        results.append("Team 1: ");
+        outputAgents(results, 1);
+        results.append("\nTeam 2: ");
+        outputAgents(results, 2);
+        results.append("\n\n");
     }
 
     /**
@@ -926,67 +1205,48 @@ public class SimulatorApp extends Application {
         }
     }
 
-    /**
-     * <p>
-     * Copies the selected agent names from the UI into the supplied lists for
-     * reuse when creating worker-local team compositions.
-     * </p>
-     *
-     * @param team1Names output list for team 1 agent names (size 5)
-     * @param team2Names output list for team 2 agent names (size 5)
-     */
-    private void captureSelectedAgentNames(List<String> team1Names, List<String> team2Names) {
-        for (int i = 0; i < 5; i++) {
-            team1Names.add(team1Agents.get(i).getValue());
-            team2Names.add(team2Agents.get(i).getValue());
-        }
-    }
-
     /**
      * <p>
      * Throttles UI progress updates to avoid excessive Platform.runLater calls.
-     * Updates the progress bar after a fixed number of local iterations.
+     * Called from scheduler threads each time a piece of the job finishes; the
+     * progress bar is only updated when the whole percentage changes.
      * </p>
      *
-     * @param completed     global completed counter
-     * @param local         local iterations completed in this worker
-     * @param simCount      total simulations requested
-     * @param progressChunk update frequency (in matches)
+     * @param completed global completed counter
+     * @param finished  matches simulated by the piece that just finished
+     * @param simCount  total simulations requested
      */
-    private void throttleProgress(AtomicLong completed, long localMatchesPlayed, long simCount,
-            int progressChunk) {
-        if (localMatchesPlayed % progressChunk == 0) {
-            long done = completed.addAndGet(progressChunk);
-            final double progress = (double) Math.min(done, simCount) / simCount;
-            Platform.runLater(() -> {
-                progressBar.setProgress(progress);
-                statusLabel.setText("Simulation progress: " + (int) (progress * 100) + "%");
-            });
+    private void throttleProgress(AtomicLong completed, long finished, long simCount) {
+        long done = completed.addAndGet(finished);
+        if ((done - finished) * 100 / simCount == done * 100 / simCount) {
+            return;
         }
+        final double progress = (double) Math.min(done, simCount) / simCount;
+        Platform.runLater(() -> {
+            progressBar.setProgress(progress);
+            statusLabel.setText("Simulation progress: " + (int) (progress * 100) + "%");
+        });
     }
 
     /**
      * <p>
-     * Flushes any remaining progress less than one chunk to the UI at the end of
-     * a worker's loop.
+     * Reports the running match count in precision mode, where the total is not
+     * known in advance. The progress bar is set to indeterminate and the status
+     * label is updated every million matches.
      * </p>
      *
-     * @param completed     global completed counter
-     * @param local         local iterations completed in this worker
-     * @param simCount      total simulations requested
-     * @param progressChunk update frequency (in matches)
+     * @param completed global completed counter
+     * @param finished  matches simulated by the piece that just finished
      */
-    private void flushRemainingProgress(AtomicLong completed, long localMatchesPlayed, long simCount,
-            int progressChunk) {
-        long rem = localMatchesPlayed % progressChunk;
-        if (rem > 0) {
-            long done = completed.addAndGet(rem);
-            final double progress = (double) Math.min(done, simCount) / simCount;
-            Platform.runLater(() -> {
-                progressBar.setProgress(progress);
-                statusLabel.setText("Simulation progress: " + (int) (progress * 100) + "%");
-            });
+    private void reportMatchesSimulated(AtomicLong completed, long finished) {
+        long done = completed.addAndGet(finished);
+        if ((done - finished) / PRECISION_PROGRESS_STEP == done / PRECISION_PROGRESS_STEP) {
+            return;
         }
+        Platform.runLater(() -> {
+            progressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+            statusLabel.setText("Simulated " + numberFormat.format(done) + " matches...");
+        });
     }
 
     /**
@@ -0,0 +1,209 @@
+package com.simulator;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * <p>
+ * Scrambled Sobol low-discrepancy generator that hands out the coordinates of
+ * one point per match, for randomized quasi-Monte Carlo jobs.
+ * </p>
+ *
+ * <p>
+ * {@link #seekPoint(long)} moves to point N of the sequence, and every
+ * following draw returns the point's next coordinate: the first draw of a
+ * match is dimension 1, the second dimension 2, and so on. A kernel that
+ * draws a bounded number of values per match, like
+ * {@link MatchSimulator#simulateMatchHalves()} with its at most four draws,
+ * therefore sees a low-discrepancy point set in place of independent
+ * uniforms, and the points of a job fill the unit cube far more evenly than
+ * random ones. Draws past {@value #DIMENSIONS} dimensions, for example the
+ * single rounds of matchups with 50/50 rounds, come from a
+ * {@link CounterRandom} stream of the point instead, so any kernel still gets
+ * valid uniforms.
+ * </p>
+ *
+ * <p>
+ * Each dimension is Owen scrambled with a hash-based nested uniform scramble
+ * seeded from the scramble seed, which keeps the net structure of the
+ * sequence while making every point uniformly distributed. Estimates from one
+ * scramble are unbiased, and independent scrambles give independent
+ * replicates whose spread measures the error; see
+ * {@link QuasiMonteCarloEstimate}.
+ * </p>
+ *
+ * <p>
+ * Coordinates have 32 bits, so {@link #nextInt()} and {@link #nextDouble()}
+ * use one dimension each, and {@link #nextLong()} uses one dimension for the
+ * high half and the point's stream for the low half. The direction numbers
+ * are Joe and Kuo's. Instances are not thread-safe; every worker needs its
+ * own.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see QuasiMonteCarloEstimate
+ * @see CounterRandom
+ */
+
+public final class SobolRandom implements RandomGenerator {
+   /** The number of dimensions taken from the Sobol sequence. */
+   public static final int DIMENSIONS = 16;
+   /** The number of points the sequence provides, 2^32. */
+   public static final long MAX_POINTS = 1L << 32;
+   private static final int BITS = 32;
+   // Keeps the dimension scramble seeds independent of the point streams
+   private static final long SCRAMBLE_SEED_SALT = 0x2545F4914F6CDD1DL;
+   // Degree, polynomial coefficients and initial direction numbers of
+   // dimensions 2 and up (Joe and Kuo, new-joe-kuo-6.21201)
+   private static final int[][] PRIMITIVE_POLYNOMIALS = {
+         { 1, 0, 1 },
+         { 2, 1, 1, 3 },
+         { 3, 1, 1, 3, 1 },
+         { 3, 2, 1, 1, 1 },
+         { 4, 1, 1, 1, 3, 3 },
+         { 4, 4, 1, 3, 5, 13 },
+         { 5, 2, 1, 1, 5, 5, 17 },
+         { 5, 4, 1, 1, 5, 5, 5 },
+         { 5, 7, 1, 1, 7, 11, 19 },
+         { 5, 11, 1, 1, 5, 1, 1 },
+         { 5, 13, 1, 1, 1, 3, 11 },
+         { 5, 14, 1, 3, 5, 5, 31 },
+         { 6, 1, 1, 3, 3, 9, 7, 49 },
+         { 6, 13, 1, 1, 1, 15, 21, 21 },
+         { 6, 16, 1, 3, 1, 13, 27, 49 } };
+   private static final int[][] DIRECTIONS = directionNumbers();
+   private final int[] scrambleSeeds = new int[DIMENSIONS];
+   private final CounterRandom pointStream;
+   private long point;
+   private int dimension;
+
+   /**
+    * Constructs a new generator for one scramble, positioned at the start of
+    * point 0.
+    *
+    * @param scrambleSeed the seed of the scramble and of the point streams
+    */
+   public SobolRandom(long scrambleSeed) {
+      CounterRandom seeds = new CounterRandom(scrambleSeed ^ SCRAMBLE_SEED_SALT);
+      for (int d = 0; d < DIMENSIONS; d++) {
+         scrambleSeeds[d] = seeds.nextInt();
+      }
+      pointStream = new CounterRandom(scrambleSeed);
+      seekPoint(0);
+   }
+
+   /**
+    * Moves the generator to the first coordinate of a point.
+    *
+    * @param index the index of the point in the sequence (0 to 2^32 - 1)
+    * @throws IllegalArgumentException if the index is out of range
+    */
+   public void seekPoint(long index) {
+      if (index < 0 || index >= MAX_POINTS) {
+         throw new IllegalArgumentException("Point index must be between 0 and " + (MAX_POINTS - 1) + ", got: "
+               + index);
+      }
+      point = index;
+      dimension = 0;
+      pointStream.seekMatch(index);
+   }
+
+   /**
+    * Returns the current point's next coordinate as 32 bits, or 32 bits of
+    * the point's stream past the last Sobol dimension.
+    *
+    * @return a random int
+    */
+   @Override
+   public int nextInt() {
+      if (dimension == DIMENSIONS) {
+         return pointStream.nextInt();
+      }
+      int d = dimension++;
+      int[] directions = DIRECTIONS[d];
+      int x = 0;
+      for (long bits = point; bits != 0; bits &= bits - 1) {
+         x ^= directions[Long.numberOfTrailingZeros(bits)];
+      }
+      return scramble(x, scrambleSeeds[d]);
+   }
+
+   /**
+    * Returns the current point's next coordinate as the high 32 bits, with
+    * the low 32 bits from the point's stream.
+    *
+    * @return a random long
+    */
+   @Override
+   public long nextLong() {
+      long high = nextInt();
+      return (high << 32) | (pointStream.nextInt() & 0xFFFFFFFFL);
+   }
+
+   /**
+    * Returns the current point's next coordinate in [0, 1).
+    *
+    * @return a random double
+    */
+   @Override
+   public double nextDouble() {
+      return Integer.toUnsignedLong(nextInt()) * 0x1.0p-32;
+   }
+
+   /************* Helper methods *************/
+   /**
+    * Owen scrambles a coordinate: every bit is flipped depending on the seed
+    * and the bits above it only, so points that share their leading bits stay
+    * together and the net structure is kept.
+    *
+    * <p>
+    * Reversing the bits turns "bits above" into "bits below", which is what
+    * the Laine-Karras style hash (Burley, 2020) mixes: an addition and
+    * xor-multiplies by even constants.
+    * </p>
+    *
+    * @param x    the coordinate bits
+    * @param seed the dimension's scramble seed
+    * @return the scrambled bits
+    */
+   private static int scramble(int x, int seed) {
+      int reversed = Integer.reverse(x);
+      reversed += seed;
+      reversed ^= reversed * 0x6C50B47C;
+      reversed ^= reversed * 0xB82F1E52;
+      reversed ^= reversed * 0xC7AFE638;
+      reversed ^= reversed * 0x8D22F6E6;
+      return Integer.reverse(reversed);
+   }
+
+   /**
+    * Builds the direction numbers of every dimension, scaled to 32 bits.
+    * Dimension 1 is the van der Corput sequence.
+    *
+    * @return the direction numbers indexed by dimension and bit
+    */
+   private static int[][] directionNumbers() {
+      int[][] directions = new int[DIMENSIONS][BITS];
+      for (int i = 0; i < BITS; i++) {
+         directions[0][i] = 1 << (BITS - 1 - i);
+      }
+      for (int d = 1; d < DIMENSIONS; d++) {
+         int[] polynomial = PRIMITIVE_POLYNOMIALS[d - 1];
+         int degree = polynomial[0];
+         int coefficients = polynomial[1];
+         int[] v = directions[d];
+         for (int i = 0; i < degree; i++) {
+            v[i] = polynomial[2 + i] << (BITS - 1 - i);
+         }
+         for (int i = degree; i < BITS; i++) {
+            v[i] = v[i - degree] ^ (v[i - degree] >>> degree);
+            for (int k = 1; k < degree; k++) {
+               if (((coefficients >>> (degree - 1 - k)) & 1) != 0) {
+                  v[i] ^= v[i - k];
+               }
+            }
+         }
+      }
+      return directions;
+   }
+}
@@ -106,6 +106,21 @@ public class TeamComp {
     * @param mapInput the map name used to balance agent relative power
     */
    public TeamComp(String mapInput) {
+      this(AgentCatalog.getActive(), mapInput);
+   }
+
+   /**
+    * Constructs an empty team composition with agents from a catalog balanced
+    * for the specified map.
+    *
+    * The team keeps using this catalog even if another one becomes active
+    * later, so a job can build all of its teams from one catalog version.
+    *
+    * @param catalog  the catalog to take the agents from
+    * @param mapInput the map name used to balance agent relative power
+    * @throws IllegalArgumentException if the catalog is null
+    */
+   public TeamComp(AgentCatalog catalog, String mapInput) {
       teamComposition = new ArrayList<>();
       baseAggro = 0;
       baseControl = 0;
@@ -116,7 +131,7 @@ public class TeamComp {
       numAgents = 0;
       maxTotalTruePoints = 0;
       totalRelativePower = 0;
-      agentList = new AgentList(mapInput);
+      agentList = new AgentList(catalog, mapInput);
    }
 
    /**
@@ -306,6 +321,15 @@ public class TeamComp {
       return teamComposition;
    }
 
+   /**
+    * Gets the catalog the team's agents come from.
+    *
+    * @return the catalog
+    */
+   public AgentCatalog getCatalog() {
+      return agentList.getCatalog();
+   }
+
    /**
     * Retrieves a specific agent from the team composition by name.
     *
@@ -457,4 +481,4 @@ public class TeamComp {
       }
       System.out.println("");
    }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,491 @@
+package com.simulator;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongConsumer;
+
+/**
+ * <p>
+ * Estimates team 1's match win probability with the round-by-round kernel and
+ * optional variance reduction, and reports how many plain Monte Carlo matches
+ * the estimate is worth.
+ * </p>
+ *
+ * <p>
+ * Matches are played round by round like
+ * {@link MatchSimulator#simulateMatchFast()}: each round rolls both teams'
+ * styles, the stylistic swing and the outcome. Every round draws exactly three
+ * numbers from the match's {@link CounterRandom} stream (style, swing,
+ * outcome), so round N of two plays of the same match always sees the same
+ * draws. On top of that, any combination of these techniques can be used:
+ * </p>
+ * <ul>
+ * <li>{@link Technique#ANTITHETIC}: every match is played twice, the second
+ * time with 1 - u for each outcome draw u. A round team 1 barely won in one
+ * play it barely loses in the other, so the two results are negatively
+ * correlated and their average varies less than two independent
+ * matches.</li>
+ * <li>{@link Technique#STRATIFIED}: the style combination of round N is
+ * stratified over the matches of a block. The style draw of round N in the
+ * block's match j is ((j + shift) mod B + v) / B for a random shift per block
+ * and round, so each of the B equal slices of the style distribution is used
+ * exactly once per round, and every combination of styles is played in its
+ * expected share of the block's matches.</li>
+ * <li>{@link Technique#CONTROL_VARIATE}: the analytic round win probability of
+ * each side is known from the plan, so the sum over a match's rounds of
+ * (team 1 won the round) - (team 1's round win probability) has mean exactly
+ * 0. It is strongly correlated with winning the match, and the estimate
+ * subtracts its sample mean times the least-squares coefficient.</li>
+ * </ul>
+ *
+ * <p>
+ * Samples (matches, or antithetic pairs) are grouped in blocks of
+ * {@value #BLOCK_SAMPLES}. Stratification is done within a block, and the
+ * standard error is taken from the spread of the block estimates, which is
+ * valid for every combination of techniques. The effective sample size is
+ * the number of plain Monte Carlo matches with the same standard error,
+ * p(1 - p) / SE^2, so dividing it by the matches played gives the speedup at
+ * equal precision.
+ * </p>
+ *
+ * <p>
+ * Blocks run on a {@link SimulationScheduler}. The result only depends on the
+ * plan, the seed, the match count and the techniques.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see MatchSimulator
+ * @see MatchupPlan
+ * @see SimulationScheduler
+ */
+
+public final class VarianceReducedEstimate {
+   /** Samples per block; stratification and the standard error use blocks. */
+   public static final int BLOCK_SAMPLES = 1_024;
+   private static final int LEAVES_PER_THREAD = 8;
+   private static final int MAX_LEAF_BLOCKS = 64;
+   private static final int ROUNDS_PER_HALF = 12;
+   private static final int ROUNDS_TO_WIN = 13;
+   private static final double FIFTY_FIFTY_CHANCE = 50.0;
+   // Keeps the stratification shifts independent of the match streams
+   private static final long SHIFT_STREAM_SALT = 0x5851F42D4C957F2DL;
+   private final EnumSet<Technique> techniques;
+   private final long matchCount;
+   private final long sampleCount;
+   private final double naiveEstimate;
+   private final double estimate;
+   private final double standardError;
+   private final double controlCoefficient;
+
+   /**
+    * A variance reduction technique.
+    */
+   public enum Technique {
+      ANTITHETIC, STRATIFIED, CONTROL_VARIATE
+   }
+
+   /**
+    * Constructs the result of a finished job from its block sums.
+    *
+    * @param techniques the techniques used
+    * @param matchCount the number of matches played
+    * @param blocks     the sums of every block
+    */
+   private VarianceReducedEstimate(EnumSet<Technique> techniques, long matchCount, BlockSums blocks) {
+      this.techniques = techniques;
+      this.matchCount = matchCount;
+      int blockCount = blocks.count.length;
+      double n = 0;
+      double sumWin = 0;
+      double sumControl = 0;
+      double sumWinControl = 0;
+      double sumControlSquared = 0;
+      for (int b = 0; b < blockCount; b++) {
+         n += blocks.count[b];
+         sumWin += blocks.win[b];
+         sumControl += blocks.control[b];
+         sumWinControl += blocks.winControl[b];
+         sumControlSquared += blocks.controlSquared[b];
+      }
+      sampleCount = (long) n;
+      naiveEstimate = sumWin / n;
+      double controlVariance = sumControlSquared - sumControl * sumControl / n;
+      controlCoefficient = (techniques.contains(Technique.CONTROL_VARIATE) && controlVariance > 0)
+            ? (sumWinControl - sumWin * sumControl / n) / controlVariance
+            : 0.0;
+      estimate = naiveEstimate - controlCoefficient * sumControl / n;
+
+      // Spread of the block estimates around the overall estimate, weighted by
+      // block size
+      double spread = 0;
+      for (int b = 0; b < blockCount; b++) {
+         double blockEstimate = (blocks.win[b] - controlCoefficient * blocks.control[b]) / blocks.count[b];
+         double weight = blocks.count[b] / n;
+         spread += weight * weight * (blockEstimate - estimate) * (blockEstimate - estimate);
+      }
+      standardError = Math.sqrt(spread * blockCount / (blockCount - 1.0));
+   }
+
+   /**
+    * Simulates a number of matches and blocks until the estimate is done.
+    *
+    * @param plan       the compiled matchup
+    * @param jobSeed    the job seed
+    * @param matchCount the number of matches to play, counting both plays of
+    *                   an antithetic pair
+    * @param techniques the techniques to use; empty for plain Monte Carlo
+    * @param scheduler  the scheduler to simulate on
+    * @param progress   receives the number of matches each finished piece
+    *                   played, called from worker threads; may be null
+    * @return the estimate
+    * @throws IllegalArgumentException if the plan, techniques or scheduler are
+    *                                  null, or the match count is too small for
+    *                                  two blocks
+    */
+   public static VarianceReducedEstimate run(MatchupPlan plan, long jobSeed, long matchCount,
+         Set<Technique> techniques, SimulationScheduler scheduler, LongConsumer progress) {
+      if (plan == null || techniques == null || scheduler == null) {
+         throw new IllegalArgumentException(
+               "Invalid input in VarianceReducedEstimate. Plan, techniques and scheduler cannot be null.");
+      }
+      EnumSet<Technique> used = techniques.isEmpty() ? EnumSet.noneOf(Technique.class) : EnumSet.copyOf(techniques);
+      int matchesPerSample = used.contains(Technique.ANTITHETIC) ? 2 : 1;
+      long minimum = 2L * BLOCK_SAMPLES * matchesPerSample;
+      if (matchCount < minimum) {
+         throw new IllegalArgumentException("Match count must be at least " + minimum + ", got: " + matchCount);
+      }
+      long samples = matchCount / matchesPerSample;
+      int blockCount = (int) Math.min(Integer.MAX_VALUE - 8L, (samples + BLOCK_SAMPLES - 1) / BLOCK_SAMPLES);
+      samples = Math.min(samples, (long) blockCount * BLOCK_SAMPLES);
+      int leafBlocks = Math.clamp(blockCount / (scheduler.getParallelism() * LEAVES_PER_THREAD), 1, MAX_LEAF_BLOCKS);
+      Job job = new Job(plan, jobSeed, used, samples, progress, leafBlocks, new BlockSums(blockCount));
+      scheduler.invoke(new BlockRangeTask(job, 0, blockCount));
+      return new VarianceReducedEstimate(used, samples * matchesPerSample, job.sums());
+   }
+
+   /************* Getter methods *************/
+   /**
+    * Gets the techniques the estimate used.
+    *
+    * @return the techniques
+    */
+   public Set<Technique> getTechniques() {
+      return EnumSet.copyOf(techniques);
+   }
+
+   /**
+    * Gets the number of matches played, counting both plays of an antithetic
+    * pair.
+    *
+    * @return the match count
+    */
+   public long getMatchCount() {
+      return matchCount;
+   }
+
+   /**
+    * Gets the number of samples: matches, or antithetic pairs.
+    *
+    * @return the sample count
+    */
+   public long getSampleCount() {
+      return sampleCount;
+   }
+
+   /**
+    * Gets team 1's match win probability.
+    *
+    * @return the estimate (0-1), which with a control variate may fall
+    *         slightly outside 0-1 for extremely lopsided matchups
+    */
+   public double getEstimate() {
+      return estimate;
+   }
+
+   /**
+    * Gets the win rate of the played matches, before the control variate.
+    *
+    * @return the plain average (0-1)
+    */
+   public double getNaiveEstimate() {
+      return naiveEstimate;
+   }
+
+   /**
+    * Gets the standard error of the estimate, from the spread of the block
+    * estimates.
+    *
+    * @return the standard error
+    */
+   public double getStandardError() {
+      return standardError;
+   }
+
+   /**
+    * Gets the coefficient the control variate was subtracted with.
+    *
+    * @return the coefficient, 0 without {@link Technique#CONTROL_VARIATE}
+    */
+   public double getControlCoefficient() {
+      return controlCoefficient;
+   }
+
+   /**
+    * Gets the normal confidence interval of the estimate.
+    *
+    * @param confidence the confidence level (0-1 exclusive)
+    * @return the interval
+    */
+   public ConfidenceInterval getInterval(double confidence) {
+      double halfWidth = ConfidenceInterval.zScore(confidence) * standardError;
+      return new ConfidenceInterval(estimate, Math.max(0.0, estimate - halfWidth), Math.min(1.0, estimate + halfWidth),
+            confidence);
+   }
+
+   /**
+    * Gets the number of plain Monte Carlo matches that would give the same
+    * standard error, p(1 - p) / SE^2.
+    *
+    * @return the effective sample size, or positive infinity if the blocks
+    *         did not vary at all
+    */
+   public double getEffectiveSampleSize() {
+      double p = Math.clamp(estimate, 0.0, 1.0);
+      return (standardError > 0) ? p * (1.0 - p) / (standardError * standardError) : Double.POSITIVE_INFINITY;
+   }
+
+   /**
+    * Settings shared by every piece of one job, and the sums every block
+    * writes its results to.
+    */
+   private record Job(MatchupPlan plan, long jobSeed, Set<Technique> techniques, long sampleCount,
+         LongConsumer progress, int leafBlocks, BlockSums sums) {
+   }
+
+   /**
+    * Per-block sums of the sample values W (match win, averaged over an
+    * antithetic pair) and C (the control). Each block is written by exactly
+    * one task.
+    */
+   private static final class BlockSums {
+      private final int[] count;
+      private final double[] win;
+      private final double[] control;
+      private final double[] winControl;
+      private final double[] controlSquared;
+
+      /**
+       * Constructs empty sums.
+       *
+       * @param blocks the number of blocks
+       */
+      BlockSums(int blocks) {
+         count = new int[blocks];
+         win = new double[blocks];
+         control = new double[blocks];
+         winControl = new double[blocks];
+         controlSquared = new double[blocks];
+      }
+   }
+
+   /**
+    * Simulates the blocks [from, to), splitting the range while it is larger
+    * than the job's leaf size.
+    */
+   private static final class BlockRangeTask extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+      private final transient Job job;
+      private final int from;
+      private final int to;
+
+      /**
+       * Constructs a new task for a range of blocks.
+       *
+       * @param job  the job settings
+       * @param from the first block (inclusive)
+       * @param to   the last block (exclusive)
+       */
+      BlockRangeTask(Job job, int from, int to) {
+         this.job = job;
+         this.from = from;
+         this.to = to;
+      }
+
+      @Override
+      protected void compute() {
+         if (to - from <= job.leafBlocks()) {
+            MatchPlayer player = new MatchPlayer(job);
+            long matches = 0;
+            for (int b = from; b < to; b++) {
+               matches += player.playBlock(b);
+            }
+            if (job.progress() != null) {
+               job.progress().accept(matches);
+            }
+            return;
+         }
+         int middle = from + (to - from) / 2;
+         invokeAll(new BlockRangeTask(job, from, middle), new BlockRangeTask(job, middle, to));
+      }
+   }
+
+   /**
+    * Plays the matches of blocks round by round. Not thread-safe; every leaf
+    * task has its own.
+    */
+   private static final class MatchPlayer {
+      private final Job job;
+      private final MatchupPlan plan;
+      private final CounterRandom random;
+      private final CounterRandom shiftRandom;
+      private final boolean antithetic;
+      private final boolean stratified;
+      // Team 1's style probabilities and where each style's slice of [0, 1)
+      // starts
+      private final double[] team1Styles;
+      private final double[] team1StyleStart = new double[3];
+      private int[] shifts = new int[64];
+      private int shiftCount;
+      private int blockSize;
+      private double matchControl;
+
+      /**
+       * Constructs a player for a job.
+       *
+       * @param job the job settings
+       */
+      MatchPlayer(Job job) {
+         this.job = job;
+         plan = job.plan();
+         random = new CounterRandom(job.jobSeed());
+         shiftRandom = new CounterRandom(job.jobSeed() ^ SHIFT_STREAM_SALT);
+         antithetic = job.techniques().contains(Technique.ANTITHETIC);
+         stratified = job.techniques().contains(Technique.STRATIFIED);
+         team1Styles = MatchupPlan.styleProbabilities(plan.getTrueAggro(1), plan.getTrueControl(1),
+               plan.getTrueMidrange(1), plan.getTrueAggro(1) + plan.getTrueControl(1) + plan.getTrueMidrange(1));
+         team1StyleStart[1] = team1Styles[0];
+         team1StyleStart[2] = team1Styles[0] + team1Styles[1];
+      }
+
+      /**
+       * Plays every sample of a block and stores the block's sums.
+       *
+       * @param block the block
+       * @return the number of matches played
+       */
+      long playBlock(int block) {
+         long first = (long) block * BLOCK_SAMPLES;
+         blockSize = (int) Math.min(BLOCK_SAMPLES, job.sampleCount() - first);
+         shiftRandom.seekMatch(block);
+         shiftCount = 0;
+         double win = 0;
+         double control = 0;
+         double winControl = 0;
+         double controlSquared = 0;
+         for (int j = 0; j < blockSize; j++) {
+            double w = play(first + j, j, false);
+            double c = matchControl;
+            if (antithetic) {
+               w = (w + play(first + j, j, true)) / 2.0;
+               c = (c + matchControl) / 2.0;
+            }
+            win += w;
+            control += c;
+            winControl += w * c;
+            controlSquared += c * c;
+         }
+         BlockSums sums = job.sums();
+         sums.count[block] = blockSize;
+         sums.win[block] = win;
+         sums.control[block] = control;
+         sums.winControl[block] = winControl;
+         sums.controlSquared[block] = controlSquared;
+         return (long) blockSize * (antithetic ? 2 : 1);
+      }
+
+      /**
+       * Plays one match from the start of a sample's stream.
+       *
+       * @param sample   the sample index, which selects the stream
+       * @param position the sample's position in its block
+       * @param mirrored true to use 1 - u for every outcome draw u
+       * @return 1 if team 1 won, otherwise 0; the match's control is left in
+       *         matchControl
+       */
+      private double play(long sample, int position, boolean mirrored) {
+         random.seekMatch(sample);
+         matchControl = 0;
+         int team1Rounds = 0;
+         int team2Rounds = 0;
+         int attackingTeam = plan.getStartingAttacker();
+         for (int round = 0;; round++) {
+            if (round == ROUNDS_PER_HALF || round >= 2 * ROUNDS_PER_HALF) {
+               // Halftime, and before every overtime round
+               attackingTeam = 3 - attackingTeam;
+            }
+            if (playRound(round, position, attackingTeam, mirrored)) {
+               team1Rounds++;
+            } else {
+               team2Rounds++;
+            }
+            // 13 rounds in regulation is always a 2 round lead
+            if (Math.max(team1Rounds, team2Rounds) >= ROUNDS_TO_WIN && Math.abs(team1Rounds - team2Rounds) >= 2) {
+               return (team1Rounds > team2Rounds) ? 1.0 : 0.0;
+            }
+         }
+      }
+
+      /**
+       * Plays one round with exactly three draws: style, swing and outcome.
+       *
+       * @param round         the round index within the match
+       * @param position      the sample's position in its block
+       * @param attackingTeam the attacking team
+       * @param mirrored      true to use 1 - u for the outcome draw u
+       * @return true if team 1 won the round
+       */
+      private boolean playRound(int round, int position, int attackingTeam, boolean mirrored) {
+         double styleRoll = random.nextDouble();
+         if (stratified) {
+            styleRoll = (Math.floorMod(position + shift(round), blockSize) + styleRoll) / blockSize;
+         }
+         double stylisticAdvantage = random.nextDouble() * 4 + 1;
+         double outcome = random.nextDouble();
+         if (mirrored) {
+            outcome = 1.0 - outcome;
+         }
+
+         // One roll picks the style combination: team 1's style from where it
+         // falls, team 2's from where it falls within team 1's slice
+         int team1Style = plan.styleForRoll(1, styleRoll);
+         double within = (styleRoll - team1StyleStart[team1Style]) / team1Styles[team1Style];
+         int team2Style = plan.styleForRoll(2, Math.clamp(within, 0.0, Math.nextDown(1.0)));
+
+         double team1Chance = FIFTY_FIFTY_CHANCE
+               + plan.team1Advantage(attackingTeam, team1Style, team2Style, stylisticAdvantage);
+         boolean team1Wins = (team1Chance == FIFTY_FIFTY_CHANCE) ? outcome < 0.5 : outcome < team1Chance / 100.0;
+         matchControl += (team1Wins ? 1.0 : 0.0) - plan.getTeam1RoundWinProbability(attackingTeam);
+         return team1Wins;
+      }
+
+      /**
+       * Gets the block's stratification shift for a round, drawing shifts in
+       * round order as they are first needed.
+       *
+       * @param round the round index within the match
+       * @return the shift (0 to block size - 1)
+       */
+      private int shift(int round) {
+         while (shiftCount <= round) {
+            if (shiftCount == shifts.length) {
+               shifts = Arrays.copyOf(shifts, shifts.length * 2);
+            }
+            shifts[shiftCount++] = shiftRandom.nextInt(blockSize);
+         }
+         return shifts[round];
+      }
+   }
+}
@@ -0,0 +1,240 @@
+package com.simulator;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * <p>
+ * Simulates matches round by round in SIMD lanes with the Vector API
+ * ({@code jdk.incubator.vector}), one match per lane, advancing every match of
+ * a batch in lockstep.
+ * </p>
+ *
+ * <p>
+ * All matches of a batch play round N at the same time. The attacking side
+ * only depends on the round number, also in overtime, because every match
+ * that reaches 12-12 does so after round 24. So every lane compares its roll
+ * against the same broadcast round win probability, and a round is a handful
+ * of vector operations:
+ * </p>
+ * <ul>
+ * <li>One Philox block per lane every two rounds, computed in the lanes with
+ * the same counter as {@link CounterRandom}, gives each match its own two
+ * rolls</li>
+ * <li>A lane comparison of the rolls against team 1's round win probability
+ * gives the winners, and masked adds update the score counters</li>
+ * <li>Lanes whose match is finished (a team has at least 13 rounds and leads
+ * by 2, which covers regulation and overtime) drop out of the live mask and
+ * keep their score while the rest of the batch plays on</li>
+ * </ul>
+ *
+ * <p>
+ * Each lane draws exactly the rolls {@link MatchSimulator#simulateMatchTable()}
+ * draws for the same match index on a {@link CounterRandom} of the job seed,
+ * so the results are identical to the table-driven kernel, including the
+ * halftime scores and 50/50 round counts.
+ * </p>
+ *
+ * <p>
+ * The Vector API is an incubator module. This class must be compiled and run
+ * with {@code --add-modules jdk.incubator.vector}; without the module,
+ * {@link SimulationScheduler} plays the same matches with the scalar table
+ * kernel instead (see {@link SimulationScheduler#isVectorKernelAvailable()}).
+ * The lane count is the platform's preferred vector size for doubles, for
+ * example 8 with AVX-512 and 4 with AVX2. Instances are not thread-safe;
+ * every worker needs its own.
+ * </p>
+ *
+ * @author exicutioner161
+ * @version 1.0
+ * @see MatchSimulator
+ * @see CounterRandom
+ * @see SimulationScheduler
+ */
+
+public final class VectorMatchSimulator {
+   private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+   private static final VectorSpecies<Long> LONGS = VectorSpecies.of(long.class, DOUBLES.vectorShape());
+   /** Number of matches advanced in lockstep. */
+   public static final int LANES = DOUBLES.length();
+   private static final int ROUNDS_PER_HALF = 12;
+   private static final int ROUNDS_TO_WIN = 13;
+   private static final int BUFFER_MATCHES = 1_024;
+   private static final long LOW_32_BITS = 0xFFFFFFFFL;
+   private static final double DOUBLE_UNIT = 0x1.0p-53;
+   private final MatchupPlan plan;
+   // Philox round keys of the job, zero-extended
+   private final long[] roundKeys0 = new long[CounterRandom.ROUNDS];
+   private final long[] roundKeys1 = new long[CounterRandom.ROUNDS];
+   private final long[] lanes = new long[LANES];
+   private final int[] team1Rounds = new int[BUFFER_MATCHES];
+   private final int[] team2Rounds = new int[BUFFER_MATCHES];
+   private final int[] halftimeTeam1Rounds = new int[BUFFER_MATCHES];
+   private long team1FiftyFiftyWins;
+   private long team2FiftyFiftyWins;
+
+   /**
+    * Constructs a new vector simulator for a compiled matchup and job.
+    *
+    * @param plan    the compiled matchup
+    * @param jobSeed the job seed every match's stream is keyed with
+    * @throws IllegalArgumentException if the plan is null
+    */
+   public VectorMatchSimulator(MatchupPlan plan, long jobSeed) {
+      if (plan == null) {
+         throw new IllegalArgumentException("Invalid input in VectorMatchSimulator. Matchup plan cannot be null.");
+      }
+      this.plan = plan;
+      int key0 = (int) jobSeed;
+      int key1 = (int) (jobSeed >>> 32);
+      for (int round = 0; round < CounterRandom.ROUNDS; round++) {
+         roundKeys0[round] = Integer.toUnsignedLong(key0);
+         roundKeys1[round] = Integer.toUnsignedLong(key1);
+         key0 += CounterRandom.WEYL_0;
+         key1 += CounterRandom.WEYL_1;
+      }
+   }
+
+   /**
+    * Simulates the matches with job indices [from, to) and records them in a
+    * collector.
+    *
+    * @param from       the first match index (inclusive)
+    * @param to         the last match index (exclusive)
+    * @param statistics the collector to record every match in
+    * @throws IllegalArgumentException if the range is invalid or the
+    *                                  collector is null
+    */
+   public void simulateRange(long from, long to, SimulationStatisticsCollector statistics) {
+      if (from < 0 || to < from) {
+         throw new IllegalArgumentException("Invalid match range: " + from + " to " + to);
+      }
+      if (statistics == null) {
+         throw new IllegalArgumentException("Invalid input in VectorMatchSimulator. Statistics cannot be null.");
+      }
+      team1FiftyFiftyWins = 0;
+      team2FiftyFiftyWins = 0;
+      for (long first = from; first < to; first += BUFFER_MATCHES) {
+         int n = (int) Math.min(BUFFER_MATCHES, to - first);
+         for (int offset = 0; offset < n; offset += LANES) {
+            simulateLanes(first + offset, Math.min(LANES, n - offset), offset);
+         }
+         statistics.recordBatch(n, team1Rounds, team2Rounds, halftimeTeam1Rounds);
+      }
+      statistics.increaseTeam1FiftyFiftyWins(team1FiftyFiftyWins);
+      statistics.increaseTeam2FiftyFiftyWins(team2FiftyFiftyWins);
+   }
+
+   /************* Helper methods *************/
+   /**
+    * Plays one batch of matches to the end in the lanes, writes their scores
+    * into the buffers and adds their 50/50 round wins to the counters.
+    *
+    * @param firstMatch the job index of the first lane's match
+    * @param count      the number of live lanes (1 to LANES)
+    * @param offset     the buffer position of the first lane
+    */
+   private void simulateLanes(long firstMatch, int count, int offset) {
+      int startingAttacker = plan.getStartingAttacker();
+      int otherAttacker = 3 - startingAttacker;
+      DoubleVector startingSideProbability = DoubleVector.broadcast(DOUBLES,
+            plan.getTeam1RoundWinProbability(startingAttacker));
+      DoubleVector otherSideProbability = DoubleVector.broadcast(DOUBLES,
+            plan.getTeam1RoundWinProbability(otherAttacker));
+      double startingSideHalfFiftyFifty = plan.getFiftyFiftyProbability(startingAttacker) * 0.5;
+      double otherSideHalfFiftyFifty = plan.getFiftyFiftyProbability(otherAttacker) * 0.5;
+
+      LongVector matchIndices = LongVector.broadcast(LONGS, firstMatch).addIndex(1);
+      LongVector matchLow = matchIndices.and(LOW_32_BITS);
+      LongVector matchHigh = matchIndices.lanewise(VectorOperators.LSHR, 32);
+      LongVector team1 = LongVector.zero(LONGS);
+      LongVector team2 = LongVector.zero(LONGS);
+      VectorMask<Long> live = LONGS.indexInRange(0, count);
+      DoubleVector evenRolls = DoubleVector.zero(DOUBLES);
+      DoubleVector oddRolls = DoubleVector.zero(DOUBLES);
+
+      for (int round = 0; live.anyTrue(); round++) {
+         if ((round & 1) == 0) {
+            // Philox4x32-10 of (block, 0, match low, match high): words 0 and 1
+            // make this round's roll, words 2 and 3 the next round's
+            LongVector c0 = LongVector.broadcast(LONGS, round >>> 1);
+            LongVector c1 = LongVector.zero(LONGS);
+            LongVector c2 = matchLow;
+            LongVector c3 = matchHigh;
+            for (int r = 0; r < CounterRandom.ROUNDS; r++) {
+               LongVector product0 = c0.mul(Integer.toUnsignedLong(CounterRandom.MULTIPLIER_0));
+               LongVector product1 = c2.mul(Integer.toUnsignedLong(CounterRandom.MULTIPLIER_1));
+               LongVector next0 = product1.lanewise(VectorOperators.LSHR, 32).lanewise(VectorOperators.XOR, c1)
+                     .lanewise(VectorOperators.XOR, roundKeys0[r]);
+               LongVector next2 = product0.lanewise(VectorOperators.LSHR, 32).lanewise(VectorOperators.XOR, c3)
+                     .lanewise(VectorOperators.XOR, roundKeys1[r]);
+               c1 = product1.and(LOW_32_BITS);
+               c3 = product0.and(LOW_32_BITS);
+               c0 = next0;
+               c2 = next2;
+            }
+            evenRolls = toUnitDoubles(c0, c1);
+            oddRolls = toUnitDoubles(c2, c3);
+         }
+         DoubleVector rolls = ((round & 1) == 0) ? evenRolls : oddRolls;
+
+         // Regulation halves, then alternating sides in overtime
+         boolean startingSide = (round < ROUNDS_PER_HALF)
+               || (round >= 2 * ROUNDS_PER_HALF && ((round - 2 * ROUNDS_PER_HALF) & 1) == 0);
+         DoubleVector team1WinProbability = startingSide ? startingSideProbability : otherSideProbability;
+         VectorMask<Long> team1Won = rolls.compare(VectorOperators.LT, team1WinProbability).cast(LONGS).and(live);
+         VectorMask<Long> team2Won = live.andNot(team1Won);
+         team1 = team1.add(1, team1Won);
+         team2 = team2.add(1, team2Won);
+
+         double halfFiftyFifty = startingSide ? startingSideHalfFiftyFifty : otherSideHalfFiftyFifty;
+         if (halfFiftyFifty > 0.0) {
+            team1FiftyFiftyWins += rolls.compare(VectorOperators.LT, halfFiftyFifty).cast(LONGS).and(team1Won)
+                  .trueCount();
+            team2FiftyFiftyWins += rolls.compare(VectorOperators.LT, team1WinProbability.add(halfFiftyFifty))
+                  .cast(LONGS).and(team2Won).trueCount();
+         }
+
+         if (round == ROUNDS_PER_HALF - 1) {
+            copyLanes(team1, halftimeTeam1Rounds, offset, count);
+         }
+         VectorMask<Long> finished = team1.compare(VectorOperators.GE, ROUNDS_TO_WIN)
+               .or(team2.compare(VectorOperators.GE, ROUNDS_TO_WIN))
+               .and(team1.sub(team2).abs().compare(VectorOperators.GE, 2));
+         live = live.andNot(finished);
+      }
+      copyLanes(team1, team1Rounds, offset, count);
+      copyLanes(team2, team2Rounds, offset, count);
+   }
+
+   /**
+    * Turns two 32-bit words per lane into a double in [0, 1), the same way
+    * {@link CounterRandom#nextDouble()} does.
+    *
+    * @param high the first word of each lane
+    * @param low  the second word of each lane
+    * @return the doubles
+    */
+   private static DoubleVector toUnitDoubles(LongVector high, LongVector low) {
+      LongVector bits = high.lanewise(VectorOperators.LSHL, 32).or(low).lanewise(VectorOperators.LSHR, 11);
+      return ((DoubleVector) bits.convert(VectorOperators.L2D, 0)).mul(DOUBLE_UNIT);
+   }
+
+   /**
+    * Copies the first lanes of a vector into an int buffer.
+    *
+    * @param vector the vector
+    * @param buffer the buffer
+    * @param offset the buffer position of the first lane
+    * @param count  the number of lanes to copy
+    */
+   private void copyLanes(LongVector vector, int[] buffer, int offset, int count) {
+      vector.intoArray(lanes, 0);
+      for (int lane = 0; lane < count; lane++) {
+         buffer[offset + lane] = (int) lanes[lane];
+      }
+   }
+}